@@ -0,0 +1,65 @@
+package com.live.bench;
+
+import com.live.metrics.LiveMetrics;
+import com.live.model.AIContent;
+import com.live.service.AIContentStore;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import com.live.service.VoteEventLog;
+import com.live.storage.InMemoryStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AI 内容分页：1 万 / 10 万条时取第一页、页码分页取中间页（旧接口，需跳过前面的条目）、游标分页取中间页，每页 20 条。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIContentPageBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String STREAM = "stream-1";
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    private MockDataService service;
+    private int middlePage;
+    private String middleCursor;
+
+    @Setup
+    public void setup() {
+        VoteEventLog events = new VoteEventLog(1024, 500);
+        service = new MockDataService(new InMemoryStateStore(), events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        Instant now = Instant.now();
+        for (int i = 0; i < size; i++) {
+            service.addAIContent(new AIContent("bench-" + i, "AI 内容 " + i, STREAM, now.plusMillis(i)));
+        }
+        middlePage = size / PAGE_SIZE / 2;
+        String cursor = null;
+        for (int p = 1; p < middlePage; p++) cursor = service.getAIContentsAfter(STREAM, cursor, PAGE_SIZE).nextCursor();
+        middleCursor = cursor;
+    }
+
+    @Benchmark
+    public List<AIContent> firstPage() {
+        return service.getAIContents(1, PAGE_SIZE, STREAM);
+    }
+
+    @Benchmark
+    public List<AIContent> offsetMiddlePage() {
+        return service.getAIContents(middlePage, PAGE_SIZE, STREAM);
+    }
+
+    @Benchmark
+    public AIContentStore.CursorPage cursorMiddlePage() {
+        return service.getAIContentsAfter(STREAM, middleCursor, PAGE_SIZE);
+    }
+}
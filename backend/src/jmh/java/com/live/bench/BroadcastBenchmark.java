@@ -0,0 +1,72 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.metrics.LiveMetrics;
+import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.SessionOutbox;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.socket.TextMessage;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次广播开销：旧实现（每次 new ObjectMapper、每会话 new TextMessage 并各自编码）对比预编码共享帧。
+ * 新实现只计入广播线程的编码 + 入队开销，发送由会话队列异步完成。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    /** 连接时订阅 stream-1，流内广播才会投递到这些会话 */
+    private static final URI STREAM_URI = URI.create("ws://localhost/ws?stream_id=stream-1");
+
+    @Param({"1000", "10000"})
+    public int sessions;
+
+    private LiveWebSocketHandler handler;
+    private final List<StubSession> stubs = new ArrayList<>();
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setup() throws Exception {
+        handler = new LiveWebSocketHandler(new ObjectMapper(), new LiveMetrics(), 256, SessionOutbox.OverflowPolicy.LATEST_SNAPSHOT, 4, false, 1024, 200, false);
+        for (int i = 0; i < sessions; i++) {
+            StubSession s = new StubSession("s-" + i, STREAM_URI);
+            handler.afterConnectionEstablished(s);
+            stubs.add(s);
+        }
+        payload = new HashMap<>();
+        payload.put("leftVotes", 1234);
+        payload.put("rightVotes", 5678);
+        payload.put("streamId", "stream-1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    @Benchmark
+    public long legacyPerSessionEncode() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(Map.of("type", "votes-updated", "data", payload));
+        for (StubSession s : stubs) {
+            s.sendMessage(new TextMessage(json));
+        }
+        return stubs.get(0).bytesSent;
+    }
+
+    @Benchmark
+    public long preEncodedFrame() {
+        handler.broadcast("stream-1", "votes-updated", payload);
+        return stubs.get(0).bytesSent;
+    }
+}
@@ -0,0 +1,77 @@
+package com.live.bench;
+
+import com.live.metrics.LiveMetrics;
+import com.live.model.StreamState;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import com.live.service.VoteEventLog;
+import com.live.storage.InMemoryStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多流概览：10 / 100 / 500 个流时读取全部流的状态快照（无变化 / 每次有一个流票数变化），
+ * 对比逐流分别查询各字段（原单流概览的读取方式）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int streams;
+
+    private MockDataService service;
+    private List<String> ids;
+    private int next;
+
+    @Setup
+    public void setup() {
+        VoteEventLog events = new VoteEventLog(1024, 500);
+        service = new MockDataService(new InMemoryStateStore(), events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        service.init();
+        for (int i = 0; i < streams; i++) {
+            service.addStream(new MockDataService.StreamInfo("bench-" + i, "流 " + i, true, null, null));
+            service.addVotes("bench-" + i, i, i);
+        }
+        ids = service.getStreams().stream().map(MockDataService.StreamInfo::getId).toList();
+    }
+
+    @Benchmark
+    public List<StreamState> snapshotUnchanged() {
+        return service.getStreamStates(null);
+    }
+
+    @Benchmark
+    public List<StreamState> snapshotOneChanged() {
+        service.addVotes(ids.get(next++ % ids.size()), 1, 0);
+        return service.getStreamStates(null);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> perFieldLookups() {
+        List<Map<String, Object>> list = new ArrayList<>(ids.size());
+        for (String sid : ids) {
+            MockDataService.VoteState v = service.getVotes(sid);
+            Map<String, Object> data = new HashMap<>();
+            data.put("streamId", sid);
+            data.put("isLive", service.isLive(sid));
+            data.put("aiStatus", service.getAiStatus(sid));
+            data.put("leftVotes", v.getLeftVotes());
+            data.put("rightVotes", v.getRightVotes());
+            data.put("viewers", service.getViewers(sid));
+            MockDataService.DebateDto deb = service.getStreamDebate(sid);
+            if (deb != null) data.put("debateTopic", deb.getTitle());
+            list.add(data);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,100 @@
+package com.live.bench;
+
+import com.live.model.AIContent;
+import com.live.model.UserInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 堆占用对比：10 万用户 / AI 内容分别以 Map&lt;String, Object&gt;（旧）与 record（新）存储时的保留堆。
+ * <pre>
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.live.bench.DomainMemoryBenchmark
+ * </pre>
+ */
+public class DomainMemoryBenchmark {
+
+    private static final int N = 100_000;
+    private static final String AVATAR = "https://thirdwx.qlogo.cn/mmopen/vi_32/POgEwh4mIHO4nibH0KlMECNjjGxQUq24ZEaGT4poC6icRiccVGKSyXwibcPq4BWmiaIGuG1icwxaQX6grC9VemZoJ8rg/132";
+
+    public static void main(String[] args) {
+        report("users    Map   ", DomainMemoryBenchmark::mapUsers);
+        report("users    record", DomainMemoryBenchmark::recordUsers);
+        report("contents Map   ", DomainMemoryBenchmark::mapContents);
+        report("contents record", DomainMemoryBenchmark::recordContents);
+    }
+
+    private static List<Object> mapUsers() {
+        List<Object> list = new ArrayList<>(N);
+        long base = Instant.parse("2025-11-17T07:06:24.322Z").toEpochMilli();
+        for (int i = 0; i < N; i++) {
+            String ts = Instant.ofEpochMilli(base + i).toString();
+            list.add(Map.of(
+                    "id", "user-" + i,
+                    "nickName", "微信用户",
+                    "avatarUrl", AVATAR,
+                    "createdAt", ts,
+                    "updatedAt", ts,
+                    "totalVotes", i % 500,
+                    "joinedDebates", i % 50,
+                    "status", "active"));
+        }
+        return list;
+    }
+
+    private static List<Object> recordUsers() {
+        List<Object> list = new ArrayList<>(N);
+        long base = Instant.parse("2025-11-17T07:06:24.322Z").toEpochMilli();
+        for (int i = 0; i < N; i++) {
+            Instant ts = Instant.ofEpochMilli(base + i);
+            list.add(new UserInfo("user-" + i, "微信用户", AVATAR, ts, ts, i % 500, i % 50, "active"));
+        }
+        return list;
+    }
+
+    private static List<Object> mapContents() {
+        List<Object> list = new ArrayList<>(N);
+        for (int i = 0; i < N; i++) {
+            Map<String, Object> c = new HashMap<>();
+            c.put("id", "ai-" + i);
+            c.put("contentText", "AI 识别内容 " + i);
+            c.put("streamId", "stream-1");
+            c.put("createdAt", Instant.ofEpochMilli(i).toString());
+            c.put("comments", new ArrayList<Map<String, Object>>());
+            list.add(c);
+        }
+        return list;
+    }
+
+    private static List<Object> recordContents() {
+        List<Object> list = new ArrayList<>(N);
+        for (int i = 0; i < N; i++) {
+            list.add(new AIContent("ai-" + i, "AI 识别内容 " + i, "stream-1", Instant.ofEpochMilli(i)));
+        }
+        return list;
+    }
+
+    private static void report(String name, java.util.function.Supplier<List<Object>> factory) {
+        long before = usedAfterGc();
+        List<Object> data = factory.get();
+        long after = usedAfterGc();
+        System.out.printf("%s  %,d entries  %,d KB  %d bytes/entry%n",
+                name, data.size(), (after - before) / 1024, (after - before) / data.size());
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,81 @@
+package com.live.bench;
+
+import com.live.common.HashedWheelTimer;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 流程计时规模测试：N 个流各自每秒一次 tick（每次重新排期，与 DebateFlowEngine 相同），
+ * 对比时间轮与 ScheduledThreadPoolExecutor 的触发延迟（实际触发 - 计划时间）。
+ * <pre>
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.live.bench.FlowTimerBenchmark -Dexec.args="10000 10"
+ * </pre>
+ * 参数：流数 持续秒数
+ */
+public class FlowTimerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int streams = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        HashedWheelTimer wheel = new HashedWheelTimer("bench-wheel", 50, 512);
+        run("hashed-wheel", streams, seconds, (task, delay) -> wheel.schedule(task, delay));
+        wheel.stop();
+
+        ScheduledExecutorService pool = Executors.newScheduledThreadPool(1);
+        run("scheduled-pool", streams, seconds, (task, delay) -> pool.schedule(task, delay, TimeUnit.MILLISECONDS));
+        pool.shutdownNow();
+    }
+
+    interface Scheduler {
+        void schedule(Runnable task, long delayMs);
+    }
+
+    private static void run(String name, int streams, int seconds, Scheduler scheduler) throws InterruptedException {
+        long[] lateness = new long[streams * (seconds + 1)];
+        AtomicInteger n = new AtomicInteger();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int i = 0; i < streams; i++) {
+            new Ticker(scheduler, lateness, n, end).schedule(System.nanoTime() + (i % 1000) * 1_000_000L);
+        }
+        Thread.sleep(seconds * 1000L + 1500);
+        int count = Math.min(n.get(), lateness.length);
+        long[] s = Arrays.copyOf(lateness, count);
+        Arrays.sort(s);
+        System.out.printf("%-15s streams=%d ticks=%d lateness p50=%.1fms p99=%.1fms max=%.1fms%n", name, streams, count,
+                s[count / 2] / 1e6, s[(int) (count * 0.99)] / 1e6, s[count - 1] / 1e6);
+    }
+
+    private static final class Ticker implements Runnable {
+        final Scheduler scheduler;
+        final long[] lateness;
+        final AtomicInteger n;
+        final long end;
+        long due;
+
+        Ticker(Scheduler scheduler, long[] lateness, AtomicInteger n, long end) {
+            this.scheduler = scheduler;
+            this.lateness = lateness;
+            this.n = n;
+            this.end = end;
+        }
+
+        void schedule(long due) {
+            this.due = due;
+            scheduler.schedule(this, Math.max(0, (due - System.nanoTime()) / 1_000_000));
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            int i = n.getAndIncrement();
+            if (i < lateness.length) lateness[i] = Math.max(0, now - due);
+            if (now < end) schedule(due + 1_000_000_000L);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.live.bench;
+
+import com.live.common.SpaceSaving;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热点统计：一个推送周期内 changed 条内容（倾斜分布，少数内容占大部分互动）计入 Space-Saving 并取 top-10，
+ * 即 HotContentBroadcaster 每流每周期的统计开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotContentBenchmark {
+
+    @Param({"100", "2000"})
+    public int changed;
+
+    private String[] keys;
+    private double[] weights;
+    private SpaceSaving sketch;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        keys = new String[changed];
+        weights = new double[changed];
+        for (int i = 0; i < changed; i++) {
+            keys[i] = "ai-" + r.nextInt(10_000);
+            // 约 1/x 分布：少数内容权重很大
+            weights[i] = Math.floor(1000.0 / (1 + r.nextInt(1000)));
+        }
+        sketch = new SpaceSaving(40);
+    }
+
+    @Benchmark
+    public List<String> tick() {
+        sketch.decay(0.966, 0.05);
+        for (int i = 0; i < keys.length; i++) sketch.add(keys[i], weights[i]);
+        return sketch.top(10);
+    }
+}
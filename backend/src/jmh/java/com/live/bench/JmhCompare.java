@@ -0,0 +1,93 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比两次 JMH 结果（-rf json 输出）：按 基准名 + 参数 对齐，输出基线 / 当前分数与变化百分比，
+ * 变差超过阈值（默认 10%）且超出两次误差之和的条目标记为 REGRESSION，存在时退出码为 1。
+ * throughput 模式分数越高越好，其余模式越低越好。
+ * <pre>
+ * git checkout &lt;base&gt; &amp;&amp; mvn -Pjmh verify -Djmh.args="-rf json -rff target/jmh-base.json"
+ * git checkout &lt;head&gt; &amp;&amp; mvn -Pjmh verify
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.live.bench.JmhCompare -Dexec.args="target/jmh-base.json target/jmh-result.json 10"
+ * </pre>
+ * 参数：基线结果 当前结果 [阈值百分比]
+ */
+public class JmhCompare {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: JmhCompare <base.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, JsonNode> base = load(args[0]);
+        Map<String, JsonNode> current = load(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-72s %6s %14s %14s %9s%n", "Benchmark", "Mode", "Base", "Current", "Change");
+        for (Map.Entry<String, JsonNode> e : current.entrySet()) {
+            JsonNode cur = e.getValue();
+            JsonNode old = base.get(e.getKey());
+            String mode = cur.path("mode").asText();
+            String unit = cur.path("primaryMetric").path("scoreUnit").asText();
+            double c = score(cur);
+            if (old == null) {
+                System.out.printf("%-72s %6s %14s %14.3f %9s  %s%n", e.getKey(), mode, "-", c, "new", unit);
+                continue;
+            }
+            double b = score(old);
+            double change = b == 0 ? 0 : (c - b) / b * 100;
+            boolean higherIsBetter = "thrpt".equals(mode);
+            double worse = higherIsBetter ? -change : change;
+            boolean significant = Math.abs(c - b) > error(cur) + error(old);
+            String flag = "";
+            if (worse > threshold && significant) {
+                flag = "REGRESSION";
+                regressions++;
+            } else if (-worse > threshold && significant) {
+                flag = "improved";
+            }
+            System.out.printf("%-72s %6s %14.3f %14.3f %+8.1f%%  %s %s%n", e.getKey(), mode, b, c, change, unit, flag);
+        }
+        for (String k : base.keySet()) {
+            if (!current.containsKey(k)) System.out.printf("%-72s %6s %14s %14s %9s%n", k, "", "", "-", "removed");
+        }
+        System.out.printf("%nregressions: %d (threshold %.0f%%)%n", regressions, threshold);
+        if (regressions > 0) System.exit(1);
+    }
+
+    /** 基准名（去掉包名）+ 参数 -> 结果 */
+    private static Map<String, JsonNode> load(String path) throws Exception {
+        JsonNode root = new ObjectMapper().readTree(new File(path));
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode r : root) {
+            String name = r.path("benchmark").asText().replace("com.live.bench.", "");
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> it = r.path("params").fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> p = it.next();
+                params.put(p.getKey(), p.getValue().asText());
+            }
+            results.put(params.isEmpty() ? name : name + params, r);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode r) {
+        return r.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode r) {
+        double e = r.path("primaryMetric").path("scoreError").asDouble();
+        return Double.isNaN(e) ? 0 : e;
+    }
+}
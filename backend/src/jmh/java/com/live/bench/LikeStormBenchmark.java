@@ -0,0 +1,46 @@
+package com.live.bench;
+
+import com.live.model.Comment;
+import com.live.service.CommentBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单卡点赞风暴：4 线程同时点赞同一条 AI 内容 / 同一条评论（分段计数），对比单个 AtomicLong 计数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LikeStormBenchmark {
+
+    private CommentBoard board;
+    private final AtomicLong atomic = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        board = new CommentBoard();
+        board.add("ai-1", new Comment("c-1", "用户", "评论", null, Instant.now(), 0));
+    }
+
+    @Benchmark
+    public long atomicLongBaseline() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    public long likeContent() {
+        return board.likeContent("ai-1");
+    }
+
+    @Benchmark
+    public long likeComment() {
+        return board.likeComment("ai-1", "c-1");
+    }
+}
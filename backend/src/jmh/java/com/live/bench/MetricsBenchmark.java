@@ -0,0 +1,43 @@
+package com.live.bench;
+
+import com.live.metrics.LiveMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指标记录热路径开销；配合 -prof gc 查看每次操作分配（应为 0 B/op）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private LiveMetrics metrics;
+
+    @Setup
+    public void setup() {
+        metrics = new LiveMetrics();
+        metrics.recordRequest("GET", "/api/v1/votes", 200, 1);
+        metrics.recordVotes("stream-1", 1, 0);
+    }
+
+    @Benchmark
+    public void recordRequest() {
+        metrics.recordRequest("GET", "/api/v1/votes", 200, 350_000);
+    }
+
+    @Benchmark
+    public void recordVotes() {
+        metrics.recordVotes("stream-1", 1, 0);
+    }
+
+    @Benchmark
+    public void recordBroadcast() {
+        metrics.recordBroadcast(4_000);
+    }
+}
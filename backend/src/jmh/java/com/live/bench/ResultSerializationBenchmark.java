@@ -0,0 +1,73 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.common.Result;
+import com.live.model.AIContent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result 信封序列化（与 Spring MVC 相同的 ObjectMapper 配置）：票数、数据概览、50 条 AI 内容一页。
+ * 每种负载的字节数在 Setup 时打印。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSerializationBenchmark {
+
+    @Param({"votes", "dashboard", "aiPage"})
+    public String payload;
+
+    private ObjectMapper objectMapper;
+    private Map<String, Object> data;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        data = new HashMap<>();
+        switch (payload) {
+            case "votes" -> {
+                data.put("streamId", "stream-1");
+                data.put("leftVotes", 12345);
+                data.put("rightVotes", 6789);
+            }
+            case "dashboard" -> {
+                data.put("streamId", "stream-1");
+                data.put("isLive", true);
+                data.put("aiStatus", "running");
+                data.put("leftVotes", 12345);
+                data.put("rightVotes", 6789);
+                data.put("viewers", 4321);
+                data.put("debateTopic", "人工智能是否会取代大部分工作");
+                data.put("leftPosition", "会");
+                data.put("rightPosition", "不会");
+            }
+            default -> {
+                Instant now = Instant.now();
+                List<AIContent> list = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    list.add(new AIContent("ai-" + i, "AI 生成的辩论要点 " + i, "stream-1", now));
+                }
+                data.put("list", list);
+                data.put("total", list.size());
+                data.put("nextCursor", "50");
+            }
+        }
+        System.out.printf("%n%s: %d bytes%n", payload, objectMapper.writeValueAsBytes(Result.ok(data)).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(Result.ok(data));
+    }
+}
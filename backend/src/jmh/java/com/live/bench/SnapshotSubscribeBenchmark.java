@@ -0,0 +1,64 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.metrics.LiveMetrics;
+import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.SessionOutbox;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.socket.CloseStatus;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 重连风暴：1000 个客户端以 ?snapshot=1 连接同一流的总开销，快照帧复用（snapshot-cache-ms=200）对比每客户端重新编码（0）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotSubscribeBenchmark {
+
+    private static final int CLIENTS = 1000;
+    private static final URI SNAPSHOT_URI = URI.create("ws://localhost/ws?stream_id=stream-1&snapshot=1");
+
+    @Param({"0", "200"})
+    public long snapshotCacheMs;
+
+    private LiveWebSocketHandler handler;
+    private final List<StubSession> stubs = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        handler = new LiveWebSocketHandler(new ObjectMapper(), new LiveMetrics(), 256, SessionOutbox.OverflowPolicy.LATEST_SNAPSHOT, 4, false,
+                1024, snapshotCacheMs, false);
+        Map<String, Object> debate = new HashMap<>();
+        debate.put("title", "如果有一个能一键消除痛苦的按钮，你会按吗？");
+        debate.put("leftPosition", "会按");
+        debate.put("rightPosition", "不会按");
+        List<Map<String, Object>> contents = new ArrayList<>();
+        for (int i = 0; i < 20; i++) contents.add(Map.of("id", "ai-" + i, "contentText", "AI 识别内容 " + i, "streamId", "stream-1"));
+        handler.addSnapshotPart("isLive", sid -> true);
+        handler.addSnapshotPart("votes", sid -> Map.of("leftVotes", 1234, "rightVotes", 5678));
+        handler.addSnapshotPart("debate", sid -> debate);
+        handler.addSnapshotPart("aiContents", sid -> contents);
+        for (int i = 0; i < CLIENTS; i++) stubs.add(new StubSession("s-" + i, SNAPSHOT_URI));
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    @Benchmark
+    public void reconnectStorm() throws Exception {
+        for (StubSession s : stubs) handler.afterConnectionEstablished(s);
+        for (StubSession s : stubs) handler.afterConnectionClosed(s, CloseStatus.NORMAL);
+    }
+}
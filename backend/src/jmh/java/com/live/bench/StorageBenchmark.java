@@ -0,0 +1,106 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.metrics.LiveMetrics;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import com.live.service.VoteEventLog;
+import com.live.storage.InMemoryStateStore;
+import com.live.storage.StateStore;
+import com.live.storage.WalStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 存储开销：纯内存与 WAL 模式下 addVotes 吞吐，以及 WAL 中 100 万条投票变更的恢复耗时。
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    private static final int RECOVERY_RECORDS = 1_000_000;
+
+    @Param({"memory", "wal"})
+    public String storage;
+
+    private Path dir;
+    private StateStore store;
+    private MockDataService service;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("live-bench-");
+        store = open(storage, dir);
+        VoteEventLog events = new VoteEventLog(262144, 500);
+        service = new MockDataService(store, events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        service.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (store instanceof WalStateStore w) w.close();
+        delete(dir);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(4)
+    public void addVotes() {
+        service.addVotes("stream-1", 1, 0);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    public int recover1M(RecoveryLog log) {
+        VoteEventLog events = new VoteEventLog(1024, 500);
+        MockDataService s = new MockDataService(open("wal", log.dir), events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        s.init();
+        return s.getVotes("stream-1").getLeftVotes();
+    }
+
+    /** 预先写好 100 万条投票变更；不调用 close()（关闭会生成快照并截断日志），模拟崩溃后需完整回放 */
+    @State(Scope.Benchmark)
+    public static class RecoveryLog {
+        Path dir;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            dir = Files.createTempDirectory("live-recovery-");
+            VoteEventLog events = new VoteEventLog(1024, 500);
+            WalStateStore store = (WalStateStore) open("wal", dir);
+            MockDataService s = new MockDataService(store, events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+            s.init();
+            // 两个流交替写入：同一流连续的投票会合并为一条记录
+            for (int i = 0; i < RECOVERY_RECORDS; i++) s.addVotes((i & 1) == 0 ? "stream-1" : "stream-2", 1, 0);
+            store.flush();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(dir);
+        }
+    }
+
+    private static StateStore open(String type, Path dir) {
+        if ("memory".equals(type)) return new InMemoryStateStore();
+        return new WalStateStore(new ObjectMapper().findAndRegisterModules(), dir.toString(), 64, 10, 3600);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.live.bench;
+
+import com.live.model.UserInfo;
+import com.live.service.UserDirectory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户目录：10 万 / 100 万用户时按 openid 查询、游标分页取首页与中间页、按状态过滤的游标分页、投票计数累加，每页 20 条。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserDirectoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private UserDirectory users;
+    private String middleId;
+    private String middleCursor;
+
+    @Setup
+    public void setup() {
+        users = new UserDirectory();
+        Instant base = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < size; i++) {
+            Instant t = base.plusSeconds(i);
+            users.upsert(new UserInfo("openid-" + i, "用户" + i, null, t, t, 0, 0, i % 10 == 0 ? "banned" : "active"));
+        }
+        middleId = "openid-" + size / 2;
+        middleCursor = users.pageAfter(null, "", size / 2).nextCursor();
+    }
+
+    @Benchmark
+    public UserInfo lookup() {
+        return users.get(middleId);
+    }
+
+    @Benchmark
+    public UserDirectory.CursorPage cursorFirstPage() {
+        return users.pageAfter(null, "", PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserDirectory.CursorPage cursorMiddlePage() {
+        return users.pageAfter(null, middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserDirectory.CursorPage statusMiddlePage() {
+        return users.pageAfter("banned", middleCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void addVotes() {
+        users.addCounts(middleId, 1, 0);
+    }
+}
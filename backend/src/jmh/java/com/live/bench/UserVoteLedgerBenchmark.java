@@ -0,0 +1,42 @@
+package com.live.bench;
+
+import com.live.service.UserVoteLedger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户投票账本：10 万投票用户规模下重复提交分配（查旧分配 + 写新分配 + 求差值）的吞吐。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class UserVoteLedgerBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private UserVoteLedger ledger;
+    private String[] userIds;
+
+    @Setup
+    public void setup() {
+        ledger = new UserVoteLedger();
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = "owaF-13Ueukqwd_" + i;
+            ledger.allocate(userIds[i], 50, 50);
+        }
+    }
+
+    @Benchmark
+    public long reallocate() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        int left = r.nextInt(101);
+        return ledger.allocate(userIds[r.nextInt(USERS)], left, 100 - left);
+    }
+}
@@ -0,0 +1,81 @@
+package com.live.bench;
+
+import com.live.metrics.LiveMetrics;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import com.live.service.VoteEventLog;
+import com.live.storage.InMemoryStateStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 投票竞争：4 线程同时写 MockDataService，全部集中在 1 个流（热点）对比分散到 8 个流；
+ * addVotes 为管理端累加，castUserVote 为 1 万用户重复提交分配，getVotes 与写入并发读。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class VoteContentionBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"1", "8"})
+    public int streams;
+
+    private MockDataService service;
+    private VoteEventLog events;
+    private String[] streamIds;
+    private String[] userIds;
+
+    @Setup
+    public void setup() {
+        events = new VoteEventLog(262144, 500);
+        events.start();
+        service = new MockDataService(new InMemoryStateStore(), events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        service.init();
+        streamIds = new String[streams];
+        for (int i = 0; i < streams; i++) streamIds[i] = "stream-" + (i + 1);
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) userIds[i] = "user-" + i;
+    }
+
+    @TearDown
+    public void tearDown() {
+        events.stop();
+    }
+
+    @Benchmark
+    public void addVotes() {
+        service.addVotes(stream(), 1, 0);
+    }
+
+    @Benchmark
+    public long castUserVote() {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        return service.castUserVote(stream(), userIds[r.nextInt(USERS)], r.nextInt(10), r.nextInt(10));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public void readWriteAdd() {
+        service.addVotes(stream(), 0, 1);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public MockDataService.VoteState readWriteGet() {
+        return service.getVotes(stream());
+    }
+
+    private String stream() {
+        return streams == 1 ? streamIds[0] : streamIds[ThreadLocalRandom.current().nextInt(streams)];
+    }
+}
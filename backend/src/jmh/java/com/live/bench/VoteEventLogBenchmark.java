@@ -0,0 +1,46 @@
+package com.live.bench;
+
+import com.live.service.VoteCounter;
+import com.live.service.VoteEventLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 投票热路径开销：只累加计数器 对比 累加计数器 + 记录投票事件（聚合在后台线程，不计入）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class VoteEventLogBenchmark {
+
+    private VoteCounter counter;
+    private VoteEventLog events;
+
+    @Setup
+    public void setup() {
+        counter = new VoteCounter();
+        events = new VoteEventLog(262144, 500);
+        events.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        events.stop();
+    }
+
+    @Benchmark
+    public void counterOnly() {
+        counter.add(1, 0);
+    }
+
+    @Benchmark
+    public void counterWithEvent() {
+        counter.add(1, 0);
+        events.record("stream-1", 1, 0, "user-1");
+    }
+}
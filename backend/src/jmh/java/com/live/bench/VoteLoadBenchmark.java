@@ -0,0 +1,151 @@
+package com.live.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 投票接口压测：对运行中的后端并发请求 POST /api/v1/user-vote 与 GET /api/v1/votes，输出吞吐与 p50/p99。
+ * <p>
+ * 分别以平台线程 / 虚拟线程模式启动后端后运行：
+ * <pre>
+ * java -jar target/live-backend-1.0.0.jar --spring.threads.virtual.enabled=true
+ * mvn -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.live.bench.VoteLoadBenchmark -Dexec.args="http://localhost:8000 400 20"
+ * </pre>
+ * 参数：baseUrl 并发数 持续秒数 [streamId]
+ */
+public class VoteLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8000";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String streamId = args.length > 3 ? args[3] : "stream-1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        HttpRequest getVotes = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/votes?stream_id=" + streamId))
+                .timeout(Duration.ofSeconds(10)).GET().build();
+
+        // 预热
+        for (int i = 0; i < 200; i++) client.send(getVotes, HttpResponse.BodyHandlers.discarding());
+
+        List<Worker> workers = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int i = 0; i < concurrency; i++) {
+            Worker w = new Worker(client, baseUrl, streamId, getVotes, "load-user-" + i, deadline, done);
+            workers.add(w);
+            Thread t = new Thread(w, "load-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+        done.await();
+
+        Recorder votes = new Recorder();
+        Recorder reads = new Recorder();
+        long errors = 0;
+        for (Worker w : workers) {
+            votes.addAll(w.votes);
+            reads.addAll(w.reads);
+            errors += w.errors;
+        }
+        System.out.printf("concurrency=%d duration=%ds errors=%d%n", concurrency, seconds, errors);
+        votes.print("POST /api/v1/user-vote", seconds);
+        reads.print("GET  /api/v1/votes", seconds);
+    }
+
+    private static final class Worker implements Runnable {
+        final HttpClient client;
+        final String baseUrl;
+        final String streamId;
+        final HttpRequest getVotes;
+        final String userId;
+        final long deadline;
+        final CountDownLatch done;
+        final Recorder votes = new Recorder();
+        final Recorder reads = new Recorder();
+        long errors;
+
+        Worker(HttpClient client, String baseUrl, String streamId, HttpRequest getVotes, String userId,
+               long deadline, CountDownLatch done) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.streamId = streamId;
+            this.getVotes = getVotes;
+            this.userId = userId;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                boolean vote = true;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest req = vote ? voteRequest() : getVotes;
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<Void> resp = client.send(req, HttpResponse.BodyHandlers.discarding());
+                        if (resp.statusCode() != 200) errors++;
+                    } catch (Exception e) {
+                        errors++;
+                    }
+                    (vote ? votes : reads).record(System.nanoTime() - t0);
+                    vote = !vote;
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private HttpRequest voteRequest() {
+            int left = ThreadLocalRandom.current().nextInt(101);
+            String body = "{\"request\":{\"leftVotes\":" + left + ",\"rightVotes\":" + (100 - left)
+                    + ",\"streamId\":\"" + streamId + "\",\"userId\":\"" + userId + "\"}}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/user-vote"))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    /** 延迟样本（纳秒） */
+    private static final class Recorder {
+        long[] samples = new long[1024];
+        int size;
+
+        void record(long nanos) {
+            if (size == samples.length) samples = Arrays.copyOf(samples, size * 2);
+            samples[size++] = nanos;
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) record(other.samples[i]);
+        }
+
+        void print(String name, int seconds) {
+            long[] s = Arrays.copyOf(samples, size);
+            Arrays.sort(s);
+            System.out.printf("%-24s requests=%d throughput=%.0f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    name, size, size / (double) seconds, pct(s, 0.50), pct(s, 0.99),
+                    s.length == 0 ? 0 : s[s.length - 1] / 1e6);
+        }
+
+        private static double pct(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.live.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.metrics.LiveMetrics;
+import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.SessionOutbox;
+import com.live.websocket.WsBinaryCodec;
+import com.live.websocket.WsFrame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高频事件编码：JSON 文本帧（票数同时发 votes-updated / votesUpdate 两个事件名）对比二进制 varint 帧。
+ * 每次操作编码一个事件；每事件字节数在 Setup 时打印。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WsEncodingBenchmark {
+
+    private static final String[] VOTE_EVENTS = {"votes-updated", "votesUpdate"};
+    private static final String[] TICK_EVENTS = {"flow-tick"};
+
+    @Param({"votes", "flow-tick"})
+    public String event;
+
+    private LiveWebSocketHandler handler;
+    private String[] types;
+    private Map<String, Object> data;
+    private long seq;
+
+    @Setup
+    public void setup() {
+        handler = new LiveWebSocketHandler(new ObjectMapper(), new LiveMetrics(), 256, SessionOutbox.OverflowPolicy.LATEST_SNAPSHOT, 1, false, 1024, 200, false);
+        data = new HashMap<>();
+        data.put("streamId", "stream-1");
+        if (event.equals("votes")) {
+            types = VOTE_EVENTS;
+            data.put("leftVotes", 123_456);
+            data.put("rightVotes", 98_765);
+        } else {
+            types = TICK_EVENTS;
+            data.put("index", 4);
+            data.put("remaining", 173);
+        }
+        int json = 0;
+        for (WsFrame f : handler.encode(types, data)) json += f.size();
+        int binary = WsBinaryCodec.encode(WsBinaryCodec.eventId(types[0]), 123_456, data).length;
+        System.out.printf("%n[%s] bytes/event json=%d binary=%d%n", event, json, binary);
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.shutdown();
+    }
+
+    @Benchmark
+    public int json() {
+        int n = 0;
+        for (WsFrame f : handler.encode(types, data)) n += f.size();
+        return n;
+    }
+
+    @Benchmark
+    public int binary() {
+        return WsBinaryCodec.encode(WsBinaryCodec.eventId(types[0]), ++seq, data).length;
+    }
+}
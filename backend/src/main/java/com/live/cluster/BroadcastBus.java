@@ -0,0 +1,41 @@
+package com.live.cluster;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * 跨节点广播总线：各节点发布事件与计数，其他节点收到后只向自己的会话投递。
+ * 通过 live.bus.type 选择实现：local（默认，进程内）| tcp（节点间 TCP 全连接）
+ */
+public interface BroadcastBus {
+
+    /** 本节点标识 */
+    String nodeId();
+
+    /** 向其他节点发布；不阻塞调用方，节点不可达时丢弃 */
+    void publish(String topic, byte[] payload);
+
+    /** 订阅其他节点在 topic 上发布的消息，回调参数为 (来源节点, 负载)；本节点发布的消息不会回送 */
+    void subscribe(String topic, BiConsumer<String, byte[]> listener);
+
+    /** 总线统计：节点、连接、收发与丢弃数 */
+    Map<String, Object> stats();
+
+    /**
+     * 节点标识：未配置时取主机名（加 suffix 区分同机多实例），重启后不变，其他节点按同一标识替换其贡献；
+     * 主机名不可用时才随机生成
+     */
+    static String resolveNodeId(String configured, String suffix) {
+        if (configured != null && !configured.isBlank()) return configured;
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = UUID.randomUUID().toString().substring(0, 8);
+        }
+        return suffix != null ? host + "-" + suffix : host;
+    }
+}
@@ -0,0 +1,247 @@
+package com.live.cluster;
+
+import com.live.service.MockDataService;
+import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.ViewerBroadcaster;
+import com.live.websocket.VoteBroadcastCoalescer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多节点同步：把本节点接入 {@link BroadcastBus}。
+ * <ul>
+ *   <li>ws：本节点 broadcast 的事件发往其他节点，收到的事件只投递给本节点会话；</li>
+ *   <li>counters：各节点周期性发布自己对每流的票数与观看人数贡献（有变化即发，另定期全量），
+ *       总票数 = 本节点计数 + 各节点最新贡献（状态型计数器，消息重复或丢失后由下一次发布纠正）；</li>
+ *   <li>vote-reset：直接设置票数时，设置方以新的代数（时间戳）通知其他节点清零本地计数，
+ *       代数更小的贡献视为重置前的旧值丢弃。</li>
+ * </ul>
+ * 票数与观看人数事件由各节点依据合并后的数值各自推送，不经总线转发。
+ */
+@Slf4j
+@Component
+public class ClusterSync {
+
+    static final String TOPIC_EVENTS = "ws";
+    static final String TOPIC_COUNTERS = "counters";
+    static final String TOPIC_VOTE_RESET = "vote-reset";
+
+    private final BroadcastBus bus;
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final VoteBroadcastCoalescer voteBroadcaster;
+    private final ViewerBroadcaster viewerBroadcaster;
+    private final long syncIntervalMs;
+    private final long fullSyncIntervalMs;
+
+    /** 每流票数代数：直接设置票数时递增；读改写在 synchronized(this) 内进行 */
+    private final Map<String, Long> gens = new ConcurrentHashMap<>();
+    /** 上次发布的本节点贡献 streamId -> [gen, left, right, viewers] */
+    private final Map<String, long[]> lastPublished = new ConcurrentHashMap<>();
+    /** 其他节点的观看人数 streamId -> (nodeId -> count) */
+    private final Map<String, Map<String, Integer>> remoteViewers = new ConcurrentHashMap<>();
+    /** 其他节点最近一次发布计数的时间 */
+    private final Map<String, Long> nodeSeen = new ConcurrentHashMap<>();
+    private long lastFullSync;
+    private ScheduledExecutorService scheduler;
+
+    public ClusterSync(BroadcastBus bus, MockDataService mock, LiveWebSocketHandler ws,
+                       VoteBroadcastCoalescer voteBroadcaster, ViewerBroadcaster viewerBroadcaster,
+                       @Value("${live.bus.sync-interval-ms:100}") long syncIntervalMs,
+                       @Value("${live.bus.full-sync-interval-ms:5000}") long fullSyncIntervalMs) {
+        this.bus = bus;
+        this.mock = mock;
+        this.ws = ws;
+        this.voteBroadcaster = voteBroadcaster;
+        this.viewerBroadcaster = viewerBroadcaster;
+        this.syncIntervalMs = syncIntervalMs;
+        this.fullSyncIntervalMs = fullSyncIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        ws.setRelay((streamId, types, dataJson) -> bus.publish(TOPIC_EVENTS, encodeEvent(streamId, types, dataJson)));
+        bus.subscribe(TOPIC_EVENTS, this::onEvent);
+        bus.subscribe(TOPIC_COUNTERS, this::onCounters);
+        bus.subscribe(TOPIC_VOTE_RESET, this::onVoteReset);
+        mock.onVotesSet(this::onLocalVotesSet);
+        viewerBroadcaster.setRemoteCounts(this::remoteViewerCounts);
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cluster-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("集群同步: node={}, 周期 {}ms, 全量 {}ms", bus.nodeId(), syncIntervalMs, fullSyncIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("bus", bus.stats());
+        long now = System.currentTimeMillis();
+        Map<String, Long> nodes = new HashMap<>();
+        nodeSeen.forEach((node, t) -> nodes.put(node, now - t));
+        data.put("nodesLastSeenMs", nodes);
+        data.put("voteGenerations", new HashMap<>(gens));
+        return data;
+    }
+
+    /** 发布本节点有变化的贡献；到全量周期时发布全部 */
+    void sync() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean full = now - lastFullSync >= fullSyncIntervalMs;
+            if (full) lastFullSync = now;
+            Map<String, Integer> viewers = ws.viewerCounts();
+            Set<String> streams = new HashSet<>(viewers.keySet());
+            mock.getStreams().forEach(s -> streams.add(s.getId()));
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            int n = 0;
+            for (String sid : streams) {
+                MockDataService.VoteState v = mock.getLocalVotes(sid);
+                long[] entry = {gens.getOrDefault(sid, 0L), v.getLeftVotes(), v.getRightVotes(), viewers.getOrDefault(sid, 0)};
+                long[] last = lastPublished.put(sid, entry);
+                if (!full && last != null && Arrays.equals(last, entry)) continue;
+                out.writeUTF(sid);
+                for (long x : entry) out.writeLong(x);
+                n++;
+            }
+            if (n == 0) return;
+            ByteArrayOutputStream msg = new ByteArrayOutputStream(buf.size() + 4);
+            new DataOutputStream(msg).writeInt(n);
+            buf.writeTo(msg);
+            bus.publish(TOPIC_COUNTERS, msg.toByteArray());
+        } catch (Exception e) {
+            log.warn("集群同步失败: {}", e.getMessage());
+        }
+    }
+
+    private void onLocalVotesSet(String streamId, MockDataService.VoteState state) {
+        long gen;
+        synchronized (this) {
+            gen = Math.max(gens.getOrDefault(streamId, 0L) + 1, System.currentTimeMillis());
+            gens.put(streamId, gen);
+            mock.clearRemoteVotes(streamId);
+            lastPublished.remove(streamId);
+        }
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeUTF(streamId);
+            out.writeLong(gen);
+            out.writeLong(state.getLeftVotes());
+            out.writeLong(state.getRightVotes());
+            bus.publish(TOPIC_VOTE_RESET, buf.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void onVoteReset(String origin, byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            String sid = in.readUTF();
+            long gen = in.readLong();
+            long left = in.readLong();
+            long right = in.readLong();
+            synchronized (this) {
+                if (gen <= gens.getOrDefault(sid, 0L)) return;
+                gens.put(sid, gen);
+                mock.resetLocalVotes(sid);
+                mock.clearRemoteVotes(sid);
+                mock.setRemoteVotes(origin, sid, left, right);
+                lastPublished.remove(sid);
+            }
+            voteBroadcaster.markDirty(sid);
+        } catch (IOException e) {
+            log.warn("vote-reset 解析失败: {}", e.getMessage());
+        }
+    }
+
+    private void onCounters(String origin, byte[] payload) {
+        nodeSeen.put(origin, System.currentTimeMillis());
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                String sid = in.readUTF();
+                long gen = in.readLong();
+                long left = in.readLong();
+                long right = in.readLong();
+                int viewers = (int) in.readLong();
+                remoteViewers.computeIfAbsent(sid, k -> new ConcurrentHashMap<>()).put(origin, viewers);
+                synchronized (this) {
+                    long g = gens.getOrDefault(sid, 0L);
+                    // 重置前的旧贡献
+                    if (gen < g) continue;
+                    // 本节点错过了重置（如之后才加入）：采用新代数，本节点已有计数保留
+                    if (gen > g) gens.put(sid, gen);
+                }
+                if (mock.setRemoteVotes(origin, sid, left, right)) voteBroadcaster.markDirty(sid);
+            }
+        } catch (IOException e) {
+            log.warn("counters 解析失败: {}", e.getMessage());
+        }
+    }
+
+    private void onEvent(String origin, byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            String sid = in.readUTF();
+            String[] types = new String[in.readUnsignedByte()];
+            for (int i = 0; i < types.length; i++) types[i] = in.readUTF();
+            ws.deliver(sid.isEmpty() ? null : sid, types, in.readAllBytes());
+        } catch (IOException e) {
+            log.warn("ws 事件解析失败: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] encodeEvent(String streamId, String[] types, byte[] dataJson) {
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(dataJson.length + 64);
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeUTF(streamId != null ? streamId : "");
+            out.writeByte(types.length);
+            for (String t : types) out.writeUTF(t);
+            out.write(dataJson);
+            return buf.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 其他节点的观看人数之和；超过 3 个全量周期未发布的节点视为下线，不再计入 */
+    private Map<String, Integer> remoteViewerCounts() {
+        long deadline = System.currentTimeMillis() - 3 * fullSyncIntervalMs;
+        Map<String, Integer> counts = new HashMap<>();
+        remoteViewers.forEach((sid, byNode) -> byNode.forEach((node, n) -> {
+            if (nodeSeen.getOrDefault(node, 0L) >= deadline) counts.merge(sid, n, Integer::sum);
+        }));
+        return counts;
+    }
+}
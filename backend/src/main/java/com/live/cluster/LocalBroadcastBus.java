@@ -0,0 +1,87 @@
+package com.live.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 进程内广播总线：同一 {@link Hub} 上的节点互相投递（调用方线程同步执行）。
+ * 单节点部署时 Hub 只有本节点，发布即无操作；多个实例共享一个 Hub 可在一个 JVM 内模拟多节点。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "live.bus.type", havingValue = "local", matchIfMissing = true)
+public class LocalBroadcastBus implements BroadcastBus {
+
+    private final String nodeId;
+    private final Hub hub;
+    private final Map<String, List<BiConsumer<String, byte[]>>> listeners = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+
+    @Autowired
+    public LocalBroadcastBus(@Value("${live.bus.node-id:}") String nodeId) {
+        this(nodeId, new Hub());
+    }
+
+    public LocalBroadcastBus(String nodeId, Hub hub) {
+        this.nodeId = BroadcastBus.resolveNodeId(nodeId, null);
+        this.hub = hub;
+        hub.members.add(this);
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) {
+        published.increment();
+        for (LocalBroadcastBus member : hub.members) {
+            if (member != this) member.receive(nodeId, topic, payload);
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, BiConsumer<String, byte[]> listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "local");
+        data.put("nodeId", nodeId);
+        data.put("nodes", hub.members.size());
+        data.put("published", published.sum());
+        data.put("received", received.sum());
+        return data;
+    }
+
+    private void receive(String origin, String topic, byte[] payload) {
+        received.increment();
+        for (BiConsumer<String, byte[]> l : listeners.getOrDefault(topic, List.of())) {
+            try {
+                l.accept(origin, payload);
+            } catch (Exception e) {
+                log.warn("总线消息处理失败: {} {}", topic, e.getMessage());
+            }
+        }
+    }
+
+    /** 进程内节点集合 */
+    public static final class Hub {
+        private final List<LocalBroadcastBus> members = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,315 @@
+package com.live.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * TCP 广播总线：每个节点在 live.bus.bind-address:port 上监听，并主动连接 live.bus.peers 中的每个节点（全连接，适合少量节点）。
+ * <ul>
+ *   <li>帧格式 [int 长度][UTF topic][UTF 来源节点][负载][HMAC-SHA256]；一条消息只编码、签名一次，所有对端共享；</li>
+ *   <li>签名密钥为各节点共享的 live.bus.secret，未配置时不启动；签名不符的连接直接断开；</li>
+ *   <li>每个对端一个有界发送队列 + 写线程，publish 只入队，对端断开期间队列满则丢弃（由定期全量同步补齐计数）；</li>
+ *   <li>连接断开后按 1s 间隔重连。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "live.bus.type", havingValue = "tcp")
+public class TcpBroadcastBus implements BroadcastBus {
+
+    private static final int MAX_FRAME = 16 * 1024 * 1024;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final String nodeId;
+    private final int port;
+    private final String bindAddress;
+    /** Mac 非线程安全：发布线程与各读线程各用一个 */
+    private final ThreadLocal<Mac> mac;
+    private final List<Peer> peers = new ArrayList<>();
+    private final Map<String, List<BiConsumer<String, byte[]>>> listeners = new ConcurrentHashMap<>();
+    private final List<Socket> inbound = new CopyOnWriteArrayList<>();
+    private final ServerSocket server;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private volatile boolean stopped;
+
+    public TcpBroadcastBus(@Value("${live.bus.node-id:}") String nodeId,
+                           @Value("${live.bus.bind-address:127.0.0.1}") String bindAddress,
+                           @Value("${live.bus.port:7100}") int port,
+                           @Value("${live.bus.peers:}") String peers,
+                           @Value("${live.bus.secret:}") String secret,
+                           @Value("${live.bus.queue-capacity:65536}") int queueCapacity) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("tcp 广播总线需要配置 live.bus.secret（各节点相同）");
+        }
+        this.nodeId = BroadcastBus.resolveNodeId(nodeId, String.valueOf(port));
+        this.bindAddress = bindAddress;
+        this.port = port;
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(MAC_ALGORITHM);
+                m.init(key);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("初始化总线签名失败", e);
+            }
+        });
+        try {
+            this.server = new ServerSocket();
+            this.server.setReuseAddress(true);
+            this.server.bind(new InetSocketAddress(bindAddress, port));
+        } catch (IOException e) {
+            throw new UncheckedIOException("广播总线端口监听失败: " + bindAddress + ":" + port, e);
+        }
+        daemon("bus-accept", this::acceptLoop).start();
+        for (String addr : peers.split(",")) {
+            if (addr.isBlank()) continue;
+            Peer p = new Peer(addr.trim(), queueCapacity);
+            this.peers.add(p);
+            daemon("bus-peer-" + p.address, p::writeLoop).start();
+        }
+        log.info("广播总线(tcp): node={}, bind={}:{}, peers={}", this.nodeId, bindAddress, port, peers);
+    }
+
+    @PreDestroy
+    public void close() {
+        stopped = true;
+        closeQuietly(server);
+        inbound.forEach(TcpBroadcastBus::closeQuietly);
+        peers.forEach(p -> closeQuietly(p.socket));
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(String topic, byte[] payload) {
+        if (peers.isEmpty()) return;
+        byte[] frame = encode(topic, payload);
+        published.increment();
+        for (Peer p : peers) {
+            if (!p.queue.offer(frame)) p.dropped.increment();
+        }
+    }
+
+    @Override
+    public void subscribe(String topic, BiConsumer<String, byte[]> listener) {
+        listeners.computeIfAbsent(topic, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", "tcp");
+        data.put("nodeId", nodeId);
+        data.put("bindAddress", bindAddress);
+        data.put("port", port);
+        data.put("inbound", inbound.size());
+        data.put("published", published.sum());
+        data.put("received", received.sum());
+        List<Map<String, Object>> ps = new ArrayList<>();
+        for (Peer p : peers) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("address", p.address);
+            m.put("connected", p.socket != null && !p.socket.isClosed());
+            m.put("queued", p.queue.size());
+            m.put("sent", p.sent.sum());
+            m.put("dropped", p.dropped.sum());
+            ps.add(m);
+        }
+        data.put("peers", ps);
+        return data;
+    }
+
+    private byte[] encode(String topic, byte[] payload) {
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(payload.length + 64);
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeInt(0);
+            out.writeUTF(topic);
+            out.writeUTF(nodeId);
+            out.write(payload);
+            out.write(new byte[MAC_LENGTH]);
+            byte[] frame = buf.toByteArray();
+            int len = frame.length - 4;
+            sign(frame, 4, len - MAC_LENGTH, frame, 4 + len - MAC_LENGTH);
+            frame[0] = (byte) (len >>> 24);
+            frame[1] = (byte) (len >>> 16);
+            frame[2] = (byte) (len >>> 8);
+            frame[3] = (byte) len;
+            return frame;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 对 in[off, off+len) 计算 HMAC，写入 out[outOff, outOff+MAC_LENGTH) */
+    private void sign(byte[] in, int off, int len, byte[] out, int outOff) {
+        Mac m = mac.get();
+        m.update(in, off, len);
+        try {
+            m.doFinal(out, outOff);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void acceptLoop() {
+        while (!stopped) {
+            try {
+                Socket s = server.accept();
+                s.setTcpNoDelay(true);
+                inbound.add(s);
+                daemon("bus-in-" + s.getRemoteSocketAddress(), () -> readLoop(s)).start();
+            } catch (IOException e) {
+                if (!stopped) log.warn("广播总线 accept 失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void readLoop(Socket s) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()))) {
+            while (!stopped) {
+                int len = in.readInt();
+                if (len <= MAC_LENGTH || len > MAX_FRAME) throw new IOException("非法帧长度: " + len);
+                byte[] frame = new byte[len];
+                in.readFully(frame);
+                int bodyLen = len - MAC_LENGTH;
+                byte[] expected = new byte[MAC_LENGTH];
+                sign(frame, 0, bodyLen, expected, 0);
+                if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(frame, bodyLen, len))) {
+                    throw new IOException("帧签名校验失败");
+                }
+                DataInputStream body = new DataInputStream(new ByteArrayInputStream(frame, 0, bodyLen));
+                String topic = body.readUTF();
+                String origin = body.readUTF();
+                byte[] payload = body.readAllBytes();
+                received.increment();
+                for (BiConsumer<String, byte[]> l : listeners.getOrDefault(topic, List.of())) {
+                    try {
+                        l.accept(origin, payload);
+                    } catch (Exception e) {
+                        log.warn("总线消息处理失败: {} {}", topic, e.getMessage());
+                    }
+                }
+            }
+        } catch (EOFException e) {
+            log.info("广播总线对端断开: {}", s.getRemoteSocketAddress());
+        } catch (IOException e) {
+            if (!stopped) log.warn("广播总线读取失败: {} {}", s.getRemoteSocketAddress(), e.getMessage());
+        } finally {
+            inbound.remove(s);
+            closeQuietly(s);
+        }
+    }
+
+    private static Thread daemon(String name, Runnable r) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    private static void closeQuietly(Closeable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (IOException ignored) {
+            // 关闭时忽略
+        }
+    }
+
+    /** 对端节点：发送队列 + 写线程，断线重连 */
+    private final class Peer {
+        final String address;
+        final BlockingQueue<byte[]> queue;
+        final LongAdder sent = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        volatile Socket socket;
+
+        Peer(String address, int capacity) {
+            this.address = address;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void writeLoop() {
+            while (!stopped) {
+                try (Socket s = connect()) {
+                    socket = s;
+                    log.info("广播总线已连接: {}", address);
+                    BufferedOutputStream out = new BufferedOutputStream(s.getOutputStream(), 64 * 1024);
+                    while (!stopped) {
+                        byte[] frame = queue.poll(1, TimeUnit.SECONDS);
+                        if (frame == null) continue;
+                        out.write(frame);
+                        sent.increment();
+                        // 批量写出队列中已有的帧后再 flush
+                        while ((frame = queue.poll()) != null) {
+                            out.write(frame);
+                            sent.increment();
+                        }
+                        out.flush();
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    if (stopped) return;
+                    log.debug("广播总线连接 {} 失败: {}", address, e.getMessage());
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                } finally {
+                    socket = null;
+                }
+            }
+        }
+
+        private Socket connect() throws IOException {
+            int i = address.lastIndexOf(':');
+            Socket s = new Socket();
+            s.setTcpNoDelay(true);
+            s.connect(new InetSocketAddress(address.substring(0, i), Integer.parseInt(address.substring(i + 1))), 2000);
+            return s;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.live.common;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog 基数估计：2^p 个寄存器（每个 1 字节），p = 11 时占 2KB、标准误差约 2.3%。
+ * 可合并（逐寄存器取最大值），用于按天 / 区间统计去重用户数。
+ * 单线程写入；其他线程读取估计值时可能看到稍旧的寄存器，不影响正确性。
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_P = 11;
+
+    private final int p;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_P);
+    }
+
+    public HyperLogLog(int p) {
+        this.p = p;
+        this.registers = new byte[1 << p];
+    }
+
+    /** 由导出的寄存器恢复；长度不是 2 的幂时返回空估计 */
+    public static HyperLogLog of(byte[] registers) {
+        if (registers == null || registers.length == 0 || Integer.bitCount(registers.length) != 1) return new HyperLogLog();
+        HyperLogLog h = new HyperLogLog(Integer.numberOfTrailingZeros(registers.length));
+        System.arraycopy(registers, 0, h.registers, 0, registers.length);
+        return h;
+    }
+
+    /** 加入一个 64 位哈希值（调用方保证分布均匀） */
+    public void add(long hash) {
+        long h = mix(hash);
+        int idx = (int) (h >>> (64 - p));
+        int rank = Long.numberOfLeadingZeros((h << p) | (1L << (p - 1))) + 1;
+        if (rank > registers[idx]) registers[idx] = (byte) rank;
+    }
+
+    /** 合并另一个同精度的估计 */
+    public void merge(HyperLogLog other) {
+        if (other.registers.length != registers.length) return;
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double e = alpha * m * m / sum;
+        // 小基数时用线性计数修正
+        if (e <= 2.5 * m && zeros > 0) e = m * Math.log((double) m / zeros);
+        return Math.round(e);
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(registers, registers.length);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,124 @@
+package com.live.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 热点 GET 接口的响应缓存：按 key 保存已序列化的响应体，版本号（见 MockDataService#getVersion）不变时直接返回，
+ * 轮询请求不再重建 Map、不再序列化。ETag 由启动标识 + 版本号组成，客户端带 If-None-Match 命中时返回 304。
+ * 条目数达到上限时淘汰最久未访问的一条（近似 LRU），热点 key 不受游标等长尾 key 的影响。
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** 重启后版本号从 0 开始，ETag 加上启动标识避免与重启前的缓存误匹配 */
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(ObjectMapper objectMapper,
+                         @Value("${live.cache.max-entries:1024}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 返回 key 在 version 下的响应；缓存缺失或版本变化时调用 loader 生成并序列化。
+     * version 须在 loader 读取状态之前取得：读取期间发生的变更会使版本再次增大，下次请求重建，不会把旧数据当新版本缓存。
+     */
+    public ResponseEntity<byte[]> respond(String key, long version, String ifNoneMatch, Supplier<Result<?>> loader) {
+        long now = System.nanoTime();
+        Entry e = entries.get(key);
+        if (e != null && e.version == version) {
+            hits.increment();
+            e.touch(now);
+        } else {
+            misses.increment();
+            e = new Entry(version, "\"" + bootId + "-" + Long.toString(version, 36) + "\"", serialize(loader.get()), now);
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) evictOldest();
+            entries.put(key, e);
+        }
+        if (ifNoneMatch != null && ifNoneMatch.contains(e.etag)) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(e.etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(e.etag)
+                .cacheControl(CacheControl.noCache())
+                .body(e.body);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("entries", entries.size());
+        data.put("maxEntries", maxEntries);
+        data.put("hits", hits.sum());
+        data.put("misses", misses.sum());
+        data.put("notModified", notModified.sum());
+        data.put("evictions", evictions.sum());
+        return data;
+    }
+
+    private byte[] serialize(Result<?> result) {
+        try {
+            return objectMapper.writeValueAsBytes(result);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("响应序列化失败: " + ex.getMessage(), ex);
+        }
+    }
+
+    /** 淘汰最久未访问的一条：只在缓存已满且新增 key 时扫描一遍 */
+    private void evictOldest() {
+        String oldest = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, Entry> en : entries.entrySet()) {
+            long used = en.getValue().lastUsed;
+            if (oldest == null || used - min < 0) {
+                oldest = en.getKey();
+                min = used;
+            }
+        }
+        if (oldest != null && entries.remove(oldest) != null) evictions.increment();
+    }
+
+    private static final class Entry {
+        /** 访问时间的更新粒度：热点 key 的命中不必每次都写共享字段 */
+        private static final long TOUCH_NANOS = 1_000_000;
+
+        final long version;
+        final String etag;
+        final byte[] body;
+        volatile long lastUsed;
+
+        Entry(long version, String etag, byte[] body, long now) {
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+            this.lastUsed = now;
+        }
+
+        void touch(long now) {
+            if (now - lastUsed > TOUCH_NANOS) lastUsed = now;
+        }
+    }
+}
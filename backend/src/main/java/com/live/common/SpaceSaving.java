@@ -0,0 +1,111 @@
+package com.live.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 热点统计（Metwally 等）：最多跟踪 capacity 个 key，满时新 key 顶替计数最小者并继承其计数作为误差上界。
+ * 计数大于 总权重 / capacity 的 key 一定在表中；另支持按系数衰减，使排名反映近期活跃度。
+ * 非线程安全，由单个线程更新与查询。
+ */
+public class SpaceSaving {
+
+    private final Map<String, Counter> counters;
+    /** 计数器平铺数组（前 size 个有效），满时线性扫描找最小值 */
+    private final Counter[] slots;
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        this.slots = new Counter[Math.max(1, capacity)];
+        this.counters = new HashMap<>(slots.length * 2);
+    }
+
+    public void add(String key, double weight) {
+        if (weight <= 0) return;
+        Counter c = counters.get(key);
+        if (c != null) {
+            c.count += weight;
+            return;
+        }
+        if (size < slots.length) {
+            c = new Counter(key, weight, 0, size);
+            slots[size++] = c;
+            counters.put(key, c);
+            return;
+        }
+        Counter min = slots[0];
+        for (int i = 1; i < size; i++) {
+            if (slots[i].count < min.count) min = slots[i];
+        }
+        counters.remove(min.key);
+        c = new Counter(key, min.count + weight, min.count, min.slot);
+        slots[min.slot] = c;
+        counters.put(key, c);
+    }
+
+    /** 所有计数乘以 factor（0~1），低于 floor 的条目移除 */
+    public void decay(double factor, double floor) {
+        for (int i = size - 1; i >= 0; i--) {
+            Counter c = slots[i];
+            c.count *= factor;
+            c.error *= factor;
+            if (c.count < floor) removeSlot(c);
+        }
+    }
+
+    /** 计数最高的 k 个 key，按计数降序 */
+    public List<String> top(int k) {
+        List<Counter> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) all.add(slots[i]);
+        all.sort((a, b) -> Double.compare(b.count, a.count));
+        List<String> keys = new ArrayList<>(Math.min(k, all.size()));
+        for (int i = 0; i < all.size() && i < k; i++) keys.add(all.get(i).key);
+        return Collections.unmodifiableList(keys);
+    }
+
+    public double count(String key) {
+        Counter c = counters.get(key);
+        return c != null ? c.count : 0;
+    }
+
+    public void remove(String key) {
+        Counter c = counters.get(key);
+        if (c != null) removeSlot(c);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** 移除计数器，用最后一个填补空位 */
+    private void removeSlot(Counter c) {
+        counters.remove(c.key);
+        Counter last = slots[--size];
+        slots[size] = null;
+        if (last != c) {
+            last.slot = c.slot;
+            slots[c.slot] = last;
+        }
+    }
+
+    private static final class Counter {
+        final String key;
+        double count;
+        double error;
+        int slot;
+
+        Counter(String key, double count, double error, int slot) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.slot = slot;
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package com.live.controller;
 
 import com.live.common.Result;
+import com.live.model.AIContent;
 import com.live.service.MockDataService;
 import com.live.websocket.LiveWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,6 +18,7 @@ import java.util.Map;
 public class AdminAIController {
 
     private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
 
     @PostMapping("/api/v1/admin/ai/start")
     public Result<Map<String, Object>> startAI(@RequestBody Map<String, Object> body) {
@@ -27,7 +28,7 @@ public class AdminAIController {
         Map<String, Object> data = new HashMap<>();
         data.put("status", "running");
         data.put("streamId", streamId);
-        LiveWebSocketHandler.broadcast("aiStatus", data);
+        ws.broadcast(streamId, "aiStatus", data);
         return Result.ok(data);
     }
 
@@ -37,7 +38,7 @@ public class AdminAIController {
         if (streamId != null) mock.setAiStatus(streamId, "stopped");
         else mock.getStreams().forEach(s -> mock.setAiStatus(s.getId(), "stopped"));
         Map<String, Object> data = Map.of("status", "stopped", "streamId", streamId != null ? streamId : "");
-        LiveWebSocketHandler.broadcast("aiStatus", data);
+        ws.broadcast(streamId, "aiStatus", data);
         return Result.ok(data);
     }
 
@@ -47,7 +48,7 @@ public class AdminAIController {
         String status = "pause".equals(action) ? "paused" : "running";
         mock.getStreams().forEach(s -> mock.setAiStatus(s.getId(), status));
         Map<String, Object> data = Map.of("status", status, "action", action);
-        LiveWebSocketHandler.broadcast("aiStatus", data);
+        ws.broadcast("aiStatus", data);
         return Result.ok(data);
     }
 
@@ -55,13 +56,20 @@ public class AdminAIController {
     public Result<Map<String, Object>> listAIContent(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int pageSize,
-            @RequestParam(required = false) String stream_id) {
+            @RequestParam(required = false) String stream_id,
+            @RequestParam(required = false) String cursor) {
         int total = mock.getAIContentsTotal(stream_id);
-        var list = mock.getAIContents(page, pageSize, stream_id);
         Map<String, Object> data = new HashMap<>();
-        data.put("list", list);
+        if (cursor != null) {
+            // 游标分页：cursor 为空串表示第一页，之后传上一页的 nextCursor
+            var p = mock.getAIContentsAfter(stream_id, cursor, pageSize);
+            data.put("list", p.list());
+            data.put("nextCursor", p.nextCursor());
+        } else {
+            data.put("list", mock.getAIContents(page, pageSize, stream_id));
+            data.put("page", page);
+        }
         data.put("total", total);
-        data.put("page", page);
         data.put("pageSize", pageSize);
         return Result.ok(data);
     }
@@ -70,18 +78,25 @@ public class AdminAIController {
     public Result<Map<String, Object>> getComments(
             @PathVariable String contentId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int pageSize) {
-        var comments = mock.getAIContentComments(contentId, page, pageSize);
-        Map<String, Object> content = mock.getAIContent(contentId);
-        int total = content == null ? 0 : ((java.util.List<?>) content.getOrDefault("comments", List.of())).size();
-        return Result.ok(Map.of(
-                "contentId", contentId,
-                "contentText", content != null ? content.get("contentText") : "",
-                "comments", comments,
-                "total", total,
-                "page", page,
-                "pageSize", pageSize
-        ));
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(required = false) String cursor) {
+        AIContent content = mock.getAIContent(contentId);
+        Map<String, Object> data = new HashMap<>();
+        data.put("contentId", contentId);
+        data.put("contentText", content != null ? content.contentText() : "");
+        if (cursor != null) {
+            // 游标分页：cursor 为空串表示第一页，之后传上一页的 nextCursor
+            var p = mock.getAIContentCommentsAfter(contentId, cursor, pageSize);
+            data.put("comments", p.list());
+            data.put("nextCursor", p.nextCursor());
+        } else {
+            data.put("comments", mock.getAIContentComments(contentId, page, pageSize));
+            data.put("page", page);
+        }
+        data.put("total", mock.getCommentCount(contentId));
+        data.put("pageSize", pageSize);
+        data.put("likes", mock.getAIContentLikes(contentId));
+        return Result.ok(data);
     }
 
     @DeleteMapping("/api/v1/admin/ai-content/{contentId}/comments/{commentId}")
@@ -89,6 +104,7 @@ public class AdminAIController {
             @PathVariable String contentId,
             @PathVariable String commentId,
             @RequestBody(required = false) Map<String, Object> body) {
+        if (!mock.deleteComment(contentId, commentId)) return Result.fail("评论不存在");
         return Result.ok(Map.of("contentId", contentId, "commentId", commentId, "deleted", true));
     }
 
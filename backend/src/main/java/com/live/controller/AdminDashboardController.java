@@ -1,16 +1,21 @@
 package com.live.controller;
 
+import com.live.common.ResponseCache;
 import com.live.common.Result;
+import com.live.model.StreamState;
 import com.live.service.MockDataService;
-import com.live.websocket.LiveWebSocketHandler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * 后台数据概览：GET /api/v1/admin/dashboard?stream_id=
+ * 后台数据概览：GET /api/v1/admin/dashboard?stream_id=、数据大屏多流概览 GET /api/v1/admin/dashboard/streams?stream_ids=
+ * （响应缓存 + ETag，见 {@link ResponseCache}；各流字段来自同一版本的 {@link StreamState}）
  */
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -18,27 +23,69 @@ import java.util.Map;
 public class AdminDashboardController {
 
     private final MockDataService mock;
+    private final ResponseCache responseCache;
 
     @GetMapping("/dashboard")
-    public Result<Map<String, Object>> dashboard(@RequestParam(required = false) String stream_id) {
+    public ResponseEntity<byte[]> dashboard(@RequestParam(required = false) String stream_id,
+                                            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String sid = stream_id != null ? stream_id : mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId();
+        return responseCache.respond("dashboard:" + sid, sid != null ? mock.getStateVersion(sid) : 0, ifNoneMatch, () -> build(sid));
+    }
+
+    private Result<?> build(String sid) {
         if (sid == null) {
             return Result.fail("请指定 stream_id 或先添加直播流");
         }
-        MockDataService.VoteState v = mock.getVotes(sid);
+        StreamState s = mock.getStreamState(sid);
         Map<String, Object> data = new HashMap<>();
         data.put("streamId", sid);
-        data.put("isLive", mock.isLive(sid));
-        data.put("aiStatus", mock.getAiStatus(sid));
-        data.put("leftVotes", v.getLeftVotes());
-        data.put("rightVotes", v.getRightVotes());
-        data.put("viewers", mock.getViewers(sid));
-        MockDataService.DebateDto deb = mock.getStreamDebate(sid);
-        if (deb != null) {
-            data.put("debateTopic", deb.getTitle());
-            data.put("leftPosition", deb.getLeftPosition());
-            data.put("rightPosition", deb.getRightPosition());
+        data.put("isLive", s != null && s.isLive());
+        data.put("aiStatus", s != null ? s.aiStatus() : mock.getAiStatus(sid));
+        data.put("leftVotes", s != null ? s.leftVotes() : 0);
+        data.put("rightVotes", s != null ? s.rightVotes() : 0);
+        data.put("viewers", s != null ? s.viewers() : 0);
+        if (s != null && s.debateId() != null) {
+            data.put("debateTopic", s.debateTopic());
+            data.put("leftPosition", s.leftPosition());
+            data.put("rightPosition", s.rightPosition());
         }
         return Result.ok(data);
     }
+
+    /**
+     * 多流概览：stream_ids 为逗号分隔的流 id，为空时返回全部流。
+     * 每流一个状态快照（版本未变的流直接复用），另附直播中流数、总观看人数与总票数（由各流快照汇总）。
+     * 缓存版本取所列流的状态版本（全部流时为任意流的状态版本），在构建前读取，AI 内容等其他变更不使其失效。
+     */
+    @GetMapping("/dashboard/streams")
+    public ResponseEntity<byte[]> streams(@RequestParam(required = false) String stream_ids,
+                                          @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        List<String> ids = stream_ids == null || stream_ids.isBlank() ? List.of()
+                : Arrays.stream(stream_ids.split(",")).map(String::trim).filter(x -> !x.isEmpty()).distinct().sorted().toList();
+        String key = "dashboard-streams:" + (ids.isEmpty() ? "*" : String.join(",", ids));
+        long version = 0;
+        if (ids.isEmpty()) version = mock.getStateVersion(null);
+        else for (String id : ids) version = Math.max(version, mock.getStateVersion(id));
+        return responseCache.respond(key, version, ifNoneMatch, () -> buildStreams(ids));
+    }
+
+    private Result<?> buildStreams(List<String> ids) {
+        List<StreamState> list = mock.getStreamStates(ids);
+        int live = 0, viewers = 0;
+        long left = 0, right = 0;
+        for (StreamState s : list) {
+            if (s.isLive()) live++;
+            viewers += s.viewers();
+            left += s.leftVotes();
+            right += s.rightVotes();
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("streams", list);
+        data.put("total", list.size());
+        data.put("liveCount", live);
+        data.put("totalViewers", viewers);
+        data.put("totalLeftVotes", left);
+        data.put("totalRightVotes", right);
+        return Result.ok(data);
+    }
 }
@@ -18,6 +18,7 @@ import java.util.Map;
 public class AdminDebateController {
 
     private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
 
     @GetMapping("/debates/{debateId}")
     public Result<MockDataService.DebateDto> getDebate(@PathVariable String debateId) {
@@ -37,7 +38,7 @@ public class AdminDebateController {
                 body.containsKey("active") ? (Boolean) body.get("active") : true
         );
         mock.createDebate(d);
-        LiveWebSocketHandler.broadcast("debate-updated", Map.of("debateId", id, "debate", d));
+        ws.broadcast("debate-updated", Map.of("debateId", id, "debate", d));
         return Result.ok(d);
     }
 
@@ -54,7 +55,7 @@ public class AdminDebateController {
                 body.containsKey("isActive") ? (Boolean) body.get("isActive") : existing.isActive()
         );
         mock.updateDebate(debateId, d);
-        LiveWebSocketHandler.broadcast("debate-updated", Map.of("debateId", debateId, "debate", d));
+        ws.broadcast("debate-updated", Map.of("debateId", debateId, "debate", d));
         return Result.ok(d);
     }
 }
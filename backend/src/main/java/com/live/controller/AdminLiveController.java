@@ -1,8 +1,15 @@
 package com.live.controller;
 
+import com.live.cluster.ClusterSync;
+import com.live.common.ResponseCache;
 import com.live.common.Result;
+import com.live.service.CommentIngest;
 import com.live.service.MockDataService;
 import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.HotContentBroadcaster;
+import com.live.websocket.ViewerBroadcaster;
+import com.live.websocket.VoteBroadcastCoalescer;
+import com.live.websocket.WsHeartbeat;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +25,14 @@ import java.util.Map;
 public class AdminLiveController {
 
     private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final VoteBroadcastCoalescer voteBroadcaster;
+    private final ViewerBroadcaster viewerBroadcaster;
+    private final HotContentBroadcaster engagementBroadcaster;
+    private final WsHeartbeat heartbeat;
+    private final ClusterSync clusterSync;
+    private final CommentIngest commentIngest;
+    private final ResponseCache responseCache;
 
     @PostMapping("/live/start")
     public Result<Map<String, Object>> startLive(@RequestBody Map<String, Object> body) {
@@ -28,7 +43,7 @@ public class AdminLiveController {
         data.put("streamId", streamId);
         data.put("isLive", true);
         data.put("message", "直播已开始");
-        LiveWebSocketHandler.broadcast("liveStatus", Map.of("streamId", streamId, "isLive", true));
+        ws.broadcast(streamId, "liveStatus", Map.of("streamId", streamId, "isLive", true));
         return Result.ok(data);
     }
 
@@ -41,7 +56,7 @@ public class AdminLiveController {
         data.put("streamId", streamId);
         data.put("isLive", false);
         data.put("message", "直播已停止");
-        LiveWebSocketHandler.broadcast("liveStatus", Map.of("streamId", streamId, "isLive", false));
+        ws.broadcast(streamId, "liveStatus", Map.of("streamId", streamId, "isLive", false));
         return Result.ok(data);
     }
 
@@ -53,21 +68,17 @@ public class AdminLiveController {
         String streamId = (String) body.get("streamId");
         if (streamId == null) streamId = mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId();
         if (streamId == null) return Result.fail("streamId 必填");
-        MockDataService.VoteState v = mock.getVotes(streamId);
         if ("add".equals(action)) {
-            v = new MockDataService.VoteState(v.getLeftVotes() + left, v.getRightVotes() + right);
-        } else if ("reset".equals(action)) {
-            v = new MockDataService.VoteState(left, right);
+            mock.addVotes(streamId, left, right);
         } else {
-            v = new MockDataService.VoteState(left, right);
+            mock.setVotes(streamId, left, right);
         }
-        mock.setVotes(streamId, v.getLeftVotes(), v.getRightVotes());
+        MockDataService.VoteState v = mock.getVotes(streamId);
         Map<String, Object> data = new HashMap<>();
         data.put("leftVotes", v.getLeftVotes());
         data.put("rightVotes", v.getRightVotes());
         data.put("streamId", streamId);
-        LiveWebSocketHandler.broadcast("votes-updated", data);
-        LiveWebSocketHandler.broadcast("votesUpdate", data);
+        voteBroadcaster.markDirty(streamId);
         return Result.ok(data);
     }
 
@@ -87,8 +98,7 @@ public class AdminLiveController {
         data.put("leftVotes", left);
         data.put("rightVotes", right);
         data.put("streamId", streamId);
-        LiveWebSocketHandler.broadcast("votes-updated", data);
-        LiveWebSocketHandler.broadcast("votesUpdate", data);
+        voteBroadcaster.markDirty(streamId);
         return Result.ok(data);
     }
 
@@ -105,11 +115,52 @@ public class AdminLiveController {
     public Result<Map<String, Object>> broadcastViewers(@RequestBody Map<String, Object> body) {
         String streamId = (String) body.get("streamId");
         if (streamId == null) return Result.fail("streamId 必填");
-        int count = mock.getViewers(streamId);
+        int count = viewerBroadcaster.broadcastNow(streamId);
         Map<String, Object> data = Map.of("streamId", streamId, "viewers", count, "message", "已广播");
         return Result.ok(data);
     }
 
+    /** 投票广播合并统计；viewers 为观看人数推送统计，engagement 为热点内容互动推送统计 */
+    @GetMapping("/live/broadcast-stats")
+    public Result<Map<String, Object>> broadcastStats() {
+        Map<String, Object> data = new HashMap<>(voteBroadcaster.getStats());
+        data.put("viewers", viewerBroadcaster.getStats());
+        data.put("engagement", engagementBroadcaster.getStats());
+        return Result.ok(data);
+    }
+
+    /** WebSocket 发送队列统计（积压、丢弃、延迟）；heartbeat 为心跳与超时移除统计 */
+    @GetMapping("/live/ws-stats")
+    public Result<Map<String, Object>> wsStats(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> data = ws.sessionStats(limit);
+        data.put("heartbeat", heartbeat.getStats());
+        return Result.ok(data);
+    }
+
+    /** 评论 / 点赞写入统计（提交、拒绝、待写入、批次数） */
+    @GetMapping("/live/comment-stats")
+    public Result<Map<String, Object>> commentStats() {
+        return Result.ok(commentIngest.getStats());
+    }
+
+    /** 状态存储统计（存储类型、恢复耗时、日志位置） */
+    @GetMapping("/live/storage-stats")
+    public Result<Map<String, Object>> storageStats() {
+        return Result.ok(mock.getStorageStats());
+    }
+
+    /** 热点 GET 接口响应缓存统计（命中 / 重建 / 304 次数） */
+    @GetMapping("/live/cache-stats")
+    public Result<Map<String, Object>> cacheStats() {
+        return Result.ok(responseCache.getStats());
+    }
+
+    /** 多节点同步统计（总线类型、对端连接、收发 / 丢弃数、各节点最近同步时间） */
+    @GetMapping("/live/cluster-stats")
+    public Result<Map<String, Object>> clusterStats() {
+        return Result.ok(clusterSync.getStats());
+    }
+
     private static int getInt(Map<?, ?> m, String key, int def) {
         Object v = m.get(key);
         if (v == null) return def;
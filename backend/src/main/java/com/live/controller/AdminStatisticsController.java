@@ -0,0 +1,90 @@
+package com.live.controller;
+
+import com.live.common.Result;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 后台统计：GET /api/admin/statistics/summary, /daily, /range（日期为 yyyy-MM-dd，按 live.stats.time-zone 划分自然日）。
+ * 数据来自增量维护的按天统计（见 {@link StatsEngine}），不在请求时遍历原始数据。
+ */
+@RestController
+@RequestMapping("/api/admin/statistics")
+@RequiredArgsConstructor
+public class AdminStatisticsController {
+
+    private final MockDataService mock;
+    private final StatsEngine stats;
+
+    @SuppressWarnings("unchecked")
+    @GetMapping("/summary")
+    public Result<Map<String, Object>> summary() {
+        Map<String, Object> data = stats.summary();
+        MockDataService.VoteState v = mock.getVoteTotals();
+        data.put("leftVotes", v.getLeftVotes());
+        data.put("rightVotes", v.getRightVotes());
+        data.put("totalVotes", v.getLeftVotes() + v.getRightVotes());
+        data.put("totalUsers", mock.getUsersTotal());
+        data.put("totalStreams", mock.getStreams().size());
+        withStreamNames(List.of((Map<String, Object>) data.get("today")));
+        return Result.ok(data);
+    }
+
+    /** 按天统计列表（日期升序）；from / to 为空表示不限 */
+    @GetMapping("/daily")
+    public Result<List<Map<String, Object>>> daily(@RequestParam(required = false) String from,
+                                                   @RequestParam(required = false) String to) {
+        LocalDate f, t;
+        try {
+            f = parse(from);
+            t = parse(to);
+        } catch (DateTimeParseException e) {
+            return Result.fail("日期格式应为 yyyy-MM-dd");
+        }
+        return Result.ok(withStreamNames(stats.daily(f, t)));
+    }
+
+    /** 区间汇总与逐日统计；to 默认今天，from 默认 to 之前 6 天 */
+    @GetMapping("/range")
+    public Result<Map<String, Object>> range(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to) {
+        LocalDate f, t;
+        try {
+            t = to != null && !to.isEmpty() ? LocalDate.parse(to) : LocalDate.now(stats.zone());
+            f = from != null && !from.isEmpty() ? LocalDate.parse(from) : t.minusDays(6);
+        } catch (DateTimeParseException e) {
+            return Result.fail("日期格式应为 yyyy-MM-dd");
+        }
+        List<Map<String, Object>> daily = new ArrayList<>();
+        Map<String, Object> data = stats.range(f, t, daily);
+        data.put("dailyStats", withStreamNames(daily));
+        data.put("from", f.toString());
+        data.put("to", t.toString());
+        return Result.ok(data);
+    }
+
+    private static LocalDate parse(String date) {
+        return date != null && !date.isEmpty() ? LocalDate.parse(date) : null;
+    }
+
+    /** 每日行的 streamVotesBar 补上流名称（流已删除时为 id） */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> withStreamNames(List<Map<String, Object>> rows) {
+        for (Map<String, Object> row : rows) {
+            for (Map<String, Object> bar : (List<Map<String, Object>>) row.get("streamVotesBar")) {
+                String id = (String) bar.get("id");
+                MockDataService.StreamInfo s = mock.getStream(id);
+                bar.put("name", s != null ? s.getName() : id);
+            }
+        }
+        return rows;
+    }
+}
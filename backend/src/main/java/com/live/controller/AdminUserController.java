@@ -1,7 +1,9 @@
 package com.live.controller;
 
 import com.live.common.Result;
+import com.live.model.UserInfo;
 import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,42 +12,53 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * 后台用户与投票统计：GET /api/admin/miniprogram/users, GET /api/admin/votes/statistics
+ * 后台用户与投票统计：GET /api/admin/miniprogram/users, GET /api/admin/miniprogram/users/{openid}, GET /api/admin/votes/statistics
  */
 @RestController
 @RequiredArgsConstructor
 public class AdminUserController {
 
     private final MockDataService mock;
+    private final StatsEngine stats;
 
+    /** 用户列表（新注册在前），可按 status 过滤；传 cursor 时按游标翻页 */
     @GetMapping("/api/admin/miniprogram/users")
     public Result<Map<String, Object>> listUsers(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int pageSize) {
-        List<Map<String, Object>> list = mock.getUsers(page, pageSize);
-        int total = mock.getUsersTotal();
+            @RequestParam(defaultValue = "20") int pageSize,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor) {
         Map<String, Object> data = new HashMap<>();
-        data.put("list", list);
-        data.put("total", total);
-        data.put("page", page);
+        if (cursor != null) {
+            // 游标分页：cursor 为空串表示第一页，之后传上一页的 nextCursor
+            var p = mock.getUsersAfter(status, cursor, pageSize);
+            data.put("list", p.list());
+            data.put("nextCursor", p.nextCursor());
+        } else {
+            data.put("list", mock.getUsers(status, page, pageSize));
+            data.put("page", page);
+        }
+        data.put("total", mock.getUsersTotal(status));
         data.put("pageSize", pageSize);
         return Result.ok(data);
     }
 
+    @GetMapping("/api/admin/miniprogram/users/{openid}")
+    public Result<UserInfo> getUser(@PathVariable String openid) {
+        UserInfo user = mock.getUser(openid);
+        return user != null ? Result.ok(user) : Result.fail("用户不存在");
+    }
+
     @GetMapping("/api/admin/votes/statistics")
     public Result<Map<String, Object>> votesStatistics(@RequestParam(defaultValue = "1h") String timeRange) {
-        int totalLeft = 0, totalRight = 0;
-        for (String sid : mock.getStreams().stream().map(MockDataService.StreamInfo::getId).toList()) {
-            MockDataService.VoteState v = mock.getVotes(sid);
-            totalLeft += v.getLeftVotes();
-            totalRight += v.getRightVotes();
-        }
+        MockDataService.VoteState v = mock.getVoteTotals();
+        int totalLeft = v.getLeftVotes(), totalRight = v.getRightVotes();
         Map<String, Object> data = new HashMap<>();
         data.put("timeRange", timeRange);
         data.put("totalLeftVotes", totalLeft);
         data.put("totalRightVotes", totalRight);
         data.put("totalVotes", totalLeft + totalRight);
-        data.put("dailyStats", List.of());
+        data.put("dailyStats", stats.daily(null, null));
         return Result.ok(data);
     }
 }
@@ -1,16 +1,18 @@
 package com.live.controller;
 
 import com.live.common.Result;
+import com.live.model.UserInfo;
 import com.live.service.MockDataService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * 规范示例接口：GET /api/users 返回 mock 用户，POST /api/users 创建 mock 用户
+ * 规范示例接口：GET /api/users 返回用户列表，POST /api/users 按 openid 创建或更新用户
  */
 @RestController
 @RequestMapping("/api")
@@ -23,7 +25,7 @@ public class ApiUserController {
     public Result<Map<String, Object>> getUsers(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int pageSize) {
-        List<Map<String, Object>> list = mock.getUsers(page, pageSize);
+        List<UserInfo> list = mock.getUsers(null, page, pageSize);
         int total = mock.getUsersTotal();
         Map<String, Object> data = new HashMap<>();
         data.put("list", list);
@@ -35,13 +37,19 @@ public class ApiUserController {
 
     @PostMapping("/users")
     public Result<Map<String, Object>> createUser(@RequestBody Map<String, Object> body) {
-        String id = "user-" + System.currentTimeMillis();
-        Map<String, Object> user = new HashMap<>(body);
-        user.put("id", id);
-        user.putIfAbsent("nickName", "微信用户");
-        user.putIfAbsent("status", "active");
-        user.putIfAbsent("createdAt", java.time.Instant.now().toString());
-        user.putIfAbsent("updatedAt", java.time.Instant.now().toString());
-        return Result.ok(Map.of("user", user, "message", "创建mock用户记录成功"));
+        Object openid = body.getOrDefault("openid", body.get("id"));
+        String id = openid != null && !openid.toString().isBlank() ? openid.toString() : "user-" + System.currentTimeMillis();
+        Instant now = Instant.now();
+        UserInfo user = mock.putUser(new UserInfo(
+                id,
+                (String) body.getOrDefault("nickName", "微信用户"),
+                (String) body.get("avatarUrl"),
+                now,
+                now,
+                0,
+                0,
+                (String) body.getOrDefault("status", "active")
+        ));
+        return Result.ok(Map.of("user", user, "message", "保存用户记录成功"));
     }
 }
@@ -1,15 +1,18 @@
 package com.live.controller;
 
 import com.live.common.Result;
+import com.live.model.FlowSegment;
 import com.live.service.MockDataService;
+import com.live.websocket.DebateFlowEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * 辩论流程：GET/POST /api/admin/debate-flow, POST /api/admin/debate-flow/control
+ * 辩论流程：GET/POST /api/admin/debate-flow, POST /api/admin/debate-flow/control, GET /api/admin/debate-flow/state
  */
 @RestController
 @RequestMapping("/api/admin")
@@ -17,29 +20,44 @@ import java.util.Map;
 public class DebateFlowController {
 
     private final MockDataService mock;
+    private final DebateFlowEngine flowEngine;
 
     @GetMapping("/debate-flow")
     public Result<Map<String, Object>> getDebateFlow(@RequestParam(required = false) String stream_id) {
         String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
         if (sid == null) return Result.ok(Map.of("segments", List.of()));
-        List<Map<String, Object>> segments = mock.getDebateFlow(sid);
+        List<FlowSegment> segments = mock.getDebateFlow(sid);
         return Result.ok(Map.of("stream_id", sid, "segments", segments));
     }
 
     @PostMapping("/debate-flow")
     public Result<Map<String, Object>> saveDebateFlow(@RequestBody Map<String, Object> body) {
         String streamId = (String) body.get("stream_id");
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> segments = (List<Map<String, Object>>) body.get("segments");
+        List<?> segments = (List<?>) body.get("segments");
         if (streamId == null || segments == null) return Result.fail("stream_id 与 segments 必填");
-        mock.setDebateFlow(streamId, segments);
+        mock.setDebateFlow(streamId, segments.stream().map(m -> FlowSegment.from((Map<?, ?>) m)).toList());
         return Result.ok(Map.of("stream_id", streamId, "saved", true));
     }
 
+    /** 流程控制：start / pause / resume / next / prev / reset，由服务端计时并通过 WebSocket 推送 */
     @PostMapping("/debate-flow/control")
     public Result<Map<String, Object>> control(@RequestBody Map<String, Object> body) {
         String streamId = (String) body.get("stream_id");
         String action = (String) body.get("action");
-        return Result.ok(Map.of("stream_id", streamId, "action", action, "message", "命令已接收"));
+        if (streamId == null || action == null) return Result.fail("stream_id 与 action 必填");
+        if (mock.getStream(streamId) == null) return Result.fail("直播流不存在: " + streamId);
+        Map<String, Object> state = flowEngine.control(streamId, action);
+        if (state == null) return Result.fail("未知命令: " + action);
+        return Result.ok(Map.of("stream_id", streamId, "action", action, "message", "命令已执行", "state", state));
+    }
+
+    /** 当前流程状态（状态、环节、剩余秒数） */
+    @GetMapping("/debate-flow/state")
+    public Result<Map<String, Object>> state(@RequestParam(required = false) String stream_id) {
+        String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
+        if (sid == null) return Result.fail("stream_id 必填");
+        Map<String, Object> data = new HashMap<>(flowEngine.state(sid));
+        data.put("timer", flowEngine.getStats());
+        return Result.ok(data);
     }
 }
@@ -1,81 +1,188 @@
 package com.live.controller;
 
+import com.live.common.ResponseCache;
 import com.live.common.Result;
+import com.live.service.CommentIngest;
 import com.live.service.MockDataService;
-import com.live.websocket.LiveWebSocketHandler;
+import com.live.websocket.VoteBroadcastCoalescer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
- * 小程序端接口：投票、辩题、AI 内容、投票统计等
+ * 小程序端接口：投票、辩题、AI 内容、评论 / 点赞、投票统计等
  */
 @RestController
 @RequiredArgsConstructor
 public class MiniprogramController {
 
+    /** 未登录客户端提交的占位 userId（小写比较） */
+    private static final Set<String> PLACEHOLDER_USERS = Set.of("guest", "anonymous", "undefined", "null");
+
     private final MockDataService mock;
+    private final VoteBroadcastCoalescer voteBroadcaster;
+    private final ResponseCache responseCache;
+    private final CommentIngest commentIngest;
+
+    /** 每个用户在每个流可分配的票数 */
+    @Value("${live.votes.user-quota:100}")
+    private int userQuota;
 
-    /** POST /api/v1/user-vote 用户投票 */
+    /**
+     * POST /api/v1/user-vote 用户投票：leftVotes + rightVotes 为该用户的票数分配（不超过配额），
+     * 重复提交覆盖该用户上次的分配，流总票数只累加差值；拒绝未登录客户端的占位 userId，流须存在
+     */
     @PostMapping("/api/v1/user-vote")
     public Result<Map<String, Object>> userVote(@RequestBody Map<String, Object> body) {
         Map<?, ?> request = body.containsKey("request") ? (Map<?, ?>) body.get("request") : body;
         int left = getInt(request, "leftVotes", 0);
         int right = getInt(request, "rightVotes", 0);
+        String userId = getStr(request, "userId");
+        if (userId == null) userId = getStr(request, "user_id");
+        if (userId == null || userId.isBlank()) return Result.fail("userId 必填");
+        // 未登录客户端的占位 id 会让所有人共用同一份分配；微信登录只写网关自己的用户库，这里不要求用户已在目录中
+        if (PLACEHOLDER_USERS.contains(userId.trim().toLowerCase())) return Result.fail("请先登录后投票");
+        if (left < 0 || right < 0 || left + right > userQuota) {
+            return Result.fail("票数分配错误: 正方 " + left + " + 反方 " + right + "，每人最多 " + userQuota + " 票");
+        }
         String streamId = getStr(request, "streamId");
         if (streamId == null) streamId = getStr(request, "stream_id");
         if (streamId == null && !mock.getStreams().isEmpty()) streamId = mock.getStreams().get(0).getId();
-        if (streamId != null) {
-            mock.setVotes(streamId, left, right);
-            Map<String, Object> data = Map.of("leftVotes", left, "rightVotes", right, "streamId", streamId);
-            LiveWebSocketHandler.broadcast("votes-updated", data);
-            LiveWebSocketHandler.broadcast("votesUpdate", data);
-        }
-        return Result.ok(Map.of("success", true, "leftVotes", left, "rightVotes", right));
+        if (streamId == null || mock.getStream(streamId) == null) return Result.fail("直播流不存在: " + streamId);
+        long delta = mock.castUserVote(streamId, userId, left, right);
+        boolean changed = delta != 0;
+        if (changed) voteBroadcaster.markDirty(streamId);
+        return Result.ok(Map.of("success", true, "leftVotes", left, "rightVotes", right, "changed", changed));
     }
 
-    /** GET /api/v1/votes?stream_id= 获取票数 */
+    /** GET /api/v1/votes?stream_id= 获取票数（响应缓存 + ETag，票数变化前轮询返回同一响应体或 304） */
     @GetMapping("/api/v1/votes")
-    public Result<Map<String, Object>> getVotes(@RequestParam(required = false) String stream_id) {
+    public ResponseEntity<byte[]> getVotes(@RequestParam(required = false) String stream_id,
+                                           @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
-        if (sid == null) return Result.ok(Map.of("leftVotes", 0, "rightVotes", 0));
-        MockDataService.VoteState v = mock.getVotes(sid);
-        return Result.ok(Map.of("leftVotes", v.getLeftVotes(), "rightVotes", v.getRightVotes(), "streamId", sid));
+        return responseCache.respond("votes:" + sid, mock.getVersion(sid, MockDataService.Resource.VOTES), ifNoneMatch, () -> {
+            if (sid == null) return Result.ok(Map.of("leftVotes", 0, "rightVotes", 0));
+            MockDataService.VoteState v = mock.getVotes(sid);
+            return Result.ok(Map.of("leftVotes", v.getLeftVotes(), "rightVotes", v.getRightVotes(), "streamId", sid));
+        });
     }
 
-    /** GET /api/v1/debate-topic?stream_id= 辩题 */
+    /** GET /api/v1/debate-topic?stream_id= 辩题（响应缓存 + ETag） */
     @GetMapping("/api/v1/debate-topic")
-    public Result<MockDataService.DebateDto> getDebateTopic(@RequestParam(required = false) String stream_id) {
+    public ResponseEntity<byte[]> getDebateTopic(@RequestParam(required = false) String stream_id,
+                                                 @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
         String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
-        if (sid == null) return Result.ok(null);
-        MockDataService.DebateDto d = mock.getStreamDebate(sid);
-        return Result.ok(d);
+        return responseCache.respond("debate:" + sid, mock.getVersion(sid, MockDataService.Resource.TOPIC), ifNoneMatch,
+                () -> Result.ok(sid == null ? null : mock.getStreamDebate(sid)));
     }
 
-    /** GET /api/v1/ai-content?stream_id= AI 内容列表 */
+    /** GET /api/v1/ai-content?stream_id=&cursor=&limit= AI 内容列表（最新在前，游标翻页，limit 取 1~200；响应缓存 + ETag） */
     @GetMapping("/api/v1/ai-content")
-    public Result<Map<String, Object>> getAIContent(@RequestParam(required = false) String stream_id) {
-        String sid = stream_id;
-        var list = mock.getAIContents(1, 50, sid);
-        return Result.ok(Map.of("list", list, "total", list.size()));
+    public ResponseEntity<byte[]> getAIContent(@RequestParam(required = false) String stream_id,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "50") int limit,
+                                               @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        int n = Math.max(1, Math.min(limit, 200));
+        return responseCache.respond("ai:" + stream_id + ":" + cursor + ":" + n, mock.getVersion(stream_id, MockDataService.Resource.CONTENT), ifNoneMatch, () -> {
+            var page = mock.getAIContentsAfter(stream_id, cursor, n);
+            Map<String, Object> data = new HashMap<>();
+            data.put("list", page.list());
+            data.put("total", page.list().size());
+            data.put("nextCursor", page.nextCursor());
+            return Result.ok(data);
+        });
+    }
+
+    /** POST /api/v1/comment 评论 AI 内容：{contentId, user, text, avatar}，返回分配了 id 的评论（批量写入后可见） */
+    @PostMapping("/api/v1/comment")
+    public Result<?> comment(@RequestBody Map<String, Object> body) {
+        try {
+            return Result.ok(commentIngest.submit(getStr(body, "contentId"), getStr(body, "user"),
+                    getStr(body, "text"), getStr(body, "avatar")));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Result.fail(e.getMessage());
+        }
+    }
+
+    /** POST /api/v1/like 点赞：{contentId} 点赞内容，{contentId, commentId} 点赞评论；返回当前点赞数 */
+    @PostMapping("/api/v1/like")
+    public Result<Map<String, Object>> like(@RequestBody Map<String, Object> body) {
+        String contentId = getStr(body, "contentId");
+        String commentId = getStr(body, "commentId");
+        long likes = commentIngest.like(contentId, commentId);
+        if (likes < 0) return Result.fail(commentId != null ? "评论不存在" : "内容不存在");
+        return Result.ok(Map.of("likes", likes));
+    }
+
+    /** GET /api/v1/ai-content/{contentId}/comments?cursor=&limit= 评论列表（最新在前，游标翻页） */
+    @GetMapping("/api/v1/ai-content/{contentId}/comments")
+    public Result<Map<String, Object>> comments(@PathVariable String contentId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        var page = mock.getAIContentCommentsAfter(contentId, cursor, Math.max(1, Math.min(limit, 100)));
+        Map<String, Object> data = new HashMap<>();
+        data.put("contentId", contentId);
+        data.put("list", page.list());
+        data.put("nextCursor", page.nextCursor());
+        data.put("total", mock.getCommentCount(contentId));
+        data.put("likes", mock.getAIContentLikes(contentId));
+        return Result.ok(data);
     }
 
     /** GET /api/v1/admin/votes/statistics 投票统计（带 stream_id 可选） */
     @GetMapping("/api/v1/admin/votes/statistics")
     public Result<Map<String, Object>> votesStats(@RequestParam(required = false) String stream_id) {
-        int totalLeft = 0, totalRight = 0;
-        for (String sid : mock.getStreams().stream().map(MockDataService.StreamInfo::getId).toList()) {
-            if (stream_id != null && !stream_id.equals(sid)) continue;
-            MockDataService.VoteState v = mock.getVotes(sid);
-            totalLeft += v.getLeftVotes();
-            totalRight += v.getRightVotes();
-        }
+        // 全部流的合计由计票增量维护，不遍历各流
+        MockDataService.VoteState v = stream_id != null
+                ? (mock.getStream(stream_id) != null ? mock.getVotes(stream_id) : new MockDataService.VoteState(0, 0))
+                : mock.getVoteTotals();
+        int totalLeft = v.getLeftVotes(), totalRight = v.getRightVotes();
         Map<String, Object> data = new HashMap<>();
         data.put("totalLeftVotes", totalLeft);
         data.put("totalRightVotes", totalRight);
         data.put("totalVotes", totalLeft + totalRight);
+        if (stream_id != null) data.put("voters", mock.getVotersCount(stream_id));
+        return Result.ok(data);
+    }
+
+    /** GET /api/v1/admin/votes/timeline 按秒 / 分钟聚合的票数变化（granularity=second|minute，from/to 为毫秒时间戳） */
+    @GetMapping("/api/v1/admin/votes/timeline")
+    public Result<Map<String, Object>> votesTimeline(@RequestParam(required = false) String stream_id,
+                                                     @RequestParam(defaultValue = "second") String granularity,
+                                                     @RequestParam(required = false) Long from,
+                                                     @RequestParam(required = false) Long to) {
+        String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
+        if (sid == null) return Result.fail("streamId 必填");
+        boolean minute = "minute".equals(granularity);
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - (minute ? 86_400_000L : 600_000L);
+        Map<String, Object> data = new HashMap<>();
+        data.put("streamId", sid);
+        data.put("granularity", minute ? "minute" : "second");
+        data.put("from", start);
+        data.put("to", end);
+        data.put("buckets", mock.getVoteTimeline(sid, minute ? "minute" : "second", start, end));
+        return Result.ok(data);
+    }
+
+    /** GET /api/v1/admin/votes/events 投票事件回放（afterSeq 翻页，最多 1000 条） */
+    @GetMapping("/api/v1/admin/votes/events")
+    public Result<Map<String, Object>> votesEvents(@RequestParam(required = false) String stream_id,
+                                                   @RequestParam(defaultValue = "-1") long afterSeq,
+                                                   @RequestParam(required = false) Long from,
+                                                   @RequestParam(required = false) Long to,
+                                                   @RequestParam(defaultValue = "200") int limit) {
+        String sid = stream_id != null ? stream_id : (mock.getStreams().isEmpty() ? null : mock.getStreams().get(0).getId());
+        if (sid == null) return Result.fail("streamId 必填");
+        Map<String, Object> data = mock.getVoteEvents(sid, afterSeq, from != null ? from : 0,
+                to != null ? to : Long.MAX_VALUE, Math.max(1, Math.min(limit, 1000)));
+        data.put("streamId", sid);
+        data.put("stats", mock.getVoteEventStats());
         return Result.ok(data);
     }
 
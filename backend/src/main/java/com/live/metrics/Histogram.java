@@ -0,0 +1,65 @@
+package com.live.metrics;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定桶耗时直方图（Prometheus histogram 语义，累计值在导出时计算）。
+ * 记录只做一次查桶和两次 LongAdder 累加，不分配对象，可在请求 / 广播热路径上调用。
+ */
+public final class Histogram {
+
+    /** 请求耗时桶上界（纳秒）：100µs ~ 10s */
+    public static final long[] REQUEST_BOUNDS = {
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000, 25_000_000,
+            50_000_000, 100_000_000, 250_000_000, 500_000_000, 1_000_000_000, 2_500_000_000L, 10_000_000_000L};
+    /** 微秒级操作桶上界（纳秒）：1µs ~ 100ms，如广播入队 */
+    public static final long[] FAST_BOUNDS = {
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000, 100_000_000};
+
+    private final long[] bounds;
+    /** le 标签值（秒），预先格式化 */
+    private final String[] le;
+    /** 最后一个为 +Inf 桶 */
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    public Histogram(long[] boundsNanos) {
+        this.bounds = boundsNanos.clone();
+        this.le = new String[bounds.length + 1];
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < bounds.length; i++) {
+            le[i] = BigDecimal.valueOf(bounds[i], 9).stripTrailingZeros().toPlainString();
+        }
+        le[bounds.length] = "+Inf";
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < bounds.length && nanos > bounds[i]) i++;
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    public long count() {
+        long n = 0;
+        for (LongAdder b : buckets) n += b.sum();
+        return n;
+    }
+
+    /** 输出 name_bucket / name_sum / name_count；labels 为已转义的标签串（可为空），如 method="GET" */
+    void writeTo(StringBuilder sb, String name, String labels) {
+        String sep = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            sb.append(name).append("_bucket{").append(sep).append("le=\"").append(le[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        String braced = labels.isEmpty() ? "" : "{" + labels + "}";
+        sb.append(name).append("_sum").append(braced).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+        sb.append(name).append("_count").append(braced).append(' ').append(cumulative).append('\n');
+    }
+}
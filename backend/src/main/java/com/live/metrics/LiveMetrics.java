@@ -0,0 +1,204 @@
+package com.live.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 进程内指标：接口耗时、每流投票、WebSocket 广播与发送，外加按需计算的 gauge，导出为 Prometheus 文本格式。
+ * <p>
+ * 记录路径只做 ConcurrentHashMap 查找（已存在的 key）与 LongAdder 累加，不分配对象；
+ * 标签拼接、累计桶与 gauge 计算都在 {@link #scrape()} 时进行。
+ */
+@Component
+public class LiveMetrics {
+
+    /** 未匹配到任何接口的请求（404 等）统一记在这个 uri 下，避免标签基数膨胀 */
+    public static final String UNMATCHED = "UNMATCHED";
+    private static final int RATE_SLOTS = 16;
+    private static final int RATE_WINDOW_SECONDS = 10;
+
+    /** method -> uri 模板 -> 统计 */
+    private final Map<String, Map<String, Endpoint>> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, StreamVotes> votes = new ConcurrentHashMap<>();
+    private final Histogram broadcastFanout = new Histogram(Histogram.FAST_BOUNDS);
+    private final Histogram wsSendLag = new Histogram(Histogram.REQUEST_BOUNDS);
+    private final LongAdder wsSendFailures = new LongAdder();
+    private final LongAdder wsDropped = new LongAdder();
+    private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+
+    /** 一次 HTTP 请求；uri 为匹配到的接口模板 */
+    public void recordRequest(String method, String uri, int status, long nanos) {
+        Map<String, Endpoint> byUri = endpoints.get(method);
+        if (byUri == null) byUri = endpoints.computeIfAbsent(method, k -> new ConcurrentHashMap<>());
+        Endpoint e = byUri.get(uri);
+        if (e == null) e = byUri.computeIfAbsent(uri, k -> new Endpoint());
+        e.latency.record(nanos);
+        e.byStatus[Math.min(Math.max(status / 100, 1), 5) - 1].increment();
+    }
+
+    /** 一次票数变化；正增量计为投出的票，负增量（用户改票撤回）只计事件数 */
+    public void recordVotes(String streamId, int leftDelta, int rightDelta) {
+        if (streamId == null) return;
+        StreamVotes v = votes.get(streamId);
+        if (v == null) v = votes.computeIfAbsent(streamId, k -> new StreamVotes());
+        v.record(leftDelta, rightDelta, System.currentTimeMillis() / 1000);
+    }
+
+    /** 一次广播入队到所有接收会话的耗时 */
+    public void recordBroadcast(long nanos) {
+        broadcastFanout.record(nanos);
+    }
+
+    /** 一帧从入队到写出的耗时 */
+    public void recordWsSend(long lagNanos) {
+        wsSendLag.record(lagNanos);
+    }
+
+    public void wsSendFailed() {
+        wsSendFailures.increment();
+    }
+
+    /** 发送队列溢出丢弃的帧 */
+    public void wsFramesDropped(int n) {
+        wsDropped.add(n);
+    }
+
+    /** 单值 gauge，抓取时计算 */
+    public void gauge(String name, String help, Supplier<? extends Number> value) {
+        gauges.add(new Gauge(name, help, null, () -> Map.of("", value.get())));
+    }
+
+    /** 按一个标签展开的 gauge（如每流），抓取时计算 */
+    public void gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+        gauges.add(new Gauge(name, help, label, values));
+    }
+
+    /** Prometheus 文本格式（0.0.4） */
+    public String scrape() {
+        StringBuilder sb = new StringBuilder(8192);
+        header(sb, "live_http_request_duration_seconds", "HTTP 接口耗时", "histogram");
+        new TreeMap<>(endpoints).forEach((method, byUri) -> new TreeMap<>(byUri).forEach((uri, e) ->
+                e.latency.writeTo(sb, "live_http_request_duration_seconds", labels("method", method, "uri", uri))));
+        header(sb, "live_http_requests_total", "HTTP 请求数（按状态码类别）", "counter");
+        new TreeMap<>(endpoints).forEach((method, byUri) -> new TreeMap<>(byUri).forEach((uri, e) -> {
+            for (int i = 0; i < e.byStatus.length; i++) {
+                long n = e.byStatus[i].sum();
+                if (n > 0) sample(sb, "live_http_requests_total", labels("method", method, "uri", uri) + ",status=\"" + (i + 1) + "xx\"", n);
+            }
+        }));
+
+        Map<String, StreamVotes> vs = new TreeMap<>(votes);
+        long nowSec = System.currentTimeMillis() / 1000;
+        header(sb, "live_votes_cast_total", "投出的票数（正增量之和）", "counter");
+        vs.forEach((sid, v) -> {
+            sample(sb, "live_votes_cast_total", labels("stream", sid) + ",side=\"left\"", v.left.sum());
+            sample(sb, "live_votes_cast_total", labels("stream", sid) + ",side=\"right\"", v.right.sum());
+        });
+        header(sb, "live_vote_events_total", "票数变化事件数", "counter");
+        vs.forEach((sid, v) -> sample(sb, "live_vote_events_total", labels("stream", sid), v.events.sum()));
+        header(sb, "live_votes_per_second", "最近 " + RATE_WINDOW_SECONDS + " 秒平均每秒投票数", "gauge");
+        vs.forEach((sid, v) -> sample(sb, "live_votes_per_second", labels("stream", sid), v.perSecond(nowSec)));
+
+        header(sb, "live_ws_broadcast_fanout_seconds", "一次广播入队到全部接收会话的耗时", "histogram");
+        broadcastFanout.writeTo(sb, "live_ws_broadcast_fanout_seconds", "");
+        header(sb, "live_ws_send_lag_seconds", "WebSocket 帧从入队到写出的耗时", "histogram");
+        wsSendLag.writeTo(sb, "live_ws_send_lag_seconds", "");
+        header(sb, "live_ws_send_failures_total", "WebSocket 发送失败次数", "counter");
+        sample(sb, "live_ws_send_failures_total", "", wsSendFailures.sum());
+        header(sb, "live_ws_frames_dropped_total", "发送队列溢出丢弃的帧数", "counter");
+        sample(sb, "live_ws_frames_dropped_total", "", wsDropped.sum());
+
+        for (Gauge g : gauges) {
+            header(sb, g.name, g.help, "gauge");
+            Map<String, ? extends Number> values;
+            try {
+                values = new TreeMap<>(g.values.get());
+            } catch (Exception e) {
+                continue;
+            }
+            values.forEach((k, n) -> sample(sb, g.name, g.label == null ? "" : labels(g.label, k), n.doubleValue()));
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) sb.append('{').append(labels).append('}');
+        sb.append(' ');
+        if (value == (long) value) sb.append((long) value);
+        else sb.append(value);
+        sb.append('\n');
+    }
+
+    private static String labels(String... kv) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < kv.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(kv[i]).append("=\"");
+            String v = kv[i + 1] != null ? kv[i + 1] : "";
+            for (int j = 0; j < v.length(); j++) {
+                char c = v.charAt(j);
+                if (c == '\\' || c == '"') sb.append('\\').append(c);
+                else if (c == '\n') sb.append("\\n");
+                else sb.append(c);
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    private static final class Endpoint {
+        final Histogram latency = new Histogram(Histogram.REQUEST_BOUNDS);
+        /** 1xx ~ 5xx */
+        final LongAdder[] byStatus = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+    }
+
+    /**
+     * 每流投票：累计计数 + 按秒环形槽（最近 RATE_SLOTS 秒）。
+     * 跨秒时第一个写入者认领槽位并清零，同一瞬间并发写入的少量票可能被清掉，速率为近似值。
+     */
+    private static final class StreamVotes {
+        final LongAdder left = new LongAdder();
+        final LongAdder right = new LongAdder();
+        final LongAdder events = new LongAdder();
+        final AtomicLongArray slotSecond = new AtomicLongArray(RATE_SLOTS);
+        final AtomicLongArray slotVotes = new AtomicLongArray(RATE_SLOTS);
+
+        void record(int leftDelta, int rightDelta, long second) {
+            events.increment();
+            if (leftDelta > 0) left.add(leftDelta);
+            if (rightDelta > 0) right.add(rightDelta);
+            long n = Math.max(leftDelta, 0) + Math.max(rightDelta, 0);
+            if (n == 0) return;
+            int i = (int) (second & (RATE_SLOTS - 1));
+            long s = slotSecond.get(i);
+            if (s != second && slotSecond.compareAndSet(i, s, second)) slotVotes.set(i, 0);
+            slotVotes.addAndGet(i, n);
+        }
+
+        /** 最近 RATE_WINDOW_SECONDS 个完整秒的平均值（不含当前秒） */
+        double perSecond(long nowSecond) {
+            long sum = 0;
+            for (int i = 0; i < RATE_SLOTS; i++) {
+                long s = slotSecond.get(i);
+                if (s < nowSecond && s >= nowSecond - RATE_WINDOW_SECONDS) sum += slotVotes.get(i);
+            }
+            return (double) sum / RATE_WINDOW_SECONDS;
+        }
+    }
+
+    private record Gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {}
+}
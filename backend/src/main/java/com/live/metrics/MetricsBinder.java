@@ -0,0 +1,50 @@
+package com.live.metrics;
+
+import com.live.common.ResponseCache;
+import com.live.service.MockDataService;
+import com.live.websocket.LiveWebSocketHandler;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * 注册状态型 gauge（会话数、观看人数、各内存表大小等）：只在抓取时读取，不影响业务路径。
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsBinder {
+
+    private final LiveMetrics metrics;
+    private final LiveWebSocketHandler ws;
+    private final MockDataService mock;
+    private final ResponseCache responseCache;
+
+    @PostConstruct
+    public void bind() {
+        metrics.gauge("live_ws_sessions", "WebSocket 会话数（按编码）", "encoding", ws::sessionsByEncoding);
+        metrics.gauge("live_ws_queued_frames", "各会话发送队列中待发送的帧数之和", ws::queuedFrames);
+        metrics.gauge("live_ws_viewers", "本节点各流观看人数", "stream", ws::viewerCounts);
+        metrics.gauge("live_streams", "直播流数量", () -> mock.getStreams().size());
+        metrics.gauge("live_debates", "辩题数量", () -> mock.getDebates().size());
+        metrics.gauge("live_users", "用户数量", mock::getUsersTotal);
+        metrics.gauge("live_voters", "各流参与投票的用户数", "stream", () -> perStream(mock::getVotersCount));
+        metrics.gauge("live_ai_content_store_size", "AI 内容总条数", () -> mock.getAIContentsTotal(null));
+        metrics.gauge("live_ai_contents", "各流 AI 内容条数", "stream", () -> perStream(mock::getAIContentsTotal));
+        metrics.gauge("live_comments_pending", "待批量写入的评论数", mock::getPendingComments);
+        metrics.gauge("live_response_cache_entries", "响应缓存条目数", () -> (Number) responseCache.getStats().get("entries"));
+        metrics.gauge("jvm_memory_heap_used_bytes", "JVM 已用堆内存",
+                () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        metrics.gauge("jvm_threads_live", "JVM 存活线程数", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private Map<String, Integer> perStream(ToIntFunction<String> f) {
+        Map<String, Integer> m = new HashMap<>();
+        mock.getStreams().forEach(s -> m.put(s.getId(), f.applyAsInt(s.getId())));
+        return m;
+    }
+}
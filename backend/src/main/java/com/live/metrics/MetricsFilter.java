@@ -0,0 +1,35 @@
+package com.live.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 按接口模板（如 /api/v1/votes）记录每个请求的耗时与状态码类别；起始时间放在局部变量，不写请求属性。
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsFilter extends OncePerRequestFilter {
+
+    private final LiveMetrics metrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long t0 = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.recordRequest(request.getMethod(), pattern instanceof String p ? p : LiveMetrics.UNMATCHED,
+                    response.getStatus(), System.nanoTime() - t0);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.live.model;
+
+import java.time.Instant;
+
+/**
+ * AI 识别内容；评论与点赞由 CommentBoard 维护，不随内容保存
+ */
+public record AIContent(
+        String id,
+        String contentText,
+        String streamId,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,16 @@
+package com.live.model;
+
+import java.time.Instant;
+
+/**
+ * AI 内容下的评论
+ */
+public record Comment(
+        String id,
+        String user,
+        String text,
+        String avatar,
+        Instant createdAt,
+        int likes
+) {
+}
@@ -0,0 +1,22 @@
+package com.live.model;
+
+import java.util.Map;
+
+/**
+ * 辩论流程环节：名称、时长（秒）、发言方 left|right|both
+ */
+public record FlowSegment(String name, int duration, String side) {
+
+    /** 从前端提交的 JSON 对象解析 */
+    public static FlowSegment from(Map<?, ?> m) {
+        Object d = m.get("duration");
+        int duration;
+        if (d instanceof Number n) duration = n.intValue();
+        else {
+            try { duration = d != null ? Integer.parseInt(d.toString()) : 0; } catch (Exception e) { duration = 0; }
+        }
+        Object name = m.get("name");
+        Object side = m.get("side");
+        return new FlowSegment(name != null ? name.toString() : "", duration, side != null ? side.toString() : "both");
+    }
+}
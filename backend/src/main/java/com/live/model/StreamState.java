@@ -0,0 +1,22 @@
+package com.live.model;
+
+/**
+ * 单流状态快照（不可变）：数据大屏所需字段一次读出，各字段对应同一个状态版本 version
+ */
+public record StreamState(
+        String streamId,
+        String name,
+        boolean enabled,
+        boolean isLive,
+        String aiStatus,
+        int leftVotes,
+        int rightVotes,
+        int viewers,
+        int voters,
+        String debateId,
+        String debateTopic,
+        String leftPosition,
+        String rightPosition,
+        long version
+) {
+}
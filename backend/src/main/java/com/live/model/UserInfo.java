@@ -0,0 +1,18 @@
+package com.live.model;
+
+import java.time.Instant;
+
+/**
+ * 小程序用户（不可变）：计数类字段变化时整体替换
+ */
+public record UserInfo(
+        String id,
+        String nickName,
+        String avatarUrl,
+        Instant createdAt,
+        Instant updatedAt,
+        int totalVotes,
+        int joinedDebates,
+        String status
+) {
+}
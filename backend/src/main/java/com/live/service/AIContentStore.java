@@ -0,0 +1,136 @@
+package com.live.service;
+
+import com.live.model.AIContent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AI 内容存储：id 索引 + 全局 / 每流按插入序（新在前）的跳表索引。
+ * 计数 O(1)，游标分页 O(log n + pageSize)，AI 流水线并发追加安全。
+ */
+public class AIContentStore {
+
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Index all = new Index();
+    private final Map<String, Index> byStream = new ConcurrentHashMap<>();
+
+    /** 追加一条内容（作为最新一条） */
+    public void add(AIContent content) {
+        Entry e = new Entry(seq.incrementAndGet(), content);
+        Entry prev = byId.put(content.id(), e);
+        if (prev != null) unindex(prev);
+        all.add(e);
+        if (content.streamId() != null) byStream.computeIfAbsent(content.streamId(), k -> new Index()).add(e);
+    }
+
+    public AIContent get(String id) {
+        Entry e = byId.get(id);
+        return e != null ? e.content : null;
+    }
+
+    public boolean remove(String id) {
+        Entry e = byId.remove(id);
+        if (e == null) return false;
+        unindex(e);
+        return true;
+    }
+
+    public int count(String streamId) {
+        Index idx = index(streamId);
+        return idx != null ? idx.size.get() : 0;
+    }
+
+    /** 页码分页（兼容旧接口），page 从 1 开始 */
+    public List<AIContent> page(String streamId, int page, int pageSize) {
+        Index idx = index(streamId);
+        if (idx == null || page < 1 || pageSize <= 0) return List.of();
+        long skip = (long) (page - 1) * pageSize;
+        if (skip >= idx.size.get()) return List.of();
+        List<AIContent> list = new ArrayList<>(pageSize);
+        for (Entry e : idx.entries.values()) {
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            list.add(e.content);
+            if (list.size() == pageSize) break;
+        }
+        return list;
+    }
+
+    /** 游标分页：返回 cursor 之后（更旧）的 limit 条；cursor 为空从最新开始 */
+    public CursorPage pageAfter(String streamId, String cursor, int limit) {
+        Index idx = index(streamId);
+        if (idx == null || limit <= 0) return new CursorPage(List.of(), null);
+        NavigableMap<Long, Entry> view = idx.entries;
+        Long after = parseCursor(cursor);
+        if (after != null) view = view.tailMap(after, false);
+        List<AIContent> list = new ArrayList<>(limit);
+        long last = 0;
+        for (Entry e : view.values()) {
+            list.add(e.content);
+            last = e.seq;
+            if (list.size() == limit) break;
+        }
+        String next = list.size() == limit && view.higherKey(last) != null ? Long.toString(last) : null;
+        return new CursorPage(Collections.unmodifiableList(list), next);
+    }
+
+    /** 全部内容，按插入序（旧在前），用于快照 */
+    public List<AIContent> all() {
+        List<AIContent> list = new ArrayList<>(all.size.get());
+        for (Entry e : all.entries.descendingMap().values()) list.add(e.content);
+        return list;
+    }
+
+    private Index index(String streamId) {
+        return streamId == null ? all : byStream.get(streamId);
+    }
+
+    private void unindex(Entry e) {
+        all.remove(e);
+        if (e.content.streamId() != null) {
+            Index idx = byStream.get(e.content.streamId());
+            if (idx != null) idx.remove(e);
+        }
+    }
+
+    private static Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /** 游标分页结果；nextCursor 为空表示没有更多 */
+    public record CursorPage(List<AIContent> list, String nextCursor) {}
+
+    private record Entry(long seq, AIContent content) {}
+
+    /** 按 seq 倒序（新在前）的索引 */
+    private static final class Index {
+        final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(Entry e) {
+            entries.put(e.seq, e);
+            size.incrementAndGet();
+        }
+
+        void remove(Entry e) {
+            if (entries.remove(e.seq) != null) size.decrementAndGet();
+        }
+    }
+}
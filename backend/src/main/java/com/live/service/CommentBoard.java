@@ -0,0 +1,382 @@
+package com.live.service;
+
+import com.live.model.Comment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * AI 内容的评论与点赞。
+ * <ul>
+ *   <li>评论：每条内容一个评论区（id 索引 + 按序跳表，新在前）；按 id 删除直接定位，分页只遍历所需条目，不复制整表；</li>
+ *   <li>新评论先进入提交队列，由 {@link #drainComments(int)} 成批取出、一批一条变更写入存储后才可见；</li>
+ *   <li>点赞：每条内容 / 评论一个 LongAdder（分段累加，单卡点赞风暴下各线程写不同 cell），
+ *       另记已持久化的值，增量由 {@link #drainLikes()} 汇总后一批写入存储；</li>
+ *   <li>内容点赞数 / 评论数的变化另行登记，由 {@link #drainChanged()} 取出供热点推送，点赞时只多一次标志位检查。</li>
+ * </ul>
+ * 持久化由 MockDataService 负责；本类只维护内存结构。
+ */
+public class CommentBoard {
+
+    private final AtomicLong seq = new AtomicLong();
+    private final Map<String, Section> sections = new ConcurrentHashMap<>();
+    private final Map<String, LikeCounter> contentLikes = new ConcurrentHashMap<>();
+    private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Queue<LikeCounter> dirtyLikes = new ConcurrentLinkedQueue<>();
+    /** 自上次 drainChanged 以来点赞数有变化的内容 / 评论数有变化（含删除）的内容 */
+    private final Queue<LikeCounter> changedLikes = new ConcurrentLinkedQueue<>();
+    private final Set<String> changedComments = ConcurrentHashMap.newKeySet();
+
+    /** 提交评论（尚不可见）；队列已满返回 false */
+    public boolean submit(String contentId, Comment comment, int maxPending) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        pending.add(new Pending(contentId, comment));
+        return true;
+    }
+
+    public int pendingComments() {
+        return pendingCount.get();
+    }
+
+    /** 取出最多 max 条待写入的评论，按 contentId 分组、组内按提交顺序 */
+    public Map<String, List<Comment>> drainComments(int max) {
+        Map<String, List<Comment>> batch = new HashMap<>();
+        Pending p;
+        for (int i = 0; i < max && (p = pending.poll()) != null; i++) {
+            pendingCount.decrementAndGet();
+            batch.computeIfAbsent(p.contentId, k -> new ArrayList<>()).add(p.comment);
+        }
+        return batch;
+    }
+
+    /** 使评论可见（写入存储后 / 回放时调用）；likes 为已持久化的点赞数 */
+    public void add(String contentId, Comment comment) {
+        Section s = sections.computeIfAbsent(contentId, k -> new Section());
+        Entry e = new Entry(seq.incrementAndGet(), contentId, comment);
+        e.likes.restore(comment.likes());
+        Entry prev = s.byId.put(comment.id(), e);
+        if (prev != null) s.bySeq.remove(prev.seq);
+        s.bySeq.put(e.seq, e);
+        if (prev == null) {
+            s.size.incrementAndGet();
+            changedComments.add(contentId);
+        }
+    }
+
+    public boolean remove(String contentId, String commentId) {
+        Section s = sections.get(contentId);
+        if (s == null) return false;
+        Entry e = s.byId.remove(commentId);
+        if (e == null) return false;
+        s.bySeq.remove(e.seq);
+        s.size.decrementAndGet();
+        changedComments.add(contentId);
+        return true;
+    }
+
+    /** 删除内容时清除其评论与点赞 */
+    public void removeContent(String contentId) {
+        sections.remove(contentId);
+        contentLikes.remove(contentId);
+        changedComments.add(contentId);
+    }
+
+    public int count(String contentId) {
+        Section s = sections.get(contentId);
+        return s != null ? s.size.get() : 0;
+    }
+
+    /** 页码分页（新在前），page 从 1 开始 */
+    public List<Comment> page(String contentId, int page, int pageSize) {
+        Section s = sections.get(contentId);
+        if (s == null || page < 1 || pageSize <= 0) return List.of();
+        long skip = (long) (page - 1) * pageSize;
+        if (skip >= s.size.get()) return List.of();
+        List<Comment> list = new ArrayList<>(pageSize);
+        for (Entry e : s.bySeq.values()) {
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            list.add(e.view());
+            if (list.size() == pageSize) break;
+        }
+        return list;
+    }
+
+    /** 游标分页：返回 cursor 之后（更旧）的 limit 条；cursor 为空从最新开始 */
+    public CursorPage pageAfter(String contentId, String cursor, int limit) {
+        Section s = sections.get(contentId);
+        if (s == null || limit <= 0) return new CursorPage(List.of(), null);
+        Map<Long, Entry> view = s.bySeq;
+        Long after = parseCursor(cursor);
+        if (after != null) view = s.bySeq.tailMap(after, false);
+        List<Comment> list = new ArrayList<>(limit);
+        long last = 0;
+        for (Entry e : view.values()) {
+            list.add(e.view());
+            last = e.seq;
+            if (list.size() == limit) break;
+        }
+        String next = list.size() == limit && s.bySeq.higherKey(last) != null ? Long.toString(last) : null;
+        return new CursorPage(Collections.unmodifiableList(list), next);
+    }
+
+    /** 内容点赞，返回当前点赞数 */
+    public long likeContent(String contentId) {
+        LikeCounter c = contentLikes.get(contentId);
+        if (c == null) c = contentLikes.computeIfAbsent(contentId, this::contentCounter);
+        return c.increment(dirtyLikes);
+    }
+
+    /** 评论点赞，返回当前点赞数；评论不存在返回 -1 */
+    public long likeComment(String contentId, String commentId) {
+        Section s = sections.get(contentId);
+        Entry e = s != null ? s.byId.get(commentId) : null;
+        return e != null ? e.likes.increment(dirtyLikes) : -1;
+    }
+
+    public long contentLikes(String contentId) {
+        LikeCounter c = contentLikes.get(contentId);
+        return c != null ? c.total.sum() : 0;
+    }
+
+    /**
+     * 取出自上次调用以来点赞数或评论数有变化的内容及其当前值与增量（可能含已删除的内容，其计数为 0）。
+     * 只由单个线程调用。
+     */
+    public Map<String, Change> drainChanged() {
+        Set<String> ids = new HashSet<>();
+        LikeCounter c;
+        while ((c = changedLikes.poll()) != null) {
+            c.changed = false;
+            ids.add(c.key);
+        }
+        for (Iterator<String> it = changedComments.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        Map<String, Change> out = new HashMap<>(ids.size() * 2);
+        for (String id : ids) {
+            long likes = 0, likesDelta = 0;
+            int count = 0, countDelta = 0;
+            LikeCounter lc = contentLikes.get(id);
+            if (lc != null) {
+                likes = lc.total.sum();
+                likesDelta = likes - lc.announced;
+                lc.announced = likes;
+            }
+            Section s = sections.get(id);
+            if (s != null) {
+                count = s.size.get();
+                countDelta = count - s.announced;
+                s.announced = count;
+            }
+            out.put(id, new Change(likes, likesDelta, count, countDelta));
+        }
+        return out;
+    }
+
+    /**
+     * 汇总自上次以来的点赞增量：key 为 contentId（内容）或 contentId/commentId（评论）。
+     * 所属内容（contentExists 判定）或评论已删除的计数器不再写入，点赞与删除并发时残留的内容计数器一并移除。
+     * 增量写入存储后由调用方以 {@link #markLikesPersisted(Map)} 确认。
+     */
+    public Map<String, Long> drainLikes(Predicate<String> contentExists) {
+        Map<String, Long> deltas = new HashMap<>();
+        LikeCounter c;
+        while ((c = dirtyLikes.poll()) != null) {
+            c.dirty = false;
+            if (!contentExists.test(contentId(c.key))) {
+                if (c.key.indexOf('/') < 0) contentLikes.remove(c.key, c);
+                continue;
+            }
+            if (counter(c.key, false) != c) continue;
+            long d = c.total.sum() - c.persisted;
+            if (d != 0) deltas.merge(c.key, d, Long::sum);
+        }
+        return deltas;
+    }
+
+    /** 增量已写入存储 */
+    public void markLikesPersisted(Map<String, Long> deltas) {
+        deltas.forEach((key, d) -> {
+            LikeCounter c = counter(key, false);
+            if (c != null) c.persisted += d;
+        });
+    }
+
+    /** 回放点赞增量；只为仍存在的内容创建计数器，已删除的内容 / 评论的增量忽略 */
+    public void replayLikes(Map<String, Long> deltas, Predicate<String> contentExists) {
+        deltas.forEach((key, d) -> {
+            LikeCounter c = counter(key, contentExists.test(contentId(key)));
+            if (c != null) c.restore(c.persisted + d);
+        });
+    }
+
+    /** 快照：每条内容的评论（旧在前，likes 为已持久化值） */
+    public Map<String, List<Comment>> exportComments() {
+        Map<String, List<Comment>> out = new HashMap<>();
+        sections.forEach((contentId, s) -> {
+            List<Comment> list = export(s);
+            if (!list.isEmpty()) out.put(contentId, list);
+        });
+        return out;
+    }
+
+    /** 快照：单条内容的评论，没有评论返回空列表 */
+    public List<Comment> exportComments(String contentId) {
+        Section s = sections.get(contentId);
+        return s != null ? export(s) : List.of();
+    }
+
+    private static List<Comment> export(Section s) {
+        List<Comment> list = new ArrayList<>(s.size.get());
+        for (Entry e : s.bySeq.descendingMap().values()) list.add(e.persistedView());
+        return list;
+    }
+
+    /** 快照：内容点赞数（已持久化值） */
+    public Map<String, Long> exportContentLikes() {
+        Map<String, Long> out = new HashMap<>();
+        contentLikes.forEach((id, c) -> {
+            if (c.persisted != 0) out.put(id, c.persisted);
+        });
+        return out;
+    }
+
+    /** 快照：单条内容已持久化的点赞数 */
+    public long exportContentLikes(String contentId) {
+        LikeCounter c = contentLikes.get(contentId);
+        return c != null ? c.persisted : 0;
+    }
+
+    public void restoreContentLikes(Map<String, Long> likes) {
+        likes.forEach((id, n) -> contentLikes.computeIfAbsent(id, this::contentCounter).restore(n));
+    }
+
+    /** 内容点赞数 / 评论数的当前值与自上次 {@link #drainChanged()} 以来的增量 */
+    public record Change(long likes, long likesDelta, int comments, int commentsDelta) {}
+
+    private LikeCounter contentCounter(String contentId) {
+        return new LikeCounter(contentId, changedLikes);
+    }
+
+    private LikeCounter counter(String key, boolean create) {
+        int slash = key.indexOf('/');
+        if (slash < 0) return create ? contentLikes.computeIfAbsent(key, this::contentCounter) : contentLikes.get(key);
+        Section s = sections.get(key.substring(0, slash));
+        Entry e = s != null ? s.byId.get(key.substring(slash + 1)) : null;
+        return e != null ? e.likes : null;
+    }
+
+    private static String contentId(String key) {
+        int slash = key.indexOf('/');
+        return slash < 0 ? key : key.substring(0, slash);
+    }
+
+    private static Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public record CursorPage(List<Comment> list, String nextCursor) {}
+
+    private record Pending(String contentId, Comment comment) {}
+
+    private static final class Section {
+        final Map<String, Entry> byId = new ConcurrentHashMap<>();
+        final ConcurrentSkipListMap<Long, Entry> bySeq = new ConcurrentSkipListMap<>(Comparator.reverseOrder());
+        final AtomicInteger size = new AtomicInteger();
+        /** 上次 drainChanged 时的评论数 */
+        int announced;
+    }
+
+    private static final class Entry {
+        final long seq;
+        final Comment comment;
+        final LikeCounter likes;
+
+        Entry(long seq, String contentId, Comment comment) {
+            this.seq = seq;
+            this.comment = comment;
+            this.likes = new LikeCounter(contentId + "/" + comment.id(), null);
+        }
+
+        Comment view() {
+            return withLikes(likes.total.sum());
+        }
+
+        Comment persistedView() {
+            return withLikes(likes.persisted);
+        }
+
+        private Comment withLikes(long n) {
+            Comment c = comment;
+            return new Comment(c.id(), c.user(), c.text(), c.avatar(), c.createdAt(), (int) Math.min(n, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * 点赞计数：total 含未持久化增量；persisted 只由写入线程在存储临界区内修改。
+     * changedQueue 非空时（内容点赞）首次变化另登记到该队列供热点推送。
+     */
+    private static final class LikeCounter {
+        final String key;
+        final LongAdder total = new LongAdder();
+        final Queue<LikeCounter> changedQueue;
+        volatile long persisted;
+        volatile boolean dirty;
+        volatile boolean changed;
+        /** 上次 drainChanged 时的点赞数 */
+        long announced;
+
+        LikeCounter(String key, Queue<LikeCounter> changedQueue) {
+            this.key = key;
+            this.changedQueue = changedQueue;
+        }
+
+        long increment(Queue<LikeCounter> dirtyQueue) {
+            total.increment();
+            if (!dirty) {
+                dirty = true;
+                dirtyQueue.add(this);
+            }
+            if (changedQueue != null && !changed) {
+                changed = true;
+                changedQueue.add(this);
+            }
+            return total.sum();
+        }
+
+        /** 恢复为已持久化的值 n */
+        void restore(long n) {
+            total.add(n - total.sum());
+            persisted = n;
+            announced = n;
+        }
+    }
+}
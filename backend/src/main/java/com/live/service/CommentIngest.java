@@ -0,0 +1,129 @@
+package com.live.service;
+
+import com.live.model.Comment;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 评论 / 点赞写入：请求线程只入队（评论）或累加计数（点赞），
+ * 后台线程每 flush-interval-ms 把新评论按 batch-size 成批、点赞增量合并为一条变更写入存储。
+ * 评论在所在批次写入后可见（通常数十毫秒内）；点赞计数立即可读。
+ */
+@Slf4j
+@Component
+public class CommentIngest {
+
+    private static final int MAX_BATCHES_PER_FLUSH = 16;
+
+    private final MockDataService mock;
+    private final long flushIntervalMs;
+    private final int batchSize;
+    private final int maxPending;
+    private final int maxLength;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder likes = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    public CommentIngest(MockDataService mock,
+                         @Value("${live.comments.flush-interval-ms:20}") long flushIntervalMs,
+                         @Value("${live.comments.batch-size:512}") int batchSize,
+                         @Value("${live.comments.max-pending:100000}") int maxPending,
+                         @Value("${live.comments.max-length:500}") int maxLength) {
+        this.mock = mock;
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.maxLength = maxLength;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "comment-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("评论写入: 周期 {}ms, 每批 {} 条, 队列上限 {}", flushIntervalMs, batchSize, maxPending);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        flushQuietly();
+    }
+
+    /**
+     * 提交评论，返回分配了 id 的评论（稍后可见）。
+     *
+     * @throws IllegalArgumentException 内容不存在或评论为空 / 过长
+     * @throws IllegalStateException    写入队列已满
+     */
+    public Comment submit(String contentId, String user, String text, String avatar) {
+        if (contentId == null || mock.getAIContent(contentId) == null) throw new IllegalArgumentException("内容不存在");
+        String t = text != null ? text.trim() : "";
+        if (t.isEmpty()) throw new IllegalArgumentException("评论内容不能为空");
+        if (t.length() > maxLength) throw new IllegalArgumentException("评论内容不能超过 " + maxLength + " 字");
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        Comment c = new Comment(new UUID(r.nextLong(), r.nextLong()).toString(),
+                user != null && !user.isBlank() ? user : "匿名用户", t,
+                avatar != null ? avatar : "👤", Instant.now(), 0);
+        if (!mock.submitComment(contentId, c, maxPending)) {
+            rejected.increment();
+            throw new IllegalStateException("评论过多，请稍后再试");
+        }
+        submitted.increment();
+        return c;
+    }
+
+    /** 点赞内容（commentId 为空）或评论，返回当前点赞数；目标不存在返回 -1 */
+    public long like(String contentId, String commentId) {
+        if (contentId == null) return -1;
+        long n = commentId == null || commentId.isEmpty()
+                ? mock.likeAIContent(contentId)
+                : mock.likeComment(contentId, commentId);
+        if (n >= 0) likes.increment();
+        return n;
+    }
+
+    void flushQuietly() {
+        try {
+            // 每轮最多写 MAX_BATCHES_PER_FLUSH 批评论，持续高峰下点赞增量也能按时落盘
+            for (int i = 0; i < MAX_BATCHES_PER_FLUSH; i++) {
+                int n = mock.flushComments(batchSize);
+                if (n > 0) batches.increment();
+                if (n < batchSize) break;
+            }
+            if (mock.flushLikes() > 0) batches.increment();
+        } catch (Exception e) {
+            log.warn("评论写入失败: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("submitted", submitted.sum());
+        data.put("rejected", rejected.sum());
+        data.put("pending", mock.getPendingComments());
+        data.put("likes", likes.sum());
+        data.put("batches", batches.sum());
+        data.put("flushIntervalMs", flushIntervalMs);
+        data.put("batchSize", batchSize);
+        return data;
+    }
+}
@@ -1,50 +1,121 @@
 package com.live.service;
 
+import com.live.metrics.LiveMetrics;
+import com.live.model.AIContent;
+import com.live.model.Comment;
+import com.live.model.FlowSegment;
+import com.live.model.StreamState;
+import com.live.model.UserInfo;
+import com.live.storage.Mutation;
+import com.live.storage.SnapshotCapture;
+import com.live.storage.StateSnapshot;
+import com.live.storage.StateStore;
 import lombok.Data;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
- * Mock 数据服务：内存状态，支持直播状态、投票、流、用户、辩题、AI 内容、辩论流程等
+ * Mock 数据服务：内存状态，支持直播状态、投票、流、用户、辩题、AI 内容、辩论流程等。
+ * 写操作统一转为 {@link Mutation} 经 {@link StateStore} 记录后生效，启动时由存储恢复。
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class MockDataService {
 
+    private final StateStore store;
+    private final VoteEventLog voteEvents;
+    private final LiveMetrics metrics;
+    private final StatsEngine stats;
+    private final Consumer<Mutation> applier = this::apply;
+
     /** 直播流列表 streamId -> StreamInfo */
     private final Map<String, StreamInfo> streams = new ConcurrentHashMap<>();
     /** 每流直播状态 streamId -> isLive */
     private final Map<String, Boolean> liveStatus = new ConcurrentHashMap<>();
-    /** 每流投票 streamId -> VoteState */
-    private final Map<String, VoteState> votes = new ConcurrentHashMap<>();
+    /** 每流投票计数器 streamId -> VoteCounter */
+    private final Map<String, VoteCounter> votes = new ConcurrentHashMap<>();
+    /** 其他节点的票数贡献 streamId -> (nodeId -> [left, right])，多节点部署时由集群同步更新，不持久化 */
+    private final Map<String, Map<String, long[]>> remoteVotes = new ConcurrentHashMap<>();
+    /** 全部流本节点票数之和 / 其他节点贡献之和，随每次计票增量维护，读取 O(1) */
+    private final VoteCounter localTotals = new VoteCounter();
+    private final VoteCounter remoteTotals = new VoteCounter();
+    /** 本节点直接设置票数后的回调（集群同步据此通知其他节点） */
+    private final List<BiConsumer<String, VoteState>> voteSetListeners = new CopyOnWriteArrayList<>();
+    /** 每流用户投票账本 streamId -> UserVoteLedger */
+    private final Map<String, UserVoteLedger> userVotes = new ConcurrentHashMap<>();
     /** 每流 AI 状态 streamId -> running|stopped|paused */
     private final Map<String, String> aiStatus = new ConcurrentHashMap<>();
-    /** 用户列表 */
-    private final List<Map<String, Object>> users = new ArrayList<>();
+    /** 用户目录（openid 索引 + 按注册时间 / 状态的有序索引） */
+    private final UserDirectory users = new UserDirectory();
     /** 辩题列表 debateId -> Debate */
     private final Map<String, DebateDto> debates = new ConcurrentHashMap<>();
     /** 流关联辩题 streamId -> debateId */
     private final Map<String, String> streamDebate = new ConcurrentHashMap<>();
-    /** AI 内容列表 */
-    private final List<Map<String, Object>> aiContents = new ArrayList<>();
+    /** AI 内容存储（id 索引 + 每流插入序索引） */
+    private final AIContentStore aiContents = new AIContentStore();
     private final AtomicInteger aiContentId = new AtomicInteger(1);
+    /** AI 内容的评论与点赞 */
+    private final CommentBoard comments = new CommentBoard();
     /** 辩论流程 streamId -> segments */
-    private final Map<String, List<Map<String, Object>>> debateFlow = new ConcurrentHashMap<>();
+    private final Map<String, List<FlowSegment>> debateFlow = new ConcurrentHashMap<>();
     /** 每流观看人数 */
     private final Map<String, Integer> viewers = new ConcurrentHashMap<>();
+    /** 状态版本：每次变更取全局递增序号，按资源类型分别记录（见 {@link Resource}） */
+    private final AtomicLong versionSeq = new AtomicLong();
+    private final Map<Resource, Versions> versions = new EnumMap<>(Resource.class);
+    {
+        for (Resource r : Resource.values()) versions.put(r, new Versions());
+    }
+    /** 每流状态快照缓存 streamId -> StreamState（按 id 排序），版本未变时直接复用 */
+    private final ConcurrentSkipListMap<String, StreamState> streamStates = new ConcurrentSkipListMap<>();
+    /** 自上次刷新以来有变更的流，多流快照只重读这些流 */
+    private final Set<String> staleStates = ConcurrentHashMap.newKeySet();
+    /**
+     * 流状态写保护（seqlock）：改变 StreamState 字段的写入连同版本推进在写锁内进行，
+     * 单流写入持该流所在分段的锁，不限于单流的写入持 globalGuard；读取见 {@link #getStreamState}。
+     * 投票计数不加锁：两边计数各自原子累加，版本在读取时推进
+     */
+    private final StampedLock[] stateGuards = new StampedLock[32];
+    {
+        for (int i = 0; i < stateGuards.length; i++) stateGuards[i] = new StampedLock();
+    }
+    private final StampedLock globalGuard = new StampedLock();
+    /** 进行中的快照采集，只在存储写锁内读写 */
+    private Capture capturing;
 
     @PostConstruct
     public void init() {
+        boolean restored = store.recover(this::restore, this::apply);
+        if (restored) {
+            streams.keySet().forEach(id -> viewers.putIfAbsent(id, 0));
+            log.info("状态已恢复: streams={}, debates={}, aiContents={}", streams.size(), debates.size(), aiContents.count(null));
+        } else {
+            seed();
+        }
+        staleStates.addAll(streams.keySet());
+        store.start(Capture::new);
+    }
+
+    private void seed() {
         // 默认一个直播流
         String stream1 = "stream-1";
         streams.put(stream1, new StreamInfo(stream1, "默认直播流", true, "rtmp://localhost/live/stream1", null));
         liveStatus.put(stream1, false);
-        votes.put(stream1, new VoteState(0, 0));
+        votes.put(stream1, new VoteCounter());
         aiStatus.put(stream1, "stopped");
         viewers.put(stream1, 0);
 
@@ -53,41 +124,35 @@ public class MockDataService {
                 "这是一个关于痛苦、成长与人性选择的深度辩论", "会按", "不会按", true));
         streamDebate.put(stream1, debateId);
 
-        users.add(Map.of(
-                "id", "owaF-13Ueukqwd_EFJqS-jDTI9-U",
-                "nickName", "微信用户",
-                "avatarUrl", "https://thirdwx.qlogo.cn/mmopen/vi_32/POgEwh4mIHO4nibH0KlMECNjjGxQUq24ZEaGT4poC6icRiccVGKSyXwibcPq4BWmiaIGuG1icwxaQX6grC9VemZoJ8rg/132",
-                "createdAt", "2025-11-17T07:06:24.322Z",
-                "updatedAt", "2025-11-17T07:06:24.324Z",
-                "totalVotes", 0,
-                "joinedDebates", 0,
-                "status", "active"
+        users.upsert(new UserInfo(
+                "owaF-13Ueukqwd_EFJqS-jDTI9-U",
+                "微信用户",
+                "https://thirdwx.qlogo.cn/mmopen/vi_32/POgEwh4mIHO4nibH0KlMECNjjGxQUq24ZEaGT4poC6icRiccVGKSyXwibcPq4BWmiaIGuG1icwxaQX6grC9VemZoJ8rg/132",
+                Instant.parse("2025-11-17T07:06:24.322Z"),
+                Instant.parse("2025-11-17T07:06:24.324Z"),
+                0,
+                0,
+                "active"
         ));
 
         // 默认辩论流程
         debateFlow.put(stream1, List.of(
-                Map.<String, Object>of("name", "正方发言", "duration", 180, "side", "left"),
-                Map.<String, Object>of("name", "反方质问", "duration", 120, "side", "right"),
-                Map.<String, Object>of("name", "反方发言", "duration", 180, "side", "right"),
-                Map.<String, Object>of("name", "正方质问", "duration", 120, "side", "left"),
-                Map.<String, Object>of("name", "自由辩论", "duration", 300, "side", "both"),
-                Map.<String, Object>of("name", "正方总结", "duration", 120, "side", "left"),
-                Map.<String, Object>of("name", "反方总结", "duration", 120, "side", "right")
+                new FlowSegment("正方发言", 180, "left"),
+                new FlowSegment("反方质问", 120, "right"),
+                new FlowSegment("反方发言", 180, "right"),
+                new FlowSegment("正方质问", 120, "left"),
+                new FlowSegment("自由辩论", 300, "both"),
+                new FlowSegment("正方总结", 120, "left"),
+                new FlowSegment("反方总结", 120, "right")
         ));
 
         addMockAIContent("这是一段 AI 识别的示例内容", stream1);
-        log.info("Mock 数据初始化完成: streams={}, debates={}, users={}", streams.size(), debates.size(), users.size());
+        log.info("Mock 数据初始化完成: streams={}, debates={}, users={}", streams.size(), debates.size(), users.count(null));
     }
 
     private void addMockAIContent(String text, String streamId) {
         String id = "ai-" + aiContentId.getAndIncrement();
-        Map<String, Object> c = new HashMap<>();
-        c.put("id", id);
-        c.put("contentText", text);
-        c.put("streamId", streamId);
-        c.put("createdAt", java.time.Instant.now().toString());
-        c.put("comments", new ArrayList<Map<String, Object>>());
-        aiContents.add(c);
+        aiContents.add(new AIContent(id, text, streamId, Instant.now()));
     }
 
     // ---------- Streams ----------
@@ -100,36 +165,32 @@ public class MockDataService {
     }
 
     public StreamInfo addStream(StreamInfo s) {
-        streams.put(s.getId(), s);
-        liveStatus.putIfAbsent(s.getId(), false);
-        votes.putIfAbsent(s.getId(), new VoteState(0, 0));
-        aiStatus.putIfAbsent(s.getId(), "stopped");
-        viewers.putIfAbsent(s.getId(), 0);
+        store.write(new Mutation.StreamPut(s), applier);
         return s;
     }
 
+    /** 流信息按副本整体替换（不原地修改），快照序列化时读到的总是完整版本 */
     public StreamInfo updateStream(String streamId, Map<String, Object> updates) {
-        StreamInfo s = streams.get(streamId);
-        if (s == null) return null;
+        StreamInfo cur = streams.get(streamId);
+        if (cur == null) return null;
+        StreamInfo s = cur.copy();
         if (updates.containsKey("name")) s.setName((String) updates.get("name"));
         if (updates.containsKey("enabled")) s.setEnabled((Boolean) updates.get("enabled"));
         if (updates.containsKey("pushUrl")) s.setPushUrl((String) updates.get("pushUrl"));
+        store.write(new Mutation.StreamPut(s), applier);
         return s;
     }
 
     public void deleteStream(String streamId) {
-        streams.remove(streamId);
-        liveStatus.remove(streamId);
-        votes.remove(streamId);
-        aiStatus.remove(streamId);
-        streamDebate.remove(streamId);
-        debateFlow.remove(streamId);
-        viewers.remove(streamId);
+        store.write(new Mutation.StreamDelete(streamId), applier);
     }
 
     public StreamInfo toggleStream(String streamId) {
-        StreamInfo s = streams.get(streamId);
-        if (s != null) s.setEnabled(!s.isEnabled());
+        StreamInfo cur = streams.get(streamId);
+        if (cur == null) return null;
+        StreamInfo s = cur.copy();
+        s.setEnabled(!s.isEnabled());
+        store.write(new Mutation.StreamPut(s), applier);
         return s;
     }
 
@@ -139,7 +200,7 @@ public class MockDataService {
     }
 
     public void setLive(String streamId, boolean live) {
-        liveStatus.put(streamId, live);
+        store.write(new Mutation.LiveSet(streamId, live), applier);
     }
 
     public String getAiStatus(String streamId) {
@@ -147,16 +208,172 @@ public class MockDataService {
     }
 
     public void setAiStatus(String streamId, String status) {
-        aiStatus.put(streamId, status);
+        store.write(new Mutation.AiStatusSet(streamId, status), applier);
     }
 
     // ---------- Votes ----------
+    /** 该流总票数：本节点计数 + 其他节点贡献 */
     public VoteState getVotes(String streamId) {
-        return votes.getOrDefault(streamId, new VoteState(0, 0));
+        VoteState local = getLocalVotes(streamId);
+        Map<String, long[]> remote = remoteVotes.get(streamId);
+        if (remote == null || remote.isEmpty()) return local;
+        long left = local.getLeftVotes(), right = local.getRightVotes();
+        for (long[] v : remote.values()) {
+            left += v[0];
+            right += v[1];
+        }
+        return VoteState.of(left, right);
     }
 
+    /** 全部流的总票数（含其他节点贡献），O(1) */
+    public VoteState getVoteTotals() {
+        return VoteState.of(localTotals.left() + remoteTotals.left(), localTotals.right() + remoteTotals.right());
+    }
+
+    /** 本节点计入的票数（不含其他节点贡献） */
+    public VoteState getLocalVotes(String streamId) {
+        VoteCounter c = votes.get(streamId);
+        return c != null ? c.snapshot() : new VoteState(0, 0);
+    }
+
+    /**
+     * 直接设置票数；事件日志中记为与设置前的差值（设置前的值在重置时原子取得，并发投票不会使差值失真）。
+     * 多节点部署时其他节点的贡献随之清零
+     */
     public void setVotes(String streamId, int left, int right) {
-        votes.put(streamId, new VoteState(left, right));
+        long[] before = new long[2];
+        store.write(new Mutation.VoteSet(streamId, left, right), m -> writeGuarded(streamId, () -> {
+            long[] local = applyVoteSet((Mutation.VoteSet) m);
+            before[0] = local[0];
+            before[1] = local[1];
+            Map<String, long[]> remote = remoteVotes.get(streamId);
+            if (remote != null) {
+                for (long[] v : remote.values()) {
+                    before[0] += v[0];
+                    before[1] += v[1];
+                }
+            }
+            touch(streamId, Resource.VOTES);
+        }));
+        voteEvents.record(streamId, (int) (left - before[0]), (int) (right - before[1]), null);
+        VoteState after = new VoteState(left, right);
+        voteSetListeners.forEach(l -> l.accept(streamId, after));
+    }
+
+    public void onVotesSet(BiConsumer<String, VoteState> listener) {
+        voteSetListeners.add(listener);
+    }
+
+    /** 其他节点设置了票数：本节点计数清零（由设置方的贡献代表总数），不触发 onVotesSet */
+    public void resetLocalVotes(String streamId) {
+        store.write(new Mutation.VoteSet(streamId, 0, 0), applier);
+    }
+
+    /** 记录节点 nodeId 对该流的票数贡献，返回是否有变化 */
+    public boolean setRemoteVotes(String nodeId, String streamId, long left, long right) {
+        boolean[] changed = new boolean[1];
+        writeGuarded(streamId, () -> {
+            Map<String, long[]> remote = remoteVotes.computeIfAbsent(streamId, k -> new ConcurrentHashMap<>());
+            long[] old = remote.put(nodeId, new long[]{left, right});
+            changed[0] = old == null || old[0] != left || old[1] != right;
+            remoteTotals.add(left - (old != null ? old[0] : 0), right - (old != null ? old[1] : 0));
+            if (changed[0]) touch(streamId, Resource.VOTES);
+        });
+        return changed[0];
+    }
+
+    /** 清除其他节点对该流的全部贡献 */
+    public void clearRemoteVotes(String streamId) {
+        writeGuarded(streamId, () -> {
+            if (dropRemoteVotes(streamId)) touch(streamId, Resource.VOTES);
+        });
+    }
+
+    private boolean dropRemoteVotes(String streamId) {
+        Map<String, long[]> remote = remoteVotes.remove(streamId);
+        if (remote == null) return false;
+        remote.values().forEach(v -> remoteTotals.add(-v[0], -v[1]));
+        return true;
+    }
+
+    /** 原子累加票数，并发投票不丢失 */
+    public void addVotes(String streamId, int leftDelta, int rightDelta) {
+        addVotes(streamId, leftDelta, rightDelta, null);
+    }
+
+    /** 原子累加票数并记录投票事件；userId 可为空 */
+    public void addVotes(String streamId, int leftDelta, int rightDelta, String userId) {
+        store.write(new Mutation.VoteAdd(streamId, leftDelta, rightDelta), applier);
+        voteEvents.record(streamId, leftDelta, rightDelta, userId);
+        metrics.recordVotes(streamId, leftDelta, rightDelta);
+    }
+
+    /**
+     * 用户投票：把该用户在此流的分配更新为 (left, right)，计票只累加与上次分配的差值；
+     * 重复提交相同分配不改变票数。返回打包增量（见 {@link UserVoteLedger#left(long)}）
+     */
+    public long castUserVote(String streamId, String userId, int left, int right) {
+        long[] delta = new long[1];
+        store.write(new Mutation.UserVote(streamId, userId, left, right), m -> delta[0] = applyUserVote((Mutation.UserVote) m));
+        voteEvents.record(streamId, UserVoteLedger.left(delta[0]), UserVoteLedger.right(delta[0]), userId);
+        if (delta[0] != 0) metrics.recordVotes(streamId, UserVoteLedger.left(delta[0]), UserVoteLedger.right(delta[0]));
+        return delta[0];
+    }
+
+    public int getVotersCount(String streamId) {
+        UserVoteLedger l = userVotes.get(streamId);
+        return l != null ? l.size() : 0;
+    }
+
+    private long applyUserVote(Mutation.UserVote v) {
+        long key = UserVoteLedger.key(v.userId());
+        long prev = userVotes.computeIfAbsent(v.streamId(), k -> new UserVoteLedger()).exchange(key, v.left(), v.right());
+        long delta = UserVoteLedger.delta(prev, v.left(), v.right());
+        if (capturing != null) capturing.ledger(v.streamId(), key);
+        if (delta != 0) {
+            int dl = UserVoteLedger.left(delta), dr = UserVoteLedger.right(delta);
+            countVotes(v.streamId(), dl, dr);
+            // 该流首次有非零分配视为新参与一场辩论（账本条目上的参与标记，改回 0 票后再投不重复计）
+            users.addCounts(v.userId(), dl + dr, UserVoteLedger.joins(prev, v.left(), v.right()) ? 1 : 0);
+            if (capturing != null) capturing.users.add(v.userId());
+        }
+        return delta;
+    }
+
+    /** 票数被直接设置后，用户之前的分配不再计入，重新开始记账；返回本节点重置前的 [left, right] */
+    private long[] applyVoteSet(Mutation.VoteSet v) {
+        long[] before = voteCounter(v.streamId()).reset(v.left(), v.right());
+        // 与计数器累加的是同一差值，合计不随并发投票漂移
+        localTotals.add(v.left() - before[0], v.right() - before[1]);
+        UserVoteLedger ledger = userVotes.get(v.streamId());
+        if (ledger != null) ledger.clear();
+        if (capturing != null) capturing.ledger(v.streamId(), null);
+        return before;
+    }
+
+    /** 投票路径：累加计数，不推进版本，只在计数器首次出现未确认变更时标记（版本在读取时推进，见 {@link #getVersion}） */
+    private void countVotes(String streamId, int leftDelta, int rightDelta) {
+        VoteCounter c = voteCounter(streamId);
+        c.add(leftDelta, rightDelta);
+        localTotals.add(leftDelta, rightDelta);
+        if (c.markChanged()) staleStates.add(streamId);
+    }
+
+    private VoteCounter voteCounter(String streamId) {
+        VoteCounter c = votes.get(streamId);
+        return c != null ? c : votes.computeIfAbsent(streamId, k -> new VoteCounter());
+    }
+
+    public List<Map<String, Object>> getVoteTimeline(String streamId, String granularity, long fromMillis, long toMillis) {
+        return voteEvents.timeline(streamId, granularity, fromMillis, toMillis);
+    }
+
+    public Map<String, Object> getVoteEvents(String streamId, long afterSeq, long fromMillis, long toMillis, int limit) {
+        return voteEvents.events(streamId, afterSeq, fromMillis, toMillis, limit);
+    }
+
+    public Map<String, Object> getVoteEventStats() {
+        return voteEvents.stats();
     }
 
     // ---------- Viewers ----------
@@ -169,19 +386,172 @@ public class MockDataService {
     }
 
     public void setViewers(String streamId, int count) {
-        viewers.put(streamId, count);
+        writeGuarded(streamId, () -> {
+            viewers.put(streamId, count);
+            touch(streamId, Resource.STREAM);
+        });
+        stats.recordViewers(System.currentTimeMillis(), streamId, count);
+    }
+
+    /**
+     * 该流状态版本：流的任何变更后增大，可作为响应缓存 / ETag 的失效依据。
+     * streamId 为空时返回全局版本（任意流变更都会增大）
+     */
+    public long getVersion(String streamId) {
+        long v = 0;
+        for (Resource r : Resource.values()) v = Math.max(v, getVersion(streamId, r));
+        return v;
+    }
+
+    /**
+     * 该流某类资源的版本，只随该类资源的变更增大；streamId 为空时为任意流该类资源变更后的版本。
+     * 票数版本在读取时推进：投票路径只标记计数器有变更，这里取走标记并取新序号，
+     * 标记先于计数读取被取走，之后的投票会重新标记，版本不会落后于随后读到的票数
+     */
+    public long getVersion(String streamId, Resource resource) {
+        if (resource == Resource.VOTES) {
+            if (streamId == null) votes.forEach(this::claimVotes);
+            else {
+                VoteCounter c = votes.get(streamId);
+                if (c != null) claimVotes(streamId, c);
+            }
+        }
+        return versions.get(resource).get(streamId);
+    }
+
+    private void claimVotes(String streamId, VoteCounter c) {
+        if (c.claimChanged()) versions.get(Resource.VOTES).touch(streamId);
+    }
+
+    /**
+     * 流状态版本：只随 {@link StreamState} 涉及的资源（流信息与观看人数、辩题、票数）变更增大，AI 内容变更不影响；
+     * streamId 为空时为任意流上述资源变更后的版本
+     */
+    public long getStateVersion(String streamId) {
+        return Math.max(getVersion(streamId, Resource.STREAM),
+                Math.max(getVersion(streamId, Resource.TOPIC), getVersion(streamId, Resource.VOTES)));
+    }
+
+    /**
+     * 该流的状态快照；流不存在返回 null。版本未变时直接返回缓存，否则重新读取：
+     * 先乐观读（不加锁），期间有写入（写锁被持有过）则持读锁重读，各字段与 version 来自同一次写入之后的状态。
+     */
+    public StreamState getStreamState(String streamId) {
+        StreamState cached = streamStates.get(streamId);
+        if (cached != null && cached.version() == getStateVersion(streamId) && streams.containsKey(streamId)) return cached;
+        StampedLock guard = stateGuard(streamId);
+        StreamState s = null;
+        boolean valid = false;
+        long gs = globalGuard.tryOptimisticRead();
+        long ss = guard.tryOptimisticRead();
+        if (gs != 0 && ss != 0) {
+            s = readStreamState(streamId);
+            valid = globalGuard.validate(gs) && guard.validate(ss);
+        }
+        if (!valid) {
+            long gr = globalGuard.readLock();
+            long sr = guard.readLock();
+            try {
+                s = readStreamState(streamId);
+            } finally {
+                guard.unlockRead(sr);
+                globalGuard.unlockRead(gr);
+            }
+        }
+        if (s == null) {
+            streamStates.remove(streamId);
+            return null;
+        }
+        streamStates.merge(streamId, s, (a, b) -> a.version() >= b.version() ? a : b);
+        return s;
+    }
+
+    /**
+     * 多个流的状态快照，按 streamId 排序；streamIds 为空时返回全部流，不存在的流跳过。
+     * 只重读上次以来有变更的流，其余直接取缓存，开销与有变更的流数相关、不随总流数增长重读。
+     */
+    public List<StreamState> getStreamStates(Collection<String> streamIds) {
+        for (Iterator<String> it = staleStates.iterator(); it.hasNext(); ) {
+            String id = it.next();
+            // 先移除再读取：读取期间的新变更会重新标记
+            it.remove();
+            getStreamState(id);
+        }
+        if (streamIds == null || streamIds.isEmpty()) return new ArrayList<>(streamStates.values());
+        List<StreamState> list = new ArrayList<>(streamIds.size());
+        for (String id : new TreeSet<>(streamIds)) {
+            StreamState s = streamStates.get(id);
+            if (s != null) list.add(s);
+        }
+        return list;
+    }
+
+    private StreamState readStreamState(String streamId) {
+        // 先取版本（同时取走票数变更标记）再读字段：之后的投票会推进版本，缓存不会停在旧票数上
+        long version = getStateVersion(streamId);
+        StreamInfo info = streams.get(streamId);
+        if (info == null) return null;
+        VoteState v = getVotes(streamId);
+        DebateDto d = getStreamDebate(streamId);
+        return new StreamState(streamId, info.getName(), info.isEnabled(), isLive(streamId), getAiStatus(streamId),
+                v.getLeftVotes(), v.getRightVotes(), getViewers(streamId), getVotersCount(streamId),
+                d != null ? d.getId() : null, d != null ? d.getTitle() : null,
+                d != null ? d.getLeftPosition() : null, d != null ? d.getRightPosition() : null, version);
+    }
+
+    private StampedLock stateGuard(String streamId) {
+        int h = streamId.hashCode();
+        return stateGuards[(h ^ (h >>> 16)) & (stateGuards.length - 1)];
+    }
+
+    /** 在流状态写锁内执行改变 StreamState 字段的写入；streamId 为空时持全局写锁 */
+    private void writeGuarded(String streamId, Runnable write) {
+        StampedLock guard = streamId != null ? stateGuard(streamId) : globalGuard;
+        long stamp = guard.writeLock();
+        try {
+            write.run();
+        } finally {
+            guard.unlockWrite(stamp);
+        }
+    }
+
+    private void touch(String streamId, Resource resource) {
+        versions.get(resource).touch(streamId);
+        if (streamId != null) staleStates.add(streamId);
+        else staleStates.addAll(streams.keySet());
     }
 
     // ---------- Users ----------
-    public List<Map<String, Object>> getUsers(int page, int pageSize) {
-        int from = (page - 1) * pageSize;
-        int to = Math.min(from + pageSize, users.size());
-        if (from >= users.size()) return List.of();
-        return new ArrayList<>(users.subList(from, to));
+    /** 页码分页（新注册在前）；status 为空时不过滤 */
+    public List<UserInfo> getUsers(String status, int page, int pageSize) {
+        return users.page(status, page, pageSize);
+    }
+
+    /** 游标分页：cursor 为上一页返回的 nextCursor */
+    public UserDirectory.CursorPage getUsersAfter(String status, String cursor, int limit) {
+        return users.pageAfter(status, cursor, limit);
     }
 
     public int getUsersTotal() {
-        return users.size();
+        return users.count(null);
+    }
+
+    public int getUsersTotal(String status) {
+        return users.count(status);
+    }
+
+    public UserInfo getUser(String openid) {
+        return users.get(openid);
+    }
+
+    /** 新增或更新用户资料（按 openid），返回更新后的用户；已有用户保留注册时间与计数 */
+    public UserInfo putUser(UserInfo user) {
+        UserInfo[] saved = new UserInfo[1];
+        store.write(new Mutation.UserPut(user), m -> {
+            saved[0] = users.upsert(user);
+            if (capturing != null) capturing.users.add(user.id());
+        });
+        return saved[0];
     }
 
     // ---------- Debate ----------
@@ -199,68 +569,454 @@ public class MockDataService {
     }
 
     public DebateDto createDebate(DebateDto d) {
-        debates.put(d.getId(), d);
+        store.write(new Mutation.DebatePut(d), applier);
         return d;
     }
 
     public DebateDto updateDebate(String debateId, DebateDto d) {
-        debates.put(debateId, d);
+        store.write(new Mutation.DebatePut(d), applier);
         return d;
     }
 
     public void associateStreamDebate(String streamId, String debateId) {
-        streamDebate.put(streamId, debateId);
+        store.write(new Mutation.StreamDebateSet(streamId, debateId), applier);
     }
 
     public void removeStreamDebate(String streamId) {
-        streamDebate.remove(streamId);
+        store.write(new Mutation.StreamDebateSet(streamId, null), applier);
     }
 
     // ---------- AI Content ----------
-    public List<Map<String, Object>> getAIContents(int page, int pageSize, String streamId) {
-        List<Map<String, Object>> list = streamId == null ? new ArrayList<>(aiContents)
-                : aiContents.stream().filter(c -> streamId.equals(c.get("streamId"))).toList();
-        int from = (page - 1) * pageSize;
-        int to = Math.min(from + pageSize, list.size());
-        if (from >= list.size()) return List.of();
-        return new ArrayList<>(list.subList(from, to));
+    public List<AIContent> getAIContents(int page, int pageSize, String streamId) {
+        return aiContents.page(streamId, page, pageSize);
+    }
+
+    /** 游标分页：cursor 为上一页返回的 nextCursor */
+    public AIContentStore.CursorPage getAIContentsAfter(String streamId, String cursor, int limit) {
+        return aiContents.pageAfter(streamId, cursor, limit);
     }
 
     public int getAIContentsTotal(String streamId) {
-        if (streamId == null) return aiContents.size();
-        return (int) aiContents.stream().filter(c -> streamId.equals(c.get("streamId"))).count();
+        return aiContents.count(streamId);
+    }
+
+    public AIContent getAIContent(String contentId) {
+        return aiContents.get(contentId);
+    }
+
+    public List<Comment> getAIContentComments(String contentId, int page, int pageSize) {
+        return comments.page(contentId, page, pageSize);
+    }
+
+    /** 评论游标分页：cursor 为上一页返回的 nextCursor */
+    public CommentBoard.CursorPage getAIContentCommentsAfter(String contentId, String cursor, int limit) {
+        return comments.pageAfter(contentId, cursor, limit);
+    }
+
+    public int getCommentCount(String contentId) {
+        return comments.count(contentId);
+    }
+
+    /** 提交评论：进入写入队列，由 {@link #flushComments(int)} 成批持久化后可见；队列已满返回 false */
+    public boolean submitComment(String contentId, Comment comment, int maxPending) {
+        return comments.submit(contentId, comment, maxPending);
+    }
+
+    public int getPendingComments() {
+        return comments.pendingComments();
+    }
+
+    /** 把最多 max 条待写入评论作为一条变更写入存储，返回写入条数 */
+    public int flushComments(int max) {
+        Map<String, List<Comment>> batch = comments.drainComments(max);
+        batch.keySet().removeIf(id -> aiContents.get(id) == null);
+        if (batch.isEmpty()) return 0;
+        store.write(new Mutation.CommentsAdd(batch), applier);
+        long now = System.currentTimeMillis();
+        int n = 0;
+        for (Map.Entry<String, List<Comment>> e : batch.entrySet()) {
+            AIContent content = aiContents.get(e.getKey());
+            stats.recordComments(now, content != null ? content.streamId() : null, e.getValue().size());
+            n += e.getValue().size();
+        }
+        return n;
+    }
+
+    /** 把累计的点赞增量作为一条变更写入存储，返回涉及的计数器个数；已删除的内容 / 评论的增量丢弃 */
+    public int flushLikes() {
+        Map<String, Long> deltas = comments.drainLikes(id -> aiContents.get(id) != null);
+        if (deltas.isEmpty()) return 0;
+        // 内存计数已包含这些增量，写入时只推进已持久化值；回放时经 apply 累加
+        store.write(new Mutation.LikesAdd(deltas), m -> {
+            comments.markLikesPersisted(deltas);
+            if (capturing != null) capturing.likes(deltas.keySet());
+        });
+        return deltas.size();
+    }
+
+    /** 内容点赞，返回当前点赞数；内容不存在返回 -1 */
+    public long likeAIContent(String contentId) {
+        return aiContents.get(contentId) != null ? comments.likeContent(contentId) : -1;
+    }
+
+    /** 评论点赞，返回当前点赞数；评论不存在返回 -1 */
+    public long likeComment(String contentId, String commentId) {
+        return comments.likeComment(contentId, commentId);
+    }
+
+    public long getAIContentLikes(String contentId) {
+        return comments.contentLikes(contentId);
     }
 
-    public Map<String, Object> getAIContent(String contentId) {
-        return aiContents.stream().filter(c -> contentId.equals(c.get("id"))).findFirst().orElse(null);
+    /** 取出自上次调用以来点赞数或评论数有变化的内容（可能含已删除的内容）；只由热点推送线程调用 */
+    public Map<String, CommentBoard.Change> drainEngagementChanges() {
+        return comments.drainChanged();
     }
 
-    public List<Map<String, Object>> getAIContentComments(String contentId, int page, int pageSize) {
-        Map<String, Object> content = getAIContent(contentId);
-        if (content == null) return List.of();
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> comments = (List<Map<String, Object>>) content.getOrDefault("comments", List.of());
-        int from = (page - 1) * pageSize;
-        int to = Math.min(from + pageSize, comments.size());
-        if (from >= comments.size()) return List.of();
-        return new ArrayList<>(comments.subList(from, to));
+    /** 删除评论，返回是否存在 */
+    public boolean deleteComment(String contentId, String commentId) {
+        boolean[] removed = new boolean[1];
+        store.write(new Mutation.CommentDelete(contentId, commentId), m -> {
+            removed[0] = comments.remove(contentId, commentId);
+            if (capturing != null) capturing.comments.add(contentId);
+        });
+        return removed[0];
     }
 
     public void deleteAIContent(String contentId) {
-        aiContents.removeIf(c -> contentId.equals(c.get("id")));
+        store.write(new Mutation.AIContentDelete(contentId), applier);
     }
 
-    public void addAIContent(Map<String, Object> content) {
-        aiContents.add(0, content);
+    public void addAIContent(AIContent content) {
+        store.write(new Mutation.AIContentAdd(content), applier);
     }
 
     // ---------- Debate Flow ----------
-    public List<Map<String, Object>> getDebateFlow(String streamId) {
+    public List<FlowSegment> getDebateFlow(String streamId) {
         return debateFlow.getOrDefault(streamId, List.of());
     }
 
-    public void setDebateFlow(String streamId, List<Map<String, Object>> segments) {
-        debateFlow.put(streamId, segments);
+    public void setDebateFlow(String streamId, List<FlowSegment> segments) {
+        store.write(new Mutation.FlowSet(streamId, List.copyOf(segments)), applier);
+    }
+
+    // ---------- Storage ----------
+    public Map<String, Object> getStorageStats() {
+        return store.stats();
+    }
+
+    /** 使一条变更在内存中生效；写入与日志回放共用。改变 StreamState 字段的变更在流状态写锁内进行 */
+    private void apply(Mutation m) {
+        if (changesStreamState(m)) writeGuarded(m.streamId(), () -> applyMutation(m));
+        else applyMutation(m);
+    }
+
+    private static boolean changesStreamState(Mutation m) {
+        return m instanceof Mutation.VoteSet || m instanceof Mutation.StreamPut || m instanceof Mutation.StreamDelete
+                || m instanceof Mutation.LiveSet || m instanceof Mutation.AiStatusSet
+                || m instanceof Mutation.DebatePut || m instanceof Mutation.StreamDebateSet;
+    }
+
+    private void applyMutation(Mutation m) {
+        Resource resource = Resource.STREAM;
+        if (m instanceof Mutation.VoteAdd v) {
+            countVotes(v.streamId(), v.leftDelta(), v.rightDelta());
+            return;
+        } else if (m instanceof Mutation.VoteSet v) {
+            applyVoteSet(v);
+            resource = Resource.VOTES;
+        } else if (m instanceof Mutation.UserVote v) {
+            applyUserVote(v);
+            return;
+        } else if (m instanceof Mutation.StreamPut p) {
+            StreamInfo s = p.stream();
+            streams.put(s.getId(), s);
+            liveStatus.putIfAbsent(s.getId(), false);
+            votes.putIfAbsent(s.getId(), new VoteCounter());
+            aiStatus.putIfAbsent(s.getId(), "stopped");
+            viewers.putIfAbsent(s.getId(), 0);
+        } else if (m instanceof Mutation.StreamDelete d) {
+            String id = d.streamId();
+            streams.remove(id);
+            liveStatus.remove(id);
+            VoteCounter c = votes.remove(id);
+            if (c != null) localTotals.add(-c.left(), -c.right());
+            userVotes.remove(id);
+            if (capturing != null) capturing.ledger(id, null);
+            dropRemoteVotes(id);
+            aiStatus.remove(id);
+            streamDebate.remove(id);
+            debateFlow.remove(id);
+            viewers.remove(id);
+            streamStates.remove(id);
+            // 流删除后各类资源都已变化
+            for (Resource r : Resource.values()) versions.get(r).touch(id);
+        } else if (m instanceof Mutation.LiveSet l) {
+            liveStatus.put(l.streamId(), l.live());
+        } else if (m instanceof Mutation.AiStatusSet a) {
+            aiStatus.put(a.streamId(), a.status());
+        } else if (m instanceof Mutation.DebatePut p) {
+            debates.put(p.debate().getId(), p.debate());
+            resource = Resource.TOPIC;
+        } else if (m instanceof Mutation.StreamDebateSet sd) {
+            if (sd.debateId() != null) streamDebate.put(sd.streamId(), sd.debateId());
+            else streamDebate.remove(sd.streamId());
+            resource = Resource.TOPIC;
+        } else if (m instanceof Mutation.FlowSet f) {
+            debateFlow.put(f.streamId(), f.segments());
+        } else if (m instanceof Mutation.AIContentAdd a) {
+            aiContents.add(a.content());
+            bumpAIContentId(a.content().id());
+            if (capturing != null) capturing.content(a.content().id());
+            resource = Resource.CONTENT;
+        } else if (m instanceof Mutation.AIContentDelete d) {
+            aiContents.remove(d.contentId());
+            comments.removeContent(d.contentId());
+            if (capturing != null) capturing.content(d.contentId());
+            resource = Resource.CONTENT;
+        } else if (m instanceof Mutation.CommentsAdd c) {
+            c.comments().forEach((contentId, list) -> list.forEach(comment -> comments.add(contentId, comment)));
+            if (capturing != null) capturing.comments.addAll(c.comments().keySet());
+            // 评论 / 点赞不在缓存的响应中，不推进版本
+            return;
+        } else if (m instanceof Mutation.CommentDelete d) {
+            comments.remove(d.contentId(), d.commentId());
+            if (capturing != null) capturing.comments.add(d.contentId());
+            return;
+        } else if (m instanceof Mutation.LikesAdd l) {
+            comments.replayLikes(l.deltas(), id -> aiContents.get(id) != null);
+            if (capturing != null) capturing.likes(l.deltas().keySet());
+            return;
+        } else if (m instanceof Mutation.UserPut u) {
+            users.upsert(u.user());
+            if (capturing != null) capturing.users.add(u.user().id());
+            // 用户不在缓存的响应中，不推进版本
+            return;
+        }
+        touch(m.streamId(), resource);
+    }
+
+    /** 回放外部写入的 ai-N 时推进自增 id，避免重启后 id 冲突 */
+    private void bumpAIContentId(String id) {
+        if (id == null || !id.startsWith("ai-")) return;
+        try {
+            int n = Integer.parseInt(id.substring(3));
+            aiContentId.accumulateAndGet(n + 1, Math::max);
+        } catch (NumberFormatException ignored) {
+            // 非自增 id
+        }
+    }
+
+    private void restore(StateSnapshot s) {
+        s.streams().forEach(st -> streams.put(st.getId(), st));
+        liveStatus.putAll(s.liveStatus());
+        s.votes().forEach((id, v) -> {
+            voteCounter(id).reset(v.getLeftVotes(), v.getRightVotes());
+            localTotals.add(v.getLeftVotes(), v.getRightVotes());
+        });
+        aiStatus.putAll(s.aiStatus());
+        s.debates().forEach(d -> debates.put(d.getId(), d));
+        streamDebate.putAll(s.streamDebate());
+        s.aiContents().forEach(aiContents::add);
+        aiContentId.set(s.nextAIContentId());
+        s.debateFlow().forEach((id, segs) -> debateFlow.put(id, List.copyOf(segs)));
+        s.users().forEach(users::load);
+        if (s.userVotes() != null) {
+            s.userVotes().forEach((id, entries) -> userVotes.computeIfAbsent(id, k -> new UserVoteLedger()).load(entries));
+        }
+        if (s.comments() != null) s.comments().forEach((id, list) -> list.forEach(c -> comments.add(id, c)));
+        if (s.contentLikes() != null) comments.restoreContentLikes(s.contentLikes());
+        if (s.stats() != null) stats.restore(s.stats());
+    }
+
+    /**
+     * 快照采集（见 {@link SnapshotCapture}）：用户、AI 内容、评论、点赞与投票账本在写锁外读取，
+     * begin 之后变更涉及的条目在 seal 时补读并覆盖；其余集合较小，seal 时整体复制；统计不要求精确，写锁外读取
+     */
+    private final class Capture implements SnapshotCapture {
+        private static final Set<Long> WHOLE_LEDGER = Set.of();
+
+        // begin 之后变更过的条目，在写锁内写入；投票只持有所在分段的锁，users 与 ledgers 可能被并发写入
+        private final Set<String> users = ConcurrentHashMap.newKeySet();
+        /** 按最后一次变更的先后，与 AI 内容的插入序一致 */
+        private final Set<String> contents = new LinkedHashSet<>();
+        private final Set<String> comments = new HashSet<>();
+        private final Set<String> contentLikes = new HashSet<>();
+        /** streamId -> 变更过的用户 key；值为 WHOLE_LEDGER 表示整个账本需重读 */
+        private final Map<String, Set<Long>> ledgers = new ConcurrentHashMap<>();
+
+        // read：写锁外读取的结果
+        private List<UserInfo> userList;
+        private List<AIContent> contentList;
+        private Map<String, List<Comment>> commentMap;
+        private Map<String, Long> likeMap;
+        private final Map<String, long[]> ledgerMap = new HashMap<>();
+        private StatsEngine.Export statsExport;
+
+        // seal：补读的条目与整体复制的小集合
+        private final List<UserInfo> sealedUsers = new ArrayList<>();
+        private final List<AIContent> sealedContents = new ArrayList<>();
+        private final Map<String, List<Comment>> sealedComments = new HashMap<>();
+        private final Map<String, Long> sealedLikes = new HashMap<>();
+        /** 整个账本的导出，null 表示账本已删除 */
+        private final Map<String, long[]> sealedLedgers = new HashMap<>();
+        /** streamId -> (用户 key -> 分配)，分配为 null 表示该用户已无分配 */
+        private final Map<String, Map<Long, Long>> sealedEntries = new HashMap<>();
+        private StateSnapshot sealed;
+
+        void content(String id) {
+            contents.remove(id);
+            contents.add(id);
+            comments.add(id);
+            contentLikes.add(id);
+        }
+
+        void likes(Collection<String> keys) {
+            for (String key : keys) {
+                int slash = key.indexOf('/');
+                if (slash < 0) contentLikes.add(key);
+                else comments.add(key.substring(0, slash));
+            }
+        }
+
+        /** key 为 null 表示整个账本 */
+        void ledger(String streamId, Long key) {
+            if (key == null) {
+                ledgers.put(streamId, WHOLE_LEDGER);
+                return;
+            }
+            Set<Long> keys = ledgers.computeIfAbsent(streamId, k -> ConcurrentHashMap.newKeySet());
+            if (keys != WHOLE_LEDGER) keys.add(key);
+        }
+
+        @Override
+        public void begin() {
+            capturing = this;
+        }
+
+        @Override
+        public void read() {
+            userList = MockDataService.this.users.all();
+            contentList = aiContents.all();
+            commentMap = MockDataService.this.comments.exportComments();
+            likeMap = MockDataService.this.comments.exportContentLikes();
+            userVotes.forEach((id, l) -> ledgerMap.put(id, l.export()));
+            statsExport = stats.export();
+        }
+
+        @Override
+        public void seal() {
+            capturing = null;
+            if (userList == null) return;
+            for (String id : users) {
+                UserInfo u = MockDataService.this.users.get(id);
+                if (u != null) sealedUsers.add(u);
+            }
+            for (String id : contents) {
+                AIContent c = aiContents.get(id);
+                if (c != null) sealedContents.add(c);
+            }
+            for (String id : comments) sealedComments.put(id, MockDataService.this.comments.exportComments(id));
+            for (String id : contentLikes) sealedLikes.put(id, MockDataService.this.comments.exportContentLikes(id));
+            ledgers.forEach((id, keys) -> {
+                UserVoteLedger l = userVotes.get(id);
+                if (keys == WHOLE_LEDGER) {
+                    sealedLedgers.put(id, l != null ? l.export() : null);
+                } else {
+                    Map<Long, Long> entries = new HashMap<>();
+                    for (long key : keys) entries.put(key, l != null ? l.find(key) : null);
+                    sealedEntries.put(id, entries);
+                }
+            });
+            Map<String, VoteState> voteStates = new HashMap<>();
+            votes.forEach((id, c) -> voteStates.put(id, c.snapshot()));
+            sealed = new StateSnapshot(
+                    new ArrayList<>(streams.values()),
+                    new HashMap<>(liveStatus),
+                    voteStates,
+                    new HashMap<>(aiStatus),
+                    new ArrayList<>(debates.values()),
+                    new HashMap<>(streamDebate),
+                    null,
+                    aiContentId.get(),
+                    new HashMap<>(debateFlow),
+                    null, null, null, null, null);
+        }
+
+        @Override
+        public StateSnapshot build() {
+            List<UserInfo> userOut = new ArrayList<>(userList.size() + sealedUsers.size());
+            for (UserInfo u : userList) if (!users.contains(u.id())) userOut.add(u);
+            userOut.addAll(sealedUsers);
+            List<AIContent> contentOut = new ArrayList<>(contentList.size() + sealedContents.size());
+            for (AIContent c : contentList) if (!contents.contains(c.id())) contentOut.add(c);
+            contentOut.addAll(sealedContents);
+            sealedComments.forEach((id, list) -> {
+                if (list.isEmpty()) commentMap.remove(id);
+                else commentMap.put(id, list);
+            });
+            sealedLikes.forEach((id, n) -> {
+                if (n == 0) likeMap.remove(id);
+                else likeMap.put(id, n);
+            });
+            sealedLedgers.forEach((id, entries) -> {
+                if (entries == null) ledgerMap.remove(id);
+                else ledgerMap.put(id, entries);
+            });
+            sealedEntries.forEach((id, entries) -> ledgerMap.put(id, patch(ledgerMap.get(id), entries)));
+            return new StateSnapshot(sealed.streams(), sealed.liveStatus(), sealed.votes(), sealed.aiStatus(),
+                    sealed.debates(), sealed.streamDebate(), contentOut, sealed.nextAIContentId(), sealed.debateFlow(),
+                    userOut, ledgerMap, commentMap, likeMap, statsExport);
+        }
+
+        /** 账本导出 [key, packed, ...] 中替换 entries 涉及的用户 */
+        private static long[] patch(long[] base, Map<Long, Long> entries) {
+            long[] in = base != null ? base : new long[0];
+            long[] out = new long[in.length + entries.size() * 2];
+            int n = 0;
+            for (int i = 0; i + 1 < in.length; i += 2) {
+                if (entries.containsKey(in[i])) continue;
+                out[n++] = in[i];
+                out[n++] = in[i + 1];
+            }
+            for (Map.Entry<Long, Long> e : entries.entrySet()) {
+                if (e.getValue() == null) continue;
+                out[n++] = e.getKey();
+                out[n++] = e.getValue();
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    /** 版本按资源类型区分：某类资源变更只使依赖它的缓存失效 */
+    public enum Resource {
+        /** 流信息、直播 / AI 状态、观看人数、辩论流程 */
+        STREAM,
+        /** 辩题及流与辩题的关联 */
+        TOPIC,
+        /** AI 内容（不含评论与点赞） */
+        CONTENT,
+        /** 票数 */
+        VOTES
+    }
+
+    /** 一类资源的版本：记到受影响的流上，不限于单流的变更记到 global；latest 为该类资源的最新版本 */
+    private final class Versions {
+        private final Map<String, Long> byStream = new ConcurrentHashMap<>();
+        private final AtomicLong global = new AtomicLong();
+        private final AtomicLong latest = new AtomicLong();
+
+        void touch(String streamId) {
+            long v = versionSeq.incrementAndGet();
+            if (streamId != null) byStream.merge(streamId, v, Math::max);
+            else global.accumulateAndGet(v, Math::max);
+            latest.accumulateAndGet(v, Math::max);
+        }
+
+        long get(String streamId) {
+            if (streamId == null) return latest.get();
+            return Math.max(byStream.getOrDefault(streamId, 0L), global.get());
+        }
     }
 
     @Data
@@ -278,6 +1034,9 @@ public class MockDataService {
             this.pushUrl = pushUrl;
             this.playUrl = playUrl;
         }
+        public StreamInfo copy() {
+            return new StreamInfo(id, name, enabled, pushUrl, playUrl);
+        }
         /** 前端兼容：列表用 url 显示 */
         public String getUrl() { return pushUrl != null ? pushUrl : playUrl; }
         /** 前端兼容：根据地址推断 type */
@@ -293,6 +1052,13 @@ public class MockDataService {
             this.leftVotes = leftVotes;
             this.rightVotes = rightVotes;
         }
+        /** 由 long 计数构造，超出 int 范围时取边界值 */
+        public static VoteState of(long leftVotes, long rightVotes) {
+            return new VoteState(saturate(leftVotes), saturate(rightVotes));
+        }
+        private static int saturate(long v) {
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, v));
+        }
     }
 
     @Data
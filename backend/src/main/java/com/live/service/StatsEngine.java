@@ -0,0 +1,287 @@
+package com.live.service;
+
+import com.live.common.HyperLogLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按天统计：票数（左 / 右净增量）、活跃用户（当天投过票的去重用户数，HyperLogLog 估计）、评论数、观看人数峰值，
+ * 全站与每流各一份，另记每小时票数变动次数。
+ * <ul>
+ *   <li>投票由 {@link VoteEventLog} 聚合线程逐条转交，投票路径无额外开销；评论在批量写入后、观看人数在推送时计入；</li>
+ *   <li>事件按时间戳计入所在自然日；当前日缓存日界，跨天时只新建下一天并淘汰超出保留期的旧日，不重算；</li>
+ *   <li>查询直接读取聚合结果：汇总 O(1)，按天列表 O(天数)。</li>
+ * </ul>
+ * 统计随状态快照持久化，最近一次快照之后的增量在异常退出时丢失（票数本身不受影响）。
+ */
+@Slf4j
+@Component
+public class StatsEngine {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    private final ZoneId zone;
+    private final int retentionDays;
+    /** epochDay -> 当天统计 */
+    private final ConcurrentSkipListMap<Long, Day> days = new ConcurrentSkipListMap<>();
+    /** 最近一天（多数事件落在这一天，先按缓存的日界判断） */
+    private volatile Day current;
+    private final LongAdder totalComments = new LongAdder();
+    private final AtomicInteger peakViewers = new AtomicInteger();
+
+    public StatsEngine(VoteEventLog voteEvents,
+                       @Value("${live.stats.time-zone:Asia/Shanghai}") String zone,
+                       @Value("${live.stats.retention-days:90}") int retentionDays) {
+        this.zone = ZoneId.of(zone);
+        this.retentionDays = Math.max(1, retentionDays);
+        voteEvents.setSink(this::recordVote);
+    }
+
+    /** 票数变动（由投票聚合线程按序调用）；userId 为空的变动不计活跃用户 */
+    void recordVote(long ts, String streamId, byte side, int delta, String userId) {
+        Day d = dayOf(ts);
+        if (d == null) return;
+        long userKey = userId != null ? UserVoteLedger.key(userId) : 0;
+        d.all.vote(side, delta, userKey);
+        d.stream(streamId).vote(side, delta, userKey);
+        int hour = (int) Math.min(23, Math.max(0, (ts - d.start) / HOUR_MS));
+        d.hourly.incrementAndGet(hour);
+    }
+
+    /** 一批评论写入后调用 */
+    public void recordComments(long ts, String streamId, int count) {
+        Day d = dayOf(ts);
+        if (d == null || count <= 0) return;
+        d.all.comments.add(count);
+        if (streamId != null) d.stream(streamId).comments.add(count);
+        totalComments.add(count);
+    }
+
+    /** 推送观看人数时调用，更新当天与全站峰值 */
+    public void recordViewers(long ts, String streamId, int viewers) {
+        Day d = dayOf(ts);
+        if (d == null || viewers <= 0) return;
+        d.all.peakViewers.accumulateAndGet(viewers, Math::max);
+        d.stream(streamId).peakViewers.accumulateAndGet(viewers, Math::max);
+        peakViewers.accumulateAndGet(viewers, Math::max);
+    }
+
+    private Day dayOf(long ts) {
+        Day d = current;
+        if (d != null && ts >= d.start && ts < d.end) return d;
+        return roll(ts);
+    }
+
+    /** 跨天（或迟到的旧事件）：取所在日，新的一天成为当前日并淘汰保留期外的旧日；超出保留期的旧事件返回 null */
+    private synchronized Day roll(long ts) {
+        LocalDate date = Instant.ofEpochMilli(ts).atZone(zone).toLocalDate();
+        long key = date.toEpochDay();
+        Day latest = current;
+        if (latest != null && key <= latest.key - retentionDays) return null;
+        Day d = days.computeIfAbsent(key, k -> new Day(date, zone));
+        if (latest == null || key > latest.key) {
+            current = d;
+            days.headMap(key - retentionDays, true).clear();
+            if (latest != null) log.info("统计日切换: {} -> {}", latest.date, d.date);
+        }
+        return d;
+    }
+
+    /** 汇总：保留天数、累计评论数、观看人数峰值与今天的统计 */
+    public Map<String, Object> summary() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("totalLiveDays", days.size());
+        data.put("totalComments", totalComments.sum());
+        data.put("peakViewers", peakViewers.get());
+        LocalDate today = LocalDate.now(zone);
+        Day d = days.get(today.toEpochDay());
+        data.put("today", d != null ? d.row() : emptyRow(today));
+        return data;
+    }
+
+    /** [from, to] 内有数据的日期，按日期升序；参数为空表示不限 */
+    public List<Map<String, Object>> daily(LocalDate from, LocalDate to) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Day d : range(from, to).values()) list.add(d.row());
+        return list;
+    }
+
+    /** 区间汇总：票数、评论数为各天之和，活跃用户为区间内去重（合并各天估计），峰值取最大 */
+    public Map<String, Object> range(LocalDate from, LocalDate to, List<Map<String, Object>> dailyOut) {
+        long left = 0, right = 0, comments = 0;
+        int peak = 0;
+        HyperLogLog voters = new HyperLogLog();
+        for (Day d : range(from, to).values()) {
+            left += d.all.left.sum();
+            right += d.all.right.sum();
+            comments += d.all.comments.sum();
+            peak = Math.max(peak, d.all.peakViewers.get());
+            voters.merge(d.all.voters);
+            if (dailyOut != null) dailyOut.add(d.row());
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("leftVotes", left);
+        data.put("rightVotes", right);
+        data.put("totalVotes", left + right);
+        data.put("comments", comments);
+        data.put("peakViewers", peak);
+        data.put("activeUsers", voters.estimate());
+        return data;
+    }
+
+    private Map<Long, Day> range(LocalDate from, LocalDate to) {
+        long lo = from != null ? from.toEpochDay() : Long.MIN_VALUE;
+        long hi = to != null ? to.toEpochDay() : Long.MAX_VALUE;
+        return lo > hi ? Map.of() : days.subMap(lo, true, hi, true);
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    // ---------- 快照 ----------
+
+    public Export export() {
+        List<DayStats> list = new ArrayList<>(days.size());
+        for (Day d : days.values()) {
+            Map<String, CountStats> streams = new HashMap<>();
+            d.streams.forEach((id, c) -> streams.put(id, c.export()));
+            long[] hourly = new long[24];
+            for (int i = 0; i < 24; i++) hourly[i] = d.hourly.get(i);
+            list.add(new DayStats(d.date.toString(), d.all.export(), hourly, streams));
+        }
+        return new Export(list, totalComments.sum(), peakViewers.get());
+    }
+
+    public synchronized void restore(Export e) {
+        if (e.days() != null) {
+            for (DayStats s : e.days()) {
+                LocalDate date = LocalDate.parse(s.date());
+                Day d = days.computeIfAbsent(date.toEpochDay(), k -> new Day(date, zone));
+                d.all.load(s.all());
+                if (s.streams() != null) s.streams().forEach((id, c) -> d.stream(id).load(c));
+                if (s.hourlyActivity() != null) {
+                    for (int i = 0; i < 24 && i < s.hourlyActivity().length; i++) d.hourly.set(i, s.hourlyActivity()[i]);
+                }
+                if (current == null || d.key > current.key) current = d;
+            }
+        }
+        totalComments.add(e.totalComments());
+        peakViewers.accumulateAndGet(e.peakViewers(), Math::max);
+    }
+
+    /** 统计快照：days 按日期升序 */
+    public record Export(List<DayStats> days, long totalComments, int peakViewers) {}
+
+    /** 一天的统计：date 为 yyyy-MM-dd，streams 为 streamId -> 该流当天统计 */
+    public record DayStats(String date, CountStats all, long[] hourlyActivity, Map<String, CountStats> streams) {}
+
+    /** voters 为活跃用户 HyperLogLog 寄存器 */
+    public record CountStats(long leftVotes, long rightVotes, long comments, int peakViewers, byte[] voters) {}
+
+    private static Map<String, Object> emptyRow(LocalDate date) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("date", date.toString());
+        row.put("leftVotes", 0L);
+        row.put("rightVotes", 0L);
+        row.put("totalVotes", 0L);
+        row.put("activeUsers", 0L);
+        row.put("comments", 0L);
+        row.put("peakViewers", 0);
+        row.put("hourlyActivity", new long[24]);
+        row.put("streamVotesBar", List.of());
+        return row;
+    }
+
+    private static final class Day {
+        final long key;
+        final LocalDate date;
+        /** 当天 [start, end) 的毫秒时间戳 */
+        final long start;
+        final long end;
+        final Counts all = new Counts();
+        final AtomicLongArray hourly = new AtomicLongArray(24);
+        final Map<String, Counts> streams = new ConcurrentHashMap<>();
+
+        Day(LocalDate date, ZoneId zone) {
+            this.key = date.toEpochDay();
+            this.date = date;
+            this.start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            this.end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        Counts stream(String streamId) {
+            Counts c = streams.get(streamId);
+            return c != null ? c : streams.computeIfAbsent(streamId, k -> new Counts());
+        }
+
+        Map<String, Object> row() {
+            Map<String, Object> row = all.row();
+            row.put("date", date.toString());
+            long[] h = new long[24];
+            for (int i = 0; i < 24; i++) h[i] = hourly.get(i);
+            row.put("hourlyActivity", h);
+            List<Map<String, Object>> bars = new ArrayList<>(streams.size());
+            streams.forEach((id, c) -> {
+                Map<String, Object> bar = c.row();
+                bar.put("id", id);
+                bars.add(bar);
+            });
+            row.put("streamVotesBar", bars);
+            return row;
+        }
+    }
+
+    /** 一组计数；voters 只由投票聚合线程写入 */
+    private static final class Counts {
+        final LongAdder left = new LongAdder();
+        final LongAdder right = new LongAdder();
+        final LongAdder comments = new LongAdder();
+        final AtomicInteger peakViewers = new AtomicInteger();
+        volatile HyperLogLog voters = new HyperLogLog();
+
+        void vote(byte side, int delta, long userKey) {
+            (side == VoteEventLog.LEFT ? left : right).add(delta);
+            if (userKey != 0) voters.add(userKey);
+        }
+
+        Map<String, Object> row() {
+            long l = left.sum(), r = right.sum();
+            Map<String, Object> row = new HashMap<>();
+            row.put("leftVotes", l);
+            row.put("rightVotes", r);
+            row.put("totalVotes", l + r);
+            row.put("activeUsers", voters.estimate());
+            row.put("comments", comments.sum());
+            row.put("peakViewers", peakViewers.get());
+            return row;
+        }
+
+        CountStats export() {
+            return new CountStats(left.sum(), right.sum(), comments.sum(), peakViewers.get(), voters.toBytes());
+        }
+
+        void load(CountStats s) {
+            if (s == null) return;
+            left.add(s.leftVotes());
+            right.add(s.rightVotes());
+            comments.add(s.comments());
+            peakViewers.accumulateAndGet(s.peakViewers(), Math::max);
+            if (s.voters() != null) voters = HyperLogLog.of(s.voters());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.live.service;
+
+import com.live.model.UserInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 小程序用户目录：openid 索引 + 全部 / 每状态按 (createdAt, openid) 排序（新在前）的跳表索引。
+ * 按 openid 查询 O(1)，计数 O(1)，游标（keyset）分页 O(log n + pageSize)，与页码深度无关。
+ * 投票数 / 参与辩论数为原子计数，读时与资料合成 {@link UserInfo}。
+ */
+public class UserDirectory {
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Index all = new Index();
+    private final Map<String, Index> byStatus = new ConcurrentHashMap<>();
+
+    /** 新增或更新资料：已存在的用户保留注册时间与计数，只替换昵称、头像、状态与更新时间 */
+    public UserInfo upsert(UserInfo user) {
+        Entry e = byId.compute(user.id(), (id, prev) -> {
+            if (prev == null) {
+                Entry n = new Entry(user);
+                index(n);
+                return n;
+            }
+            String oldStatus = prev.profile.status();
+            prev.profile = new UserInfo(id, user.nickName(), user.avatarUrl(), prev.profile.createdAt(),
+                    user.updatedAt(), 0, 0, user.status());
+            if (!sameStatus(oldStatus, user.status())) {
+                Index old = byStatus.get(statusKey(oldStatus));
+                if (old != null) old.remove(prev);
+                byStatus.computeIfAbsent(statusKey(user.status()), k -> new Index()).add(prev);
+            }
+            return prev;
+        });
+        return e.view();
+    }
+
+    /** 恢复快照中的用户（含计数） */
+    public void load(UserInfo user) {
+        byId.compute(user.id(), (id, prev) -> {
+            if (prev != null) unindex(prev);
+            Entry n = new Entry(user);
+            n.totalVotes.set(user.totalVotes());
+            n.joinedDebates.set(user.joinedDebates());
+            index(n);
+            return n;
+        });
+    }
+
+    public UserInfo get(String openid) {
+        Entry e = openid != null ? byId.get(openid) : null;
+        return e != null ? e.view() : null;
+    }
+
+    /** 原子累加投票数与参与辩论数；用户不存在时忽略 */
+    public void addCounts(String openid, int votes, int debates) {
+        Entry e = openid != null ? byId.get(openid) : null;
+        if (e == null) return;
+        if (votes != 0) e.totalVotes.addAndGet(votes);
+        if (debates != 0) e.joinedDebates.addAndGet(debates);
+    }
+
+    /** status 为空时统计全部 */
+    public int count(String status) {
+        Index idx = index(status);
+        return idx != null ? idx.size.get() : 0;
+    }
+
+    /** 页码分页（兼容旧接口），page 从 1 开始 */
+    public List<UserInfo> page(String status, int page, int pageSize) {
+        Index idx = index(status);
+        if (idx == null || page < 1 || pageSize <= 0) return List.of();
+        long skip = (long) (page - 1) * pageSize;
+        if (skip >= idx.size.get()) return List.of();
+        List<UserInfo> list = new ArrayList<>(pageSize);
+        for (Entry e : idx.entries.values()) {
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            list.add(e.view());
+            if (list.size() == pageSize) break;
+        }
+        return list;
+    }
+
+    /** 游标分页：返回 cursor 之后（更早注册）的 limit 个用户；cursor 为空从最新开始 */
+    public CursorPage pageAfter(String status, String cursor, int limit) {
+        Index idx = index(status);
+        if (idx == null || limit <= 0) return new CursorPage(List.of(), null);
+        NavigableMap<Key, Entry> view = idx.entries;
+        Key after = Key.parse(cursor);
+        if (after != null) view = view.tailMap(after, false);
+        List<UserInfo> list = new ArrayList<>(limit);
+        Key last = null;
+        for (Entry e : view.values()) {
+            list.add(e.view());
+            last = e.key;
+            if (list.size() == limit) break;
+        }
+        String next = list.size() == limit && view.higherKey(last) != null ? last.format() : null;
+        return new CursorPage(Collections.unmodifiableList(list), next);
+    }
+
+    /** 全部用户，按注册时间（旧在前），用于快照 */
+    public List<UserInfo> all() {
+        List<UserInfo> list = new ArrayList<>(all.size.get());
+        for (Entry e : all.entries.descendingMap().values()) list.add(e.view());
+        return list;
+    }
+
+    private Index index(String status) {
+        return status == null || status.isEmpty() ? all : byStatus.get(status);
+    }
+
+    private void index(Entry e) {
+        all.add(e);
+        byStatus.computeIfAbsent(statusKey(e.profile.status()), k -> new Index()).add(e);
+    }
+
+    private void unindex(Entry e) {
+        all.remove(e);
+        Index idx = byStatus.get(statusKey(e.profile.status()));
+        if (idx != null) idx.remove(e);
+    }
+
+    private static String statusKey(String status) {
+        return status != null ? status : "";
+    }
+
+    private static boolean sameStatus(String a, String b) {
+        return statusKey(a).equals(statusKey(b));
+    }
+
+    /** 游标分页结果；nextCursor 为空表示没有更多 */
+    public record CursorPage(List<UserInfo> list, String nextCursor) {}
+
+    /** 排序键：注册时间（毫秒）倒序，同一毫秒按 openid 倒序；游标格式 "毫秒_openid" */
+    private record Key(long createdAt, String id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key o) {
+            int c = Long.compare(o.createdAt, createdAt);
+            return c != 0 ? c : o.id.compareTo(id);
+        }
+
+        String format() {
+            return createdAt + "_" + id;
+        }
+
+        static Key parse(String cursor) {
+            if (cursor == null || cursor.isEmpty()) return null;
+            int sep = cursor.indexOf('_');
+            if (sep <= 0) return null;
+            try {
+                return new Key(Long.parseLong(cursor.substring(0, sep)), cursor.substring(sep + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final AtomicInteger totalVotes = new AtomicInteger();
+        final AtomicInteger joinedDebates = new AtomicInteger();
+        /** 资料（计数字段不使用），整体替换 */
+        volatile UserInfo profile;
+
+        Entry(UserInfo user) {
+            Instant created = user.createdAt() != null ? user.createdAt() : Instant.EPOCH;
+            this.key = new Key(created.toEpochMilli(), user.id());
+            this.profile = user;
+        }
+
+        UserInfo view() {
+            UserInfo p = profile;
+            return new UserInfo(p.id(), p.nickName(), p.avatarUrl(), p.createdAt(), p.updatedAt(),
+                    totalVotes.get(), joinedDebates.get(), p.status());
+        }
+    }
+
+    /** 按 Key 排序（新在前）的索引 */
+    private static final class Index {
+        final ConcurrentSkipListMap<Key, Entry> entries = new ConcurrentSkipListMap<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(Entry e) {
+            if (entries.put(e.key, e) == null) size.incrementAndGet();
+        }
+
+        void remove(Entry e) {
+            if (entries.remove(e.key) != null) size.decrementAndGet();
+        }
+    }
+}
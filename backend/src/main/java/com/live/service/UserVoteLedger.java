@@ -0,0 +1,215 @@
+package com.live.service;
+
+/**
+ * 单流用户投票账本：记录每个用户当前的票数分配（左 / 右），用户重复提交时只返回与上次分配的差值。
+ * <p>
+ * 用户 id 以 64 位哈希作 key，分配打包为一个 long，存放在分段的开放寻址原始类型数组中：
+ * 每用户约 32~64 字节（两个 long 数组，装载因子上限 0.5）、查询与更新 O(1)、不分配对象；分段加锁，不同用户并发互不阻塞。
+ * <p>
+ * 分配非负，存储值的最高位用作参与标记：用户在此流首次有非零分配时置位，之后改回 (0, 0) 也保留。
+ */
+public final class UserVoteLedger {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    /** 存储值中的参与标记 */
+    private static final long JOINED = Long.MIN_VALUE;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public UserVoteLedger() {
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment();
+    }
+
+    /**
+     * 把用户分配更新为 (left, right)，返回打包的增量（用 {@link #left(long)} / {@link #right(long)} 解出）。
+     * 与上次分配相同时返回 0。
+     */
+    public long allocate(String userId, int left, int right) {
+        return allocate(key(userId), left, right);
+    }
+
+    long allocate(long key, int left, int right) {
+        return delta(exchange(key, left, right), left, right);
+    }
+
+    /**
+     * 同 {@link #allocate(String, int, int)}，返回更新前的存储值（含参与标记），
+     * 增量用 {@link #delta(long, int, int)}、是否首次参与用 {@link #joins(long, int, int)} 解出
+     */
+    long exchange(long key, int left, int right) {
+        long val = pack(left, right);
+        return segment(key).put(key, val != 0 ? val | JOINED : val);
+    }
+
+    /** exchange 返回的旧存储值 -> 打包增量 */
+    static long delta(long prev, int left, int right) {
+        long p = prev & ~JOINED;
+        return pack(left - left(p), right - right(p));
+    }
+
+    /** 此次分配是否是该用户在此流的首次非零分配 */
+    static boolean joins(long prev, int left, int right) {
+        return (prev & JOINED) == 0 && (left != 0 || right != 0);
+    }
+
+    /** 用户当前分配（打包），未投票为 0 */
+    public long get(String userId) {
+        long key = key(userId);
+        return segment(key).get(key) & ~JOINED;
+    }
+
+    /** 该 key 的存储值（打包分配 + 参与标记），不存在返回 null；用于快照补读 */
+    Long find(long key) {
+        return segment(key).find(key);
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) n += s.size();
+        return n;
+    }
+
+    public void clear() {
+        for (Segment s : segments) s.clear();
+    }
+
+    /** 导出为 [key, 存储值, key, 存储值, ...]，用于快照 */
+    public long[] export() {
+        long[][] parts = new long[SEGMENTS][];
+        int total = 0;
+        for (int i = 0; i < SEGMENTS; i++) {
+            parts[i] = segments[i].export();
+            total += parts[i].length;
+        }
+        long[] out = new long[total];
+        int pos = 0;
+        for (long[] p : parts) {
+            System.arraycopy(p, 0, out, pos, p.length);
+            pos += p.length;
+        }
+        return out;
+    }
+
+    /** 从 {@link #export()} 的结果恢复；不带参与标记的旧快照中非零分配视为已参与 */
+    public void load(long[] entries) {
+        for (int i = 0; i + 1 < entries.length; i += 2) {
+            long v = entries[i + 1];
+            segment(entries[i]).put(entries[i], v != 0 ? v | JOINED : v);
+        }
+    }
+
+    public static int left(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int right(long packed) {
+        return (int) packed;
+    }
+
+    static long pack(int left, int right) {
+        return ((long) left << 32) | (right & 0xffffffffL);
+    }
+
+    /** FNV-1a 64 位哈希，逐字符计算不分配；0 保留为空槽 */
+    static long key(String userId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < userId.length(); i++) {
+            h ^= userId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h != 0 ? h : 1;
+    }
+
+    private Segment segment(long key) {
+        return segments[(int) (key >>> (64 - SEGMENT_BITS))];
+    }
+
+    /** 线性探测哈希表，装载因子上限 0.5 */
+    private static final class Segment {
+        private long[] keys = new long[64];
+        private long[] vals = new long[64];
+        private int size;
+
+        synchronized long get(long key) {
+            int i = indexOf(key);
+            return i >= 0 ? vals[i] : 0;
+        }
+
+        synchronized Long find(long key) {
+            int i = indexOf(key);
+            return i >= 0 ? vals[i] : null;
+        }
+
+        /** 写入并返回旧值（不存在为 0）；已有的参与标记保留 */
+        synchronized long put(long key, long val) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) {
+                    long prev = vals[i];
+                    vals[i] = val | (prev & JOINED);
+                    return prev;
+                }
+                if (k == 0) {
+                    keys[i] = key;
+                    vals[i] = val;
+                    if (++size * 2 > keys.length) resize();
+                    return 0;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void clear() {
+            keys = new long[64];
+            vals = new long[64];
+            size = 0;
+        }
+
+        synchronized long[] export() {
+            long[] out = new long[size * 2];
+            int pos = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == 0) continue;
+                out[pos++] = keys[i];
+                out[pos++] = vals[i];
+            }
+            return out;
+        }
+
+        private int indexOf(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) return i;
+                if (k == 0) return -1;
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            long[] oldVals = vals;
+            keys = new long[oldKeys.length * 2];
+            vals = new long[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                long k = oldKeys[j];
+                if (k == 0) continue;
+                int i = slot(k, mask);
+                while (keys[i] != 0) i = (i + 1) & mask;
+                keys[i] = k;
+                vals[i] = oldVals[j];
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.live.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单流投票计数器：左右两侧各一个 LongAdder（分段 cell 累加），高并发投票不丢票、不在投票路径上分配对象。
+ * 重置不替换 cell，而是累加与当前值的差值：与之并发的累加不会丢失，重置前后的票数变化可精确对账。
+ */
+public final class VoteCounter {
+
+    private final LongAdder left = new LongAdder();
+    private final LongAdder right = new LongAdder();
+    /** 有尚未反映到版本号的变更（见 MockDataService#getVersion） */
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    public VoteCounter() {
+        this(0, 0);
+    }
+
+    public VoteCounter(long left, long right) {
+        this.left.add(left);
+        this.right.add(right);
+    }
+
+    /** 原子累加（可为负数），不加锁、不分配 */
+    public void add(long leftDelta, long rightDelta) {
+        if (leftDelta != 0) left.add(leftDelta);
+        if (rightDelta != 0) right.add(rightDelta);
+    }
+
+    /**
+     * 重置为指定票数，返回重置前的 [left, right]（即本次累加的差值的基准）。
+     * 重置之间互斥；与之并发、未计入返回值的累加视为发生在重置之后，保留在结果中
+     */
+    public synchronized long[] reset(long left, long right) {
+        long l = this.left.sum(), r = this.right.sum();
+        add(left - l, right - r);
+        return new long[]{l, r};
+    }
+
+    /** 累加之后调用：标记有变更，返回是否为新标记（已有标记时只读一次 volatile） */
+    boolean markChanged() {
+        return !changed.get() && changed.compareAndSet(false, true);
+    }
+
+    /** 读取票数之前调用：取走变更标记，返回之前是否有变更 */
+    boolean claimChanged() {
+        return changed.get() && changed.compareAndSet(true, false);
+    }
+
+    public long left() {
+        return left.sum();
+    }
+
+    public long right() {
+        return right.sum();
+    }
+
+    /** 读取当前票数快照（超出 int 范围时取边界值） */
+    public MockDataService.VoteState snapshot() {
+        return MockDataService.VoteState.of(left.sum(), right.sum());
+    }
+}
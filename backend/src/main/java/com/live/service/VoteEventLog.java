@@ -0,0 +1,383 @@
+package com.live.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 投票事件日志：每次票数变化记录为一条事件（流、侧、增量、时间、用户），存入定长列式环形缓冲区。
+ * <ul>
+ *   <li>写入按线程分段：每段有独立的写位置，只占本段一个槽位（按列写原始类型数组），不加锁、不分配对象；</li>
+ *   <li>后台线程逐段消费新事件，按消费顺序编号 seq 存入历史环（写满后覆盖最旧事件），
+ *       增量维护每流按秒（最近 1 小时）/ 按分钟（最近 1 天）的聚合桶，并转交 {@link Sink}（如按天统计）；</li>
+ *   <li>查询时先追平未消费事件，结果总是包含已提交的全部投票。</li>
+ * </ul>
+ * 事件日志只在内存中，重启后从空开始；用户编号最多保留 2 × 容量个，超出后淘汰最早加入的。
+ */
+@Slf4j
+@Component
+public class VoteEventLog {
+
+    public static final byte LEFT = 0;
+    public static final byte RIGHT = 1;
+    private static final int SECOND_BUCKETS = 3600;
+    private static final int MINUTE_BUCKETS = 1440;
+
+    /** 分段写位置在 heads 中的间隔（long 个数），避免相邻分段共享缓存行 */
+    private static final int PAD = 16;
+
+    private final int capacity;
+    private final int mask;
+    private final long rollupIntervalMs;
+
+    // 分段列式存储：下标 = 段号 * stripeCapacity + (段内序号 & stripeMask)
+    private final int stripeCapacity;
+    private final int stripeMask;
+    private final int stripeShift;
+    private final long[] tsCol;
+    private final int[] streamCol;
+    private final byte[] sideCol;
+    private final int[] deltaCol;
+    private final int[] userCol;
+    /** 槽位提交标记：写入中为 0，写完为段内序号 + 1 */
+    private final AtomicLongArray committed;
+    /** 各段下一个段内序号，下标 = 段号 * PAD */
+    private final AtomicLongArray heads;
+    /** 各段下一条待消费的段内序号，由 drain 的锁保护 */
+    private final long[] consumed;
+
+    // 历史环：已消费的事件按 seq 存放，下标 = seq & mask，由 drain 的锁保护
+    private final long[] seqTs;
+    private final int[] seqStream;
+    private final byte[] seqSide;
+    private final int[] seqDelta;
+    private final int[] seqUser;
+
+    private final Dictionary streams = new Dictionary(0);
+    private final Dictionary users;
+    private final Map<String, Rollup> rollups = new ConcurrentHashMap<>();
+
+    /** 下一个 seq（已消费的事件数），由 drain 的锁保护 */
+    private long sequenced;
+    /** 消费前已被覆盖的事件数 */
+    private long lost;
+    /** 聚合时逐条转交的下游，由聚合线程按序调用 */
+    private volatile Sink sink;
+    /** 事件时间：后台每毫秒刷新，写入时不必每票读一次系统时钟；未启动时为 0，直接读系统时钟 */
+    private volatile long clock;
+    private ScheduledExecutorService scheduler;
+    private ScheduledExecutorService ticker;
+
+    public VoteEventLog(@Value("${live.votes.event-log-capacity:262144}") int capacity,
+                        @Value("${live.votes.rollup-interval-ms:500}") long rollupIntervalMs) {
+        this.capacity = Integer.highestOneBit(Math.max(1024, capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.rollupIntervalMs = rollupIntervalMs;
+        int stripes = Integer.highestOneBit(Math.max(4, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1;
+        this.stripeCapacity = Math.max(1024, this.capacity / stripes);
+        this.stripeMask = stripeCapacity - 1;
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripes);
+        int slots = stripes * stripeCapacity;
+        this.tsCol = new long[slots];
+        this.streamCol = new int[slots];
+        this.sideCol = new byte[slots];
+        this.deltaCol = new int[slots];
+        this.userCol = new int[slots];
+        this.committed = new AtomicLongArray(slots);
+        this.heads = new AtomicLongArray(stripes * PAD);
+        this.consumed = new long[stripes];
+        this.seqTs = new long[this.capacity];
+        this.seqStream = new int[this.capacity];
+        this.seqSide = new byte[this.capacity];
+        this.seqDelta = new int[this.capacity];
+        this.seqUser = new int[this.capacity];
+        this.users = new Dictionary(this.capacity * 2);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vote-rollup");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, rollupIntervalMs, rollupIntervalMs, TimeUnit.MILLISECONDS);
+        clock = System.currentTimeMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vote-clock");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(() -> clock = System.currentTimeMillis(), 1, 1, TimeUnit.MILLISECONDS);
+        log.info("投票事件日志: capacity={}, 聚合周期 {}ms", capacity, rollupIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        if (ticker != null) ticker.shutdownNow();
+        clock = 0;
+    }
+
+    public void setSink(Sink sink) {
+        this.sink = sink;
+    }
+
+    /** 记录一次票数变化；两侧增量各记一条事件，userId 可为空 */
+    public void record(String streamId, int leftDelta, int rightDelta, String userId) {
+        if (leftDelta == 0 && rightDelta == 0) return;
+        long now = clock;
+        if (now == 0) now = System.currentTimeMillis();
+        int s = streams.id(streamId);
+        int u = userId != null ? users.id(userId) : -1;
+        int stripe = ((int) Thread.currentThread().getId() * 0x9E3779B9) >>> stripeShift;
+        if (leftDelta != 0) append(stripe, now, s, LEFT, leftDelta, u);
+        if (rightDelta != 0) append(stripe, now, s, RIGHT, rightDelta, u);
+    }
+
+    private void append(int stripe, long ts, int stream, byte side, int delta, int user) {
+        long seq = heads.getAndIncrement(stripe * PAD);
+        int i = stripe * stripeCapacity + (int) (seq & stripeMask);
+        committed.setOpaque(i, 0);
+        VarHandle.storeStoreFence();
+        tsCol[i] = ts;
+        streamCol[i] = stream;
+        sideCol[i] = side;
+        deltaCol[i] = delta;
+        userCol[i] = user;
+        committed.setRelease(i, seq + 1);
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (Exception e) {
+            log.warn("投票聚合失败: {}", e.getMessage());
+        }
+    }
+
+    /** 逐段消费新提交的事件，编号后存入历史环并累加到聚合桶；某段遇到尚在写入的槽位即停，下次继续 */
+    synchronized void drain() {
+        for (int stripe = 0; stripe < consumed.length; stripe++) {
+            long end = heads.get(stripe * PAD);
+            long next = consumed[stripe];
+            if (next < end - stripeCapacity) {
+                lost += end - stripeCapacity - next;
+                next = end - stripeCapacity;
+            }
+            int base = stripe * stripeCapacity;
+            for (; next < end; next++) {
+                int i = base + (int) (next & stripeMask);
+                long c = committed.get(i);
+                if (c == 0 || c < next + 1) break;
+                if (c > next + 1) {
+                    // 已被更新的事件覆盖
+                    lost++;
+                    continue;
+                }
+                long ts = tsCol[i];
+                int stream = streamCol[i];
+                byte side = sideCol[i];
+                int delta = deltaCol[i];
+                int user = userCol[i];
+                VarHandle.loadLoadFence();
+                if (committed.get(i) != c) {
+                    lost++;
+                    continue;
+                }
+                sequence(ts, stream, side, delta, user);
+            }
+            consumed[stripe] = next;
+        }
+    }
+
+    private void sequence(long ts, int stream, byte side, int delta, int user) {
+        int h = (int) (sequenced & mask);
+        seqTs[h] = ts;
+        seqStream[h] = stream;
+        seqSide[h] = side;
+        seqDelta[h] = delta;
+        seqUser[h] = user;
+        sequenced++;
+        String streamId = streams.name(stream);
+        rollups.computeIfAbsent(streamId, k -> new Rollup()).add(ts, side, delta);
+        Sink out = sink;
+        if (out != null) out.accept(ts, streamId, side, delta, user >= 0 ? users.name(user) : null);
+    }
+
+    /**
+     * 时间窗聚合：返回 [from, to) 内非空桶，按时间升序；granularity 为 second（最近 1 小时）或 minute（最近 1 天）
+     */
+    public List<Map<String, Object>> timeline(String streamId, String granularity, long fromMillis, long toMillis) {
+        drain();
+        Rollup r = rollups.get(streamId);
+        if (r == null) return List.of();
+        return "minute".equals(granularity)
+                ? r.series(r.minKey, r.minLeft, r.minRight, 60_000, fromMillis, toMillis)
+                : r.series(r.secKey, r.secLeft, r.secRight, 1_000, fromMillis, toMillis);
+    }
+
+    /**
+     * 事件回放：按序返回 afterSeq 之后、时间在 [from, to) 内的事件，最多 limit 条；
+     * 返回 list、nextSeq（继续翻页 / 轮询时作为 afterSeq）与 hasMore
+     */
+    public Map<String, Object> events(String streamId, long afterSeq, long fromMillis, long toMillis, int limit) {
+        drain();
+        Integer sid = streams.find(streamId);
+        List<Map<String, Object>> list = new ArrayList<>();
+        long last = afterSeq;
+        long seq;
+        long end;
+        synchronized (this) {
+            end = sequenced;
+            seq = Math.max(Math.max(0, end - capacity), afterSeq + 1);
+            for (; seq < end && list.size() < limit && sid != null; seq++) {
+                int i = (int) (seq & mask);
+                last = seq;
+                long ts = seqTs[i];
+                if (seqStream[i] != sid || ts < fromMillis || ts >= toMillis) continue;
+                int user = seqUser[i];
+                Map<String, Object> e = new HashMap<>();
+                e.put("seq", seq);
+                e.put("timestamp", ts);
+                e.put("side", seqSide[i] == LEFT ? "left" : "right");
+                e.put("delta", seqDelta[i]);
+                e.put("userId", user >= 0 ? users.name(user) : null);
+                list.add(e);
+            }
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("list", list);
+        data.put("nextSeq", last);
+        data.put("hasMore", seq < end);
+        return data;
+    }
+
+    public Map<String, Object> stats() {
+        long recorded = 0;
+        for (int stripe = 0; stripe < consumed.length; stripe++) recorded += heads.get(stripe * PAD);
+        Map<String, Object> data = new HashMap<>();
+        data.put("capacity", capacity);
+        data.put("recorded", recorded);
+        synchronized (this) {
+            data.put("retained", Math.min(sequenced, capacity));
+            data.put("aggregated", sequenced);
+            data.put("lost", lost);
+        }
+        data.put("users", users.size());
+        return data;
+    }
+
+    /** 聚合事件的下游：按 seq 顺序、单线程调用 */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(long ts, String streamId, byte side, int delta, String userId);
+    }
+
+    /**
+     * 字符串 -> 紧凑 int 编号，事件列中只存编号。limit 为 0 表示不限；否则（取 2 的幂）最多保留 limit 个，
+     * 新编号覆盖最早的编号，被淘汰编号的 name 返回 null
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final int limit;
+        /** 编号 id 存在 names[id % names.length]，保留 [size - names.length, size) 内的编号 */
+        private String[] names = new String[16];
+        private int size;
+
+        Dictionary(int limit) {
+            this.limit = limit > 0 ? Integer.highestOneBit(Math.max(16, limit - 1) << 1) : 0;
+        }
+
+        int id(String name) {
+            Integer id = ids.get(name);
+            return id != null ? id : add(name);
+        }
+
+        Integer find(String name) {
+            return name != null ? ids.get(name) : null;
+        }
+
+        synchronized String name(int id) {
+            return id < size && id >= size - names.length ? names[id % names.length] : null;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        private synchronized int add(String name) {
+            Integer id = ids.get(name);
+            if (id != null) return id;
+            if (size == names.length && (limit == 0 || names.length < limit)) {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            int slot = size % names.length;
+            if (names[slot] != null) ids.remove(names[slot], size - names.length);
+            names[slot] = name;
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /** 单流聚合桶：按秒 / 按分钟的环形数组，key 为该桶对应的 epoch 秒 / 分钟 */
+    private static final class Rollup {
+        final long[] secKey = new long[SECOND_BUCKETS];
+        final long[] secLeft = new long[SECOND_BUCKETS];
+        final long[] secRight = new long[SECOND_BUCKETS];
+        final long[] minKey = new long[MINUTE_BUCKETS];
+        final long[] minLeft = new long[MINUTE_BUCKETS];
+        final long[] minRight = new long[MINUTE_BUCKETS];
+
+        Rollup() {
+            Arrays.fill(secKey, -1);
+            Arrays.fill(minKey, -1);
+        }
+
+        synchronized void add(long ts, byte side, int delta) {
+            bump(secKey, side == LEFT ? secLeft : secRight, side == LEFT ? secRight : secLeft, ts / 1_000, delta);
+            bump(minKey, side == LEFT ? minLeft : minRight, side == LEFT ? minRight : minLeft, ts / 60_000, delta);
+        }
+
+        private static void bump(long[] keys, long[] target, long[] other, long key, int delta) {
+            int i = (int) (key % keys.length);
+            if (keys[i] != key) {
+                keys[i] = key;
+                target[i] = 0;
+                other[i] = 0;
+            }
+            target[i] += delta;
+        }
+
+        synchronized List<Map<String, Object>> series(long[] keys, long[] left, long[] right, long unitMillis,
+                                                      long fromMillis, long toMillis) {
+            long from = Math.max(fromMillis / unitMillis, toMillis / unitMillis - keys.length + 1);
+            long to = (toMillis + unitMillis - 1) / unitMillis;
+            List<Map<String, Object>> list = new ArrayList<>();
+            for (long k = from; k < to; k++) {
+                int i = (int) (k % keys.length);
+                if (keys[i] != k) continue;
+                Map<String, Object> b = new HashMap<>();
+                b.put("timestamp", k * unitMillis);
+                b.put("leftVotes", left[i]);
+                b.put("rightVotes", right[i]);
+                list.add(b);
+            }
+            return list;
+        }
+    }
+}
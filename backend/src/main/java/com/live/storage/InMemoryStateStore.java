@@ -0,0 +1,35 @@
+package com.live.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 纯内存存储：不落盘，重启后数据丢失（默认）
+ */
+@Component
+@ConditionalOnProperty(name = "live.storage.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryStateStore implements StateStore {
+
+    @Override
+    public boolean recover(Consumer<StateSnapshot> onSnapshot, Consumer<Mutation> onMutation) {
+        return false;
+    }
+
+    @Override
+    public void start(Supplier<SnapshotCapture> captures) {
+    }
+
+    @Override
+    public void write(Mutation mutation, Consumer<Mutation> apply) {
+        apply.accept(mutation);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of("type", "memory");
+    }
+}
@@ -0,0 +1,68 @@
+package com.live.storage;
+
+import com.live.model.AIContent;
+import com.live.model.Comment;
+import com.live.model.FlowSegment;
+import com.live.model.UserInfo;
+import com.live.service.MockDataService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 状态变更：MockDataService 的每次写操作对应一条变更，写入日志并在恢复时按序回放
+ */
+public sealed interface Mutation {
+
+    /** 受影响的流；null 表示不限于单个流（辩题、删除 AI 内容等） */
+    default String streamId() {
+        return null;
+    }
+
+    record VoteAdd(String streamId, int leftDelta, int rightDelta) implements Mutation {}
+
+    record VoteSet(String streamId, int left, int right) implements Mutation {}
+
+    /** 用户在该流的票数分配（覆盖该用户上次分配，计票只累加差值） */
+    record UserVote(String streamId, String userId, int left, int right) implements Mutation {}
+
+    record StreamPut(MockDataService.StreamInfo stream) implements Mutation {
+        @Override
+        public String streamId() {
+            return stream.getId();
+        }
+    }
+
+    record StreamDelete(String streamId) implements Mutation {}
+
+    record LiveSet(String streamId, boolean live) implements Mutation {}
+
+    record AiStatusSet(String streamId, String status) implements Mutation {}
+
+    record DebatePut(MockDataService.DebateDto debate) implements Mutation {}
+
+    /** debateId 为空表示解除关联 */
+    record StreamDebateSet(String streamId, String debateId) implements Mutation {}
+
+    record FlowSet(String streamId, List<FlowSegment> segments) implements Mutation {}
+
+    record AIContentAdd(AIContent content) implements Mutation {
+        @Override
+        public String streamId() {
+            return content.streamId();
+        }
+    }
+
+    record AIContentDelete(String contentId) implements Mutation {}
+
+    /** 一批新评论：contentId -> 评论（按提交顺序） */
+    record CommentsAdd(Map<String, List<Comment>> comments) implements Mutation {}
+
+    record CommentDelete(String contentId, String commentId) implements Mutation {}
+
+    /** 一批点赞增量：key 为 contentId（内容点赞）或 contentId/commentId（评论点赞） */
+    record LikesAdd(Map<String, Long> deltas) implements Mutation {}
+
+    /** 新增或更新用户资料（按 openid；已有用户保留注册时间与计数） */
+    record UserPut(UserInfo user) implements Mutation {}
+}
@@ -0,0 +1,22 @@
+package com.live.storage;
+
+/**
+ * 一次快照采集，大部分读取不持存储写锁（见 {@link WalStateStore#checkpoint()}）：
+ * <ol>
+ *   <li>{@link #begin()}：写锁内，开始记下此后变更涉及的条目，应为 O(1)；</li>
+ *   <li>{@link #read()}：不持锁，读取大集合，可能与写入交错；</li>
+ *   <li>{@link #seal()}：写锁内，停止记录，补读期间变更过的条目并复制小集合，只与期间的变更量相关；</li>
+ *   <li>{@link #build()}：不持锁，合成 seal 时刻的精确状态，日志从 seal 时的位置开始回放。</li>
+ * </ol>
+ * read 失败时也必须调用 seal 结束记录。
+ */
+public interface SnapshotCapture {
+
+    void begin();
+
+    void read();
+
+    void seal();
+
+    StateSnapshot build();
+}
@@ -0,0 +1,34 @@
+package com.live.storage;
+
+import com.live.model.AIContent;
+import com.live.model.Comment;
+import com.live.model.FlowSegment;
+import com.live.model.UserInfo;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 全量状态快照：用于定期落盘与启动恢复；aiContents 按插入顺序（旧在前），
+ * userVotes 为每流用户投票账本的导出（[key, packed, ...]）；comments 为每条 AI 内容的评论（旧在前），
+ * contentLikes 为内容点赞数（评论点赞数在评论的 likes 中）；stats 为按天统计
+ */
+public record StateSnapshot(
+        List<MockDataService.StreamInfo> streams,
+        Map<String, Boolean> liveStatus,
+        Map<String, MockDataService.VoteState> votes,
+        Map<String, String> aiStatus,
+        List<MockDataService.DebateDto> debates,
+        Map<String, String> streamDebate,
+        List<AIContent> aiContents,
+        int nextAIContentId,
+        Map<String, List<FlowSegment>> debateFlow,
+        List<UserInfo> users,
+        Map<String, long[]> userVotes,
+        Map<String, List<Comment>> comments,
+        Map<String, Long> contentLikes,
+        StatsEngine.Export stats
+) {
+}
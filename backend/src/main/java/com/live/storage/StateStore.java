@@ -0,0 +1,28 @@
+package com.live.storage;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 状态存储：MockDataService 的每次写操作经由 {@link #write} 记录，启动时经由 {@link #recover} 恢复。
+ * 通过 live.storage.type 选择实现：memory（默认，纯内存）| wal（内存映射预写日志 + 定期快照）
+ */
+public interface StateStore {
+
+    /**
+     * 恢复已持久化的状态：先交付最近快照（如有），再按序回放其后的变更。
+     *
+     * @return 是否存在已持久化的数据；false 时由调用方初始化默认数据
+     */
+    boolean recover(Consumer<StateSnapshot> onSnapshot, Consumer<Mutation> onMutation);
+
+    /** 恢复（或初始化）完成后调用；captures 每次生成快照时提供一次新的采集 */
+    void start(Supplier<SnapshotCapture> captures);
+
+    /** 记录一条变更，并在同一临界区内执行 apply，保证日志顺序与内存生效顺序一致 */
+    void write(Mutation mutation, Consumer<Mutation> apply);
+
+    /** 存储统计：类型、恢复耗时、日志大小等 */
+    Map<String, Object> stats();
+}
@@ -0,0 +1,604 @@
+package com.live.storage;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射预写日志存储：
+ * <ul>
+ *   <li>变更追加到定长的内存映射段文件 wal-N.log，记录格式 [len][crc32][type][payload]，投票变更为紧凑二进制，其余为 JSON；</li>
+ *   <li>投票变更按分段缓冲：普通投票按线程、用户投票按用户分段，各持分段锁写入所在分段的堆内缓冲，互不阻塞；
+ *       同一用户的投票总在同一分段，先后顺序不变，不同分段之间只交换可交换的增量；分段中连续写入同一流的普通投票合并为一条增量记录；</li>
+ *   <li>其余变更（含票数设置、快照开始与封口）先把所有分段缓冲写入日志再追加，作为顺序屏障；</li>
+ *   <li>组提交：后台每 flush-interval-ms 把分段缓冲写入映射内存并统一 force 一次刷盘。
+ *       非投票变更写入映射内存即不怕进程崩溃；投票变更在进程崩溃时最多丢失一个刷盘周期，与断电的丢失窗口相同；</li>
+ *   <li>定期快照 snapshot.json 记录状态与对应日志位置，之前的段文件随即删除，恢复只需读快照 + 回放其后的日志。</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "live.storage.type", havingValue = "wal")
+public class WalStateStore implements StateStore {
+
+    private static final String SNAPSHOT = "snapshot.json";
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d+)\\.log");
+    private static final int HEADER = 8;
+    private static final byte VOTE_ADD = 1;
+    private static final byte VOTE_SET = 2;
+    private static final byte USER_VOTE = 3;
+    /** JSON 编码的变更类型，类型码 = JSON_BASE + 下标（只能追加，不能调整顺序） */
+    private static final List<Class<? extends Mutation>> JSON_TYPES = List.of(
+            Mutation.StreamPut.class,
+            Mutation.StreamDelete.class,
+            Mutation.LiveSet.class,
+            Mutation.AiStatusSet.class,
+            Mutation.DebatePut.class,
+            Mutation.StreamDebateSet.class,
+            Mutation.FlowSet.class,
+            Mutation.AIContentAdd.class,
+            Mutation.AIContentDelete.class,
+            Mutation.CommentsAdd.class,
+            Mutation.CommentDelete.class,
+            Mutation.LikesAdd.class,
+            Mutation.UserPut.class
+    );
+    private static final int JSON_BASE = 10;
+    /** 每个分段的投票缓冲大小 */
+    private static final int STRIPE_BYTES = 64 * 1024;
+    /** 二进制记录中 id 长度为 2 字节 */
+    private static final int MAX_ID_BYTES = 0xffff;
+
+    private final ObjectMapper mapper;
+    private final Path dir;
+    private final int segmentSize;
+    private final long flushIntervalMs;
+    private final long snapshotIntervalSec;
+
+    /** 保护映射段（追加、切换段、关闭）；加锁顺序总是先分段锁后 lock */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32 crc = new CRC32();
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final Map<String, byte[]> idBytes = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private volatile MappedByteBuffer buf;
+    private long segment;
+    private volatile boolean dirty;
+    private boolean restored;
+    private Supplier<SnapshotCapture> captures;
+    private ScheduledExecutorService scheduler;
+
+    private long appended;
+    private long replayed;
+    private long recoveryMillis;
+    private volatile long lastCheckpointAt;
+    private volatile long lastCheckpointMillis;
+
+    public WalStateStore(ObjectMapper mapper,
+                         @Value("${live.storage.dir:./data}") String dir,
+                         @Value("${live.storage.segment-size-mb:64}") int segmentSizeMb,
+                         @Value("${live.storage.flush-interval-ms:10}") long flushIntervalMs,
+                         @Value("${live.storage.snapshot-interval-sec:60}") long snapshotIntervalSec) {
+        this.mapper = mapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.dir = Path.of(dir);
+        this.segmentSize = segmentSizeMb * 1024 * 1024;
+        this.flushIntervalMs = flushIntervalMs;
+        this.snapshotIntervalSec = snapshotIntervalSec;
+        int n = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) stripes[i] = new Stripe();
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(n);
+    }
+
+    @Override
+    public boolean recover(Consumer<StateSnapshot> onSnapshot, Consumer<Mutation> onMutation) {
+        long t0 = System.nanoTime();
+        try {
+            Files.createDirectories(dir);
+            long startSeg = 0;
+            int startOff = 0;
+            Path snap = dir.resolve(SNAPSHOT);
+            if (Files.exists(snap)) {
+                JsonNode root = mapper.readTree(snap.toFile());
+                startSeg = root.path("segment").asLong();
+                startOff = root.path("offset").asInt();
+                onSnapshot.accept(mapper.treeToValue(root.get("state"), StateSnapshot.class));
+                restored = true;
+            }
+            long lastSeg = startSeg;
+            int lastEnd = startOff;
+            boolean torn = false;
+            for (long seg : listSegments()) {
+                if (seg < startSeg || torn) {
+                    Files.deleteIfExists(segmentPath(seg));
+                    continue;
+                }
+                int[] end = new int[1];
+                torn = !replaySegment(seg, seg == startSeg ? startOff : 0, onMutation, end);
+                lastSeg = seg;
+                lastEnd = end[0];
+            }
+            openSegment(lastSeg, lastEnd, torn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 恢复失败: " + dir, e);
+        }
+        recoveryMillis = (System.nanoTime() - t0) / 1_000_000;
+        log.info("WAL 恢复完成: dir={}, 快照={}, 回放 {} 条, 耗时 {}ms", dir.toAbsolutePath(), restored, replayed, recoveryMillis);
+        return restored || replayed > 0;
+    }
+
+    @Override
+    public void start(Supplier<SnapshotCapture> captures) {
+        this.captures = captures;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wal-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, snapshotIntervalSec, snapshotIntervalSec, TimeUnit.SECONDS);
+        // 首次启动：立即快照，默认数据随之持久化
+        if (!restored) checkpointQuietly();
+    }
+
+    @Override
+    public void write(Mutation mutation, Consumer<Mutation> apply) {
+        if (mutation instanceof Mutation.VoteAdd v) {
+            Stripe s = stripes[stripe((int) Thread.currentThread().getId())];
+            s.lock.lock();
+            try {
+                if (!s.merge(v.streamId(), v.leftDelta(), v.rightDelta())) {
+                    byte[] sid = streamBytes(v.streamId());
+                    int n = 1 + 2 + sid.length + 8;
+                    if (HEADER + n > STRIPE_BYTES) {
+                        s.appendDirect(encodeVote(VOTE_ADD, sid, v.leftDelta(), v.rightDelta()));
+                    } else {
+                        int off = s.reserve(n);
+                        s.data[off] = VOTE_ADD;
+                        int pos = putString(s.data, off + 1, sid);
+                        putInt(s.data, pos, v.leftDelta());
+                        putInt(s.data, pos + 4, v.rightDelta());
+                        s.commit(n);
+                        s.lastAdd = off - HEADER;
+                        s.lastStream = v.streamId();
+                    }
+                }
+                apply.accept(mutation);
+            } finally {
+                s.lock.unlock();
+            }
+        } else if (mutation instanceof Mutation.UserVote v) {
+            byte[] sid = streamBytes(v.streamId());
+            byte[] uid = utf8(v.userId());
+            int n = 1 + 2 + sid.length + 2 + uid.length + 8;
+            // 按用户分段：同一用户的分配覆盖按提交先后写入日志
+            Stripe s = stripes[stripe(v.userId().hashCode())];
+            s.lock.lock();
+            try {
+                if (HEADER + n > STRIPE_BYTES) {
+                    s.appendDirect(encodeUserVote(sid, uid, v.left(), v.right()));
+                } else {
+                    int off = s.reserve(n);
+                    s.data[off] = USER_VOTE;
+                    int pos = putString(s.data, off + 1, sid);
+                    pos = putString(s.data, pos, uid);
+                    putInt(s.data, pos, v.left());
+                    putInt(s.data, pos + 4, v.right());
+                    s.commit(n);
+                }
+                apply.accept(mutation);
+            } finally {
+                s.lock.unlock();
+            }
+        } else if (mutation instanceof Mutation.VoteSet v) {
+            writeExclusive(encodeVote(VOTE_SET, streamBytes(v.streamId()), v.left(), v.right()), mutation, apply);
+        } else {
+            writeExclusive(encodeJson(mutation), mutation, apply);
+        }
+    }
+
+    private void writeExclusive(byte[] record, Mutation mutation, Consumer<Mutation> apply) {
+        exclusive(() -> {
+            append(record, record.length);
+            apply.accept(mutation);
+        });
+    }
+
+    /** 持有全部分段锁与 lock 执行：之前缓冲的投票先写入日志，执行期间没有并发的投票 */
+    private void exclusive(Runnable body) {
+        for (Stripe s : stripes) s.lock.lock();
+        lock.lock();
+        try {
+            for (Stripe s : stripes) drain(s);
+            body.run();
+        } finally {
+            lock.unlock();
+            for (int i = stripes.length - 1; i >= 0; i--) stripes[i].lock.unlock();
+        }
+    }
+
+    /** 把分段缓冲写入映射段，调用方持有该分段锁 */
+    private void drain(Stripe s) {
+        if (s.size == 0) return;
+        s.seal();
+        lock.lock();
+        try {
+            if (buf.remaining() < s.size) roll();
+            buf.put(s.data, 0, s.size);
+            appended += s.records;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 切换段失败", e);
+        } finally {
+            lock.unlock();
+        }
+        s.size = 0;
+        s.records = 0;
+        s.lastAdd = -1;
+        s.lastStream = null;
+    }
+
+    /** 逐个分段写入映射段，不要求分段之间的先后 */
+    private void drainAll() {
+        for (Stripe s : stripes) {
+            s.lock.lock();
+            try {
+                drain(s);
+            } finally {
+                s.lock.unlock();
+            }
+        }
+    }
+
+    private int stripe(int hash) {
+        return (hash * 0x9E3779B9) >>> stripeShift;
+    }
+
+    /** 追加一条记录，调用方持有 lock */
+    private void append(byte[] record, int n) {
+        if (HEADER + n > segmentSize) throw new IllegalArgumentException("变更过大: " + n + " bytes");
+        try {
+            if (buf.remaining() < HEADER + n) roll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("WAL 切换段失败", e);
+        }
+        crc.reset();
+        crc.update(record, 0, n);
+        buf.putInt(n).putInt((int) crc.getValue()).put(record, 0, n);
+        appended++;
+        dirty = true;
+    }
+
+    private byte[] streamBytes(String streamId) {
+        byte[] b = idBytes.get(streamId);
+        return b != null ? b : idBytes.computeIfAbsent(streamId, WalStateStore::utf8);
+    }
+
+    /** 二进制记录只用 2 字节记 id 长度，超长的 id 在追加前拒绝，避免写出能通过校验的错位记录 */
+    private static byte[] utf8(String id) {
+        byte[] b = id.getBytes(StandardCharsets.UTF_8);
+        if (b.length > MAX_ID_BYTES) throw new IllegalArgumentException("id 过长: " + b.length + " bytes");
+        return b;
+    }
+
+    private static byte[] encodeVote(byte type, byte[] sid, int a, int b) {
+        byte[] out = new byte[1 + 2 + sid.length + 8];
+        out[0] = type;
+        int pos = putString(out, 1, sid);
+        putInt(out, pos, a);
+        putInt(out, pos + 4, b);
+        return out;
+    }
+
+    private static byte[] encodeUserVote(byte[] sid, byte[] uid, int left, int right) {
+        byte[] out = new byte[1 + 2 + sid.length + 2 + uid.length + 8];
+        out[0] = USER_VOTE;
+        int pos = putString(out, 1, sid);
+        pos = putString(out, pos, uid);
+        putInt(out, pos, left);
+        putInt(out, pos + 4, right);
+        return out;
+    }
+
+    private byte[] encodeJson(Mutation m) {
+        int idx = JSON_TYPES.indexOf(m.getClass());
+        try {
+            byte[] json = mapper.writeValueAsBytes(m);
+            byte[] record = new byte[json.length + 1];
+            record[0] = (byte) (JSON_BASE + idx);
+            System.arraycopy(json, 0, record, 1, json.length);
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException("变更序列化失败: " + m.getClass().getSimpleName(), e);
+        }
+    }
+
+    private Mutation decode(byte[] p) throws IOException {
+        byte type = p[0];
+        if (type == VOTE_ADD || type == VOTE_SET) {
+            int len = ((p[1] & 0xff) << 8) | (p[2] & 0xff);
+            String sid = new String(p, 3, len, StandardCharsets.UTF_8);
+            int a = getInt(p, 3 + len);
+            int b = getInt(p, 7 + len);
+            return type == VOTE_ADD ? new Mutation.VoteAdd(sid, a, b) : new Mutation.VoteSet(sid, a, b);
+        }
+        if (type == USER_VOTE) {
+            int sl = ((p[1] & 0xff) << 8) | (p[2] & 0xff);
+            String sid = new String(p, 3, sl, StandardCharsets.UTF_8);
+            int pos = 3 + sl;
+            int ul = ((p[pos] & 0xff) << 8) | (p[pos + 1] & 0xff);
+            String uid = new String(p, pos + 2, ul, StandardCharsets.UTF_8);
+            pos += 2 + ul;
+            return new Mutation.UserVote(sid, uid, getInt(p, pos), getInt(p, pos + 4));
+        }
+        return mapper.readValue(p, 1, p.length - 1, JSON_TYPES.get(type - JSON_BASE));
+    }
+
+    /** 回放一个段；返回 false 表示遇到残缺记录（其后内容作废），end[0] 为有效数据末尾 */
+    private boolean replaySegment(long seg, int from, Consumer<Mutation> onMutation, int[] end) throws IOException {
+        try (FileChannel ch = FileChannel.open(segmentPath(seg), StandardOpenOption.READ)) {
+            int size = (int) ch.size();
+            MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int pos = from;
+            end[0] = pos;
+            while (pos + HEADER <= size) {
+                int len = mb.getInt(pos);
+                if (len == 0) return true;
+                if (len < 0 || pos + HEADER + len > size) return false;
+                int expected = mb.getInt(pos + 4);
+                byte[] payload = new byte[len];
+                mb.get(pos + HEADER, payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != expected) return false;
+                onMutation.accept(decode(payload));
+                replayed++;
+                pos += HEADER + len;
+                end[0] = pos;
+            }
+            return true;
+        }
+    }
+
+    private void openSegment(long seg, int position, boolean zeroTail) throws IOException {
+        FileChannel ch = FileChannel.open(segmentPath(seg),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) Math.max(segmentSize, ch.size());
+        MappedByteBuffer mb = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (zeroTail) {
+            byte[] zeros = new byte[64 * 1024];
+            for (int p = position; p < size; p += zeros.length) mb.put(p, zeros, 0, Math.min(zeros.length, size - p));
+        }
+        mb.position(position);
+        this.channel = ch;
+        this.segment = seg;
+        this.buf = mb;
+    }
+
+    private void roll() throws IOException {
+        buf.force();
+        channel.close();
+        openSegment(segment + 1, 0, false);
+    }
+
+    /** 组提交：把分段缓冲写入映射段并刷盘，后台每 flush-interval-ms 执行一次 */
+    public void flush() {
+        try {
+            drainAll();
+            if (!dirty) return;
+            dirty = false;
+            buf.force();
+        } catch (Exception e) {
+            log.warn("WAL 刷盘失败: {}", e.getMessage());
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            log.warn("快照失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 生成快照并删除已被快照覆盖的段文件。状态在写锁外读取（见 {@link SnapshotCapture}），
+     * 写锁（全部分段锁 + lock）只在开始与封口时各持有一次，封口时记下日志位置，恢复时从该位置回放
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (captures == null) return;
+        long t0 = System.nanoTime();
+        SnapshotCapture capture = captures.get();
+        long[] at = new long[2];
+        exclusive(capture::begin);
+        try {
+            capture.read();
+        } finally {
+            exclusive(() -> {
+                capture.seal();
+                at[0] = segment;
+                at[1] = buf.position();
+            });
+        }
+        long seg = at[0];
+        int off = (int) at[1];
+        StateSnapshot state = capture.build();
+        flush();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("segment", seg);
+        root.put("offset", off);
+        root.set("state", mapper.valueToTree(state));
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap(mapper.writeValueAsBytes(root)));
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (long s : listSegments()) {
+            if (s < seg) Files.deleteIfExists(segmentPath(s));
+        }
+        lastCheckpointAt = System.currentTimeMillis();
+        lastCheckpointMillis = (System.nanoTime() - t0) / 1_000_000;
+        log.debug("快照完成: segment={}, offset={}, 耗时 {}ms", seg, off, lastCheckpointMillis);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+        checkpointQuietly();
+        if (buf == null) return;
+        exclusive(() -> {
+            try {
+                buf.force();
+                channel.close();
+            } catch (IOException e) {
+                log.warn("WAL 关闭失败: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        // 先写入分段缓冲，位置与条数包含全部已提交的变更
+        if (buf != null) drainAll();
+        Map<String, Object> m = new HashMap<>();
+        m.put("type", "wal");
+        m.put("dir", dir.toAbsolutePath().toString());
+        m.put("segment", segment);
+        m.put("segmentOffset", buf != null ? buf.position() : 0);
+        m.put("appended", appended);
+        m.put("replayed", replayed);
+        m.put("recoveryMillis", recoveryMillis);
+        m.put("lastCheckpointAt", lastCheckpointAt);
+        m.put("lastCheckpointMillis", lastCheckpointMillis);
+        return m;
+    }
+
+    /**
+     * 投票分段：缓冲中是 [len][crc32][type][payload] 记录，crc32 在写入日志前统一补写；字段均由分段锁保护。
+     * 同一流的普通投票合并进缓冲中该流最近一条增量记录，回放结果不变
+     */
+    private final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final CRC32 crc = new CRC32();
+        final byte[] data = new byte[STRIPE_BYTES];
+        int size;
+        int records;
+        /** 最近一条普通投票记录的起点与流 id，-1 表示没有 */
+        int lastAdd = -1;
+        String lastStream;
+
+        /** 把增量累加到同一流最近的增量记录上；不能合并（不同流或累加溢出）时返回 false */
+        boolean merge(String streamId, int a, int b) {
+            if (lastStream == null || !lastStream.equals(streamId)) return false;
+            int len = ((data[lastAdd + HEADER + 1] & 0xff) << 8) | (data[lastAdd + HEADER + 2] & 0xff);
+            int pos = lastAdd + HEADER + 3 + len;
+            long left = (long) getInt(data, pos) + a, right = (long) getInt(data, pos + 4) + b;
+            if (left != (int) left || right != (int) right) return false;
+            putInt(data, pos, (int) left);
+            putInt(data, pos + 4, (int) right);
+            return true;
+        }
+
+        /** 预留 n 字节负载，返回负载起点；缓冲不足时先写入日志 */
+        int reserve(int n) {
+            if (size + HEADER + n > data.length) drain(this);
+            return size + HEADER;
+        }
+
+        /** 放不进缓冲的大记录：先写入本分段之前的记录，再直接追加 */
+        void appendDirect(byte[] record) {
+            drain(this);
+            WalStateStore.this.lock.lock();
+            try {
+                append(record, record.length);
+            } finally {
+                WalStateStore.this.lock.unlock();
+            }
+        }
+
+        /** 补写刚编码好的负载的长度 */
+        void commit(int n) {
+            putInt(data, size, n);
+            size += HEADER + n;
+            records++;
+        }
+
+        /** 写入日志前补写每条记录的 crc32 */
+        void seal() {
+            for (int p = 0; p < size; ) {
+                int n = getInt(data, p);
+                crc.reset();
+                crc.update(data, p + HEADER, n);
+                putInt(data, p + 4, (int) crc.getValue());
+                p += HEADER + n;
+            }
+        }
+    }
+
+    private Path segmentPath(long seg) {
+        return dir.resolve("wal-" + seg + ".log");
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> SEGMENT.matcher(p.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Long.parseLong(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** 写入 [short len][bytes]，返回写入后的位置 */
+    private static int putString(byte[] b, int off, byte[] s) {
+        b[off] = (byte) (s.length >>> 8);
+        b[off + 1] = (byte) s.length;
+        System.arraycopy(s, 0, b, off + 2, s.length);
+        return off + 2 + s.length;
+    }
+
+    private static void putInt(byte[] b, int off, int v) {
+        b[off] = (byte) (v >>> 24);
+        b[off + 1] = (byte) (v >>> 16);
+        b[off + 2] = (byte) (v >>> 8);
+        b[off + 3] = (byte) v;
+    }
+
+    private static int getInt(byte[] b, int off) {
+        return ((b[off] & 0xff) << 24) | ((b[off + 1] & 0xff) << 16) | ((b[off + 2] & 0xff) << 8) | (b[off + 3] & 0xff);
+    }
+}
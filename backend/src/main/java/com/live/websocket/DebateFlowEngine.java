@@ -0,0 +1,242 @@
+package com.live.websocket;
+
+import com.live.common.HashedWheelTimer;
+import com.live.model.FlowSegment;
+import com.live.service.MockDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务端辩论流程计时：每流一个状态机（idle / running / paused / finished），计时由共享时间轮驱动。
+ * <ul>
+ *   <li>flow-state：控制命令、环节切换时推送完整状态（含 endsAt，客户端可本地倒计时）；</li>
+ *   <li>flow-tick：运行中每秒推送剩余秒数，用于校正各屏幕误差；</li>
+ *   <li>客户端订阅流时立即收到该流当前 flow-state（快照订阅时包含在 snapshot.flow 中），迟到者无需轮询。</li>
+ * </ul>
+ * 状态变化后发布不可变视图，读取（订阅同步、快照、查询）不加锁。
+ * 环节定义每次切换时从 MockDataService 读取，运行中修改流程对后续环节生效。
+ */
+@Slf4j
+@Component
+public class DebateFlowEngine {
+
+    static final String STATE_EVENT = "flow-state";
+    static final String TICK_EVENT = "flow-tick";
+    private static final Set<String> ACTIONS = Set.of("start", "pause", "resume", "next", "prev", "reset");
+
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final long tickMs;
+    private final int wheelSize;
+    private final Map<String, Flow> flows = new ConcurrentHashMap<>();
+    private HashedWheelTimer timer;
+
+    public DebateFlowEngine(MockDataService mock, LiveWebSocketHandler ws,
+                            @Value("${live.flow.timer-tick-ms:50}") long tickMs,
+                            @Value("${live.flow.wheel-size:512}") int wheelSize) {
+        this.mock = mock;
+        this.ws = ws;
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        timer = new HashedWheelTimer("flow-timer", tickMs, wheelSize);
+        ws.onSubscribe((streamId, send) -> {
+            Flow f = flows.get(streamId);
+            if (f != null) send.accept(ws.encode(STATE_EVENT, f.state(System.currentTimeMillis())));
+        });
+        ws.addSnapshotPart("flow", this::state);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (timer != null) timer.stop();
+    }
+
+    /**
+     * 执行控制命令：start / pause / resume / next / prev / reset
+     *
+     * @return 执行后的状态；命令无法识别或流不存在时返回 null（不创建流程状态）
+     */
+    public Map<String, Object> control(String streamId, String action) {
+        if (!ACTIONS.contains(action) || mock.getStream(streamId) == null) return null;
+        Flow f = flows.computeIfAbsent(streamId, Flow::new);
+        synchronized (f) {
+            long now = System.currentTimeMillis();
+            switch (action) {
+                case "start" -> {
+                    if (f.status.equals("running")) break;
+                    if (f.status.equals("paused")) {
+                        f.resume(now);
+                    } else {
+                        f.enter(0, now, true);
+                    }
+                }
+                case "pause" -> {
+                    if (!f.status.equals("running")) break;
+                    f.cancelTick();
+                    f.remainingMs = Math.max(0, f.endsAt - now);
+                    f.status = "paused";
+                }
+                case "resume" -> {
+                    if (f.status.equals("paused")) f.resume(now);
+                }
+                case "next" -> f.enter(f.index + 1, now, f.status.equals("running"));
+                case "prev" -> f.enter(Math.max(0, f.index - 1), now, f.status.equals("running"));
+                case "reset" -> {
+                    f.cancelTick();
+                    f.index = 0;
+                    f.status = "idle";
+                    f.remainingMs = durationMs(segments(streamId), 0);
+                    f.endsAt = 0;
+                }
+            }
+            f.publish();
+            Map<String, Object> state = f.state(now);
+            ws.broadcast(streamId, STATE_EVENT, state);
+            return state;
+        }
+    }
+
+    /** 当前状态（未启动过的流返回 idle） */
+    public Map<String, Object> state(String streamId) {
+        Flow f = flows.get(streamId);
+        return (f != null ? f : new Flow(streamId)).state(System.currentTimeMillis());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("flows", flows.size());
+        data.put("running", flows.values().stream().filter(f -> f.view.status().equals("running")).count());
+        data.put("pendingTimers", timer.size());
+        data.put("timerTickMs", tickMs);
+        return data;
+    }
+
+    private List<FlowSegment> segments(String streamId) {
+        return mock.getDebateFlow(streamId);
+    }
+
+    private static long durationMs(List<FlowSegment> segments, int index) {
+        return index < segments.size() ? segments.get(index).duration() * 1000L : 0;
+    }
+
+    /** 对外可见的流程状态，只读 */
+    private record View(String status, int index, long endsAt, long remainingMs) {}
+
+    /** 单流流程状态；可变字段在 synchronized(this) 下读写，修改后 publish() 生成新视图 */
+    private final class Flow {
+        final String streamId;
+        String status = "idle";
+        int index;
+        long endsAt;
+        long remainingMs;
+        HashedWheelTimer.Timeout tick;
+        /** 计时代数：每次重新排期递增，过期回调据此忽略 */
+        long generation;
+        volatile View view;
+
+        Flow(String streamId) {
+            this.streamId = streamId;
+            this.remainingMs = durationMs(segments(streamId), 0);
+            publish();
+        }
+
+        void publish() {
+            view = new View(status, index, endsAt, remainingMs);
+        }
+
+        /** 进入第 i 个环节，start 为环节开始时间；超出末尾则结束 */
+        void enter(int i, long start, boolean run) {
+            cancelTick();
+            List<FlowSegment> segs = segments(streamId);
+            if (i >= segs.size()) {
+                index = Math.max(0, segs.size() - 1);
+                status = "finished";
+                remainingMs = 0;
+                endsAt = start;
+                return;
+            }
+            index = i;
+            remainingMs = durationMs(segs, i);
+            if (run) {
+                status = "running";
+                endsAt = start + remainingMs;
+                scheduleTick(System.currentTimeMillis());
+            } else {
+                endsAt = 0;
+                if (status.equals("finished")) status = "paused";
+            }
+        }
+
+        void resume(long now) {
+            status = "running";
+            endsAt = now + remainingMs;
+            scheduleTick(now);
+        }
+
+        void cancelTick() {
+            generation++;
+            if (tick != null) {
+                tick.cancel();
+                tick = null;
+            }
+        }
+
+        /** 下一次 tick 对齐到整秒剩余时间 */
+        void scheduleTick(long now) {
+            long left = endsAt - now;
+            long delay = left <= 0 ? 0 : (left % 1000 == 0 ? 1000 : left % 1000);
+            long g = ++generation;
+            tick = timer.schedule(() -> onTick(g), delay);
+        }
+
+        void onTick(long g) {
+            synchronized (this) {
+                if (g != generation || !status.equals("running")) return;
+                long now = System.currentTimeMillis();
+                if (now >= endsAt - tickMs / 2) {
+                    // 下一环节从本环节的计划结束时间起算，计时不随调度延迟累积漂移
+                    enter(index + 1, endsAt, true);
+                    publish();
+                    ws.broadcast(streamId, STATE_EVENT, state(now));
+                    return;
+                }
+                Map<String, Object> data = new HashMap<>();
+                data.put("streamId", streamId);
+                data.put("index", index);
+                data.put("remaining", Math.round((endsAt - now) / 1000.0));
+                ws.broadcast(streamId, TICK_EVENT, data);
+                scheduleTick(now);
+            }
+        }
+
+        Map<String, Object> state(long now) {
+            View v = view;
+            List<FlowSegment> segs = segments(streamId);
+            boolean running = v.status().equals("running");
+            long remaining = running ? Math.max(0, v.endsAt() - now) : v.remainingMs();
+            Map<String, Object> data = new HashMap<>();
+            data.put("streamId", streamId);
+            data.put("status", v.status());
+            data.put("index", v.index());
+            data.put("total", segs.size());
+            data.put("segment", v.index() < segs.size() ? segs.get(v.index()) : null);
+            data.put("remaining", Math.round(remaining / 1000.0));
+            data.put("endsAt", running ? v.endsAt() : null);
+            data.put("serverTime", now);
+            return data;
+        }
+    }
+}
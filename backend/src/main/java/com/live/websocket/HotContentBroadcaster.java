@@ -0,0 +1,186 @@
+package com.live.websocket;
+
+import com.live.common.SpaceSaving;
+import com.live.model.AIContent;
+import com.live.service.CommentBoard;
+import com.live.service.MockDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 热点 AI 内容互动推送：点赞 / 评论不逐条推送，每个周期取出有变化的内容，
+ * 按流用 Space-Saving 统计近期互动量（点赞 + 评论增量，按半衰期衰减），
+ * 只对前 top-k 且有变化的内容每流推送一次 engagement-updated（当前点赞数、评论数及自上次推送以来的增量）。
+ * 每流每周期最多一条消息、最多 top-k 项；非热点内容的计数通过接口读取。
+ * 点赞与评论不跨节点同步，各节点只推送本节点的计数。
+ */
+@Slf4j
+@Component
+public class HotContentBroadcaster {
+
+    static final String[] ENGAGEMENT_EVENTS = {"engagement-updated"};
+    /** 互动量半衰期：约 10 秒前的互动权重减半 */
+    private static final long HALF_LIFE_MS = 10_000;
+    /** 衰减到该值以下的条目移出统计 */
+    private static final double MIN_WEIGHT = 0.05;
+    /** 每流跟踪的候选数 = top-k × 该倍数 */
+    private static final int SKETCH_FACTOR = 4;
+
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final long intervalMs;
+    private final int topK;
+    private final double decay;
+    /** 每流热点统计，只由推送线程访问 */
+    private final Map<String, SpaceSaving> sketches = new HashMap<>();
+    /** 在统计中的内容：所属流与尚未推送的增量，只由推送线程访问 */
+    private final Map<String, Pending> pending = new HashMap<>();
+    /** 最近一次各流热点内容 id（供统计接口读取） */
+    private final Map<String, List<String>> lastHot = new ConcurrentHashMap<>();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder itemsSent = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    public HotContentBroadcaster(MockDataService mock, LiveWebSocketHandler ws,
+                                 @Value("${live.engagement.broadcast-interval-ms:500}") long intervalMs,
+                                 @Value("${live.engagement.top-k:10}") int topK) {
+        this.mock = mock;
+        this.ws = ws;
+        this.intervalMs = intervalMs;
+        this.topK = Math.max(1, topK);
+        this.decay = Math.pow(0.5, (double) intervalMs / HALF_LIFE_MS);
+    }
+
+    @PostConstruct
+    public void start() {
+        // 启动恢复产生的变化不算互动
+        mock.drainEngagementChanges();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "engagement-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("热点互动推送周期: {}ms, top-k: {}", intervalMs, topK);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    void flush() {
+        try {
+            Map<String, CommentBoard.Change> changed = mock.drainEngagementChanges();
+            changes.add(changed.size());
+            sketches.values().forEach(s -> s.decay(decay, MIN_WEIGHT));
+            Set<String> touched = record(changed);
+            sketches.forEach((streamId, sketch) -> {
+                List<String> hot = sketch.top(topK);
+                lastHot.put(streamId, hot);
+                if (touched.contains(streamId)) push(streamId, hot, changed);
+            });
+            prune();
+        } catch (Exception e) {
+            log.warn("热点互动推送失败: {}", e.getMessage());
+        }
+    }
+
+    /** 把本周期的增量计入各流统计与待推送增量，返回有内容变化的流 */
+    private Set<String> record(Map<String, CommentBoard.Change> changed) {
+        Set<String> touched = new HashSet<>();
+        changed.forEach((contentId, c) -> {
+            AIContent content = mock.getAIContent(contentId);
+            if (content == null) {
+                Pending p = pending.remove(contentId);
+                SpaceSaving sketch = p != null ? sketches.get(p.streamId) : null;
+                if (sketch != null) sketch.remove(contentId);
+                return;
+            }
+            String streamId = content.streamId();
+            SpaceSaving sketch = sketches.computeIfAbsent(streamId, k -> new SpaceSaving(topK * SKETCH_FACTOR));
+            sketch.add(contentId, Math.max(0, c.likesDelta()) + Math.max(0, c.commentsDelta()));
+            Pending p = pending.computeIfAbsent(contentId, k -> new Pending(streamId));
+            p.likesDelta += c.likesDelta();
+            p.commentsDelta += c.commentsDelta();
+            touched.add(streamId);
+        });
+        return touched;
+    }
+
+    /** 推送本周期有变化的热点内容 */
+    private void push(String streamId, List<String> hot, Map<String, CommentBoard.Change> changed) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (String contentId : hot) {
+            CommentBoard.Change c = changed.get(contentId);
+            Pending p = pending.get(contentId);
+            if (c == null || p == null) continue;
+            Map<String, Object> item = new HashMap<>();
+            item.put("contentId", contentId);
+            item.put("likes", c.likes());
+            item.put("likesDelta", p.likesDelta);
+            item.put("comments", c.comments());
+            item.put("commentsDelta", p.commentsDelta);
+            items.add(item);
+            p.likesDelta = 0;
+            p.commentsDelta = 0;
+        }
+        if (items.isEmpty()) return;
+        Map<String, Object> data = new HashMap<>();
+        data.put("streamId", streamId);
+        data.put("items", items);
+        ws.broadcastLocal(streamId, ENGAGEMENT_EVENTS, data);
+        sent.increment();
+        itemsSent.add(items.size());
+    }
+
+    /** 移出统计的内容不再保留待推送增量；统计为空的流移除 */
+    private void prune() {
+        pending.entrySet().removeIf(e -> {
+            SpaceSaving sketch = sketches.get(e.getValue().streamId);
+            return sketch == null || sketch.count(e.getKey()) == 0;
+        });
+        sketches.entrySet().removeIf(e -> {
+            if (!e.getValue().isEmpty()) return false;
+            lastHot.remove(e.getKey());
+            return true;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("intervalMs", intervalMs);
+        data.put("topK", topK);
+        data.put("changes", changes.sum());
+        data.put("sent", sent.sum());
+        data.put("itemsSent", itemsSent.sum());
+        data.put("hot", new HashMap<>(lastHot));
+        return data;
+    }
+
+    private static final class Pending {
+        final String streamId;
+        long likesDelta;
+        long commentsDelta;
+
+        Pending(String streamId) {
+            this.streamId = streamId;
+        }
+    }
+}
@@ -1,73 +1,541 @@
 package com.live.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.live.metrics.LiveMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
-import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * WebSocket 实时通信：liveStatus, votes-updated, aiStatus, newAIContent, debate-updated, connected
+ * <p>
+ * 客户端可按流订阅：{"type":"subscribe","streamId":"stream-1","events":["votes-updated"]}，
+ * 或连接时带 ?stream_id=；events 省略表示该流全部事件。未订阅任何流的客户端默认接收全部流的广播
+ * （兼容不发送 subscribe 的客户端；live.ws.legacy-broadcast=false 时只收全局事件）。
+ * <p>
+ * 流内事件带递增序号 seq。订阅时带 "snapshot":true 先收到一条 snapshot（该流完整状态），之后只收增量；
+ * 重连时带 "since":上次的 seq 与 "epoch"（subscribed / snapshot 中返回），缓冲内可续传则补发缺失事件（resumed），
+ * 否则回退为 snapshot。连接参数等价写法：?stream_id=&snapshot=1&since=&epoch=
+ * 订阅不存在的流返回 error；长时间无订阅者的流通道被释放（见 {@link #pruneChannels(long)}）。
+ * <p>
+ * 连接时带 ?encoding=binary 时，票数 / 流程计时 / 观看人数等高频事件改发紧凑二进制帧（格式见 {@link WsBinaryCodec}），
+ * 其余事件仍为 JSON；默认 JSON。
+ * <p>
+ * 多节点部署时 broadcast(...) 的事件经 {@link Relay}（广播总线）发往其他节点，各节点只向自己的会话投递。
+ * <p>
+ * 发送全部经过每会话的有界队列（{@link SessionOutbox}），由发送线程池异步排空，广播不阻塞请求线程。
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LiveWebSocketHandler extends TextWebSocketHandler {
 
-    private static final Map<String, WebSocketSession> SESSIONS = new ConcurrentHashMap<>();
+    private static final byte[] EMPTY_DATA = {'{', '}'};
+
+    private final Map<String, SessionOutbox> sessions = new ConcurrentHashMap<>();
+    private final TopicRegistry topics;
+    private final ViewerPresence viewers = new ViewerPresence();
     private final ObjectMapper objectMapper;
+    private final LiveMetrics metrics;
+    private final int queueCapacity;
+    private final SessionOutbox.OverflowPolicy overflowPolicy;
+    private final Executor sendExecutor;
+    private final List<BiConsumer<String, Consumer<WsFrame>>> subscribeListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, StreamChannel> channels = new ConcurrentHashMap<>();
+    private final List<SnapshotPart> snapshotParts = new CopyOnWriteArrayList<>();
+    private final int resumeBuffer;
+    private final long snapshotCacheMs;
+    /** 心跳统计：发出的 ping、收到的 pong、因心跳超时被移除的会话 */
+    private final LongAdder pingsSent = new LongAdder();
+    private final LongAdder pongsReceived = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private volatile Relay relay;
+    /** 订阅时校验流是否存在 */
+    private volatile Predicate<String> streamExists = sid -> true;
+    /**
+     * 通道 epoch 分配：以启动时间为基数递增，重启或通道释放后新建的通道 epoch 不同，
+     * epoch 不同的续传请求一律回退为快照
+     */
+    private final AtomicLong epochs = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public LiveWebSocketHandler(ObjectMapper objectMapper, LiveMetrics metrics,
+                                @Value("${live.ws.send-queue-capacity:256}") int queueCapacity,
+                                @Value("${live.ws.overflow-policy:LATEST_SNAPSHOT}") SessionOutbox.OverflowPolicy overflowPolicy,
+                                @Value("${live.ws.send-threads:8}") int sendThreads,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                @Value("${live.ws.resume-buffer:1024}") int resumeBuffer,
+                                @Value("${live.ws.snapshot-cache-ms:200}") long snapshotCacheMs,
+                                @Value("${live.ws.legacy-broadcast:true}") boolean legacyBroadcast) {
+        this.topics = new TopicRegistry(legacyBroadcast);
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.resumeBuffer = resumeBuffer;
+        this.snapshotCacheMs = snapshotCacheMs;
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            // 与 Spring Boot 对 Tomcat 的处理一致：运行时不支持时忽略该开关
+            log.warn("spring.threads.virtual.enabled 需要 Java 21+，当前 Java {}，WebSocket 发送改用平台线程池", Runtime.version().feature());
+            virtualThreads = false;
+        }
+        if (virtualThreads) {
+            // 虚拟线程模式（运行于 Java 21）：每次排空一个虚拟线程，慢客户端阻塞不占用平台线程
+            this.sendExecutor = new VirtualThreadTaskExecutor("ws-send-");
+        } else {
+            AtomicInteger n = new AtomicInteger();
+            this.sendExecutor = Executors.newFixedThreadPool(sendThreads, r -> {
+                Thread t = new Thread(r, "ws-send-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        log.info("WebSocket 发送线程: {}", virtualThreads ? "virtual" : "platform x " + sendThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sendExecutor instanceof ExecutorService es) es.shutdownNow();
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        SESSIONS.put(session.getId(), session);
+        SessionOutbox outbox = new SessionOutbox(session, queueCapacity, overflowPolicy, sendExecutor, viewers.member(), metrics);
+        var params = queryParams(session);
+        outbox.setBinary("binary".equals(params.get("encoding")));
+        sessions.put(session.getId(), outbox);
+        topics.register(outbox);
         log.info("WebSocket 连接: {}", session.getId());
-        sendMessage(session, "connected", Map.of(
+        sendMessage(outbox, "connected", Map.of(
                 "message", "连接成功",
-                "sessionId", session.getId()
+                "sessionId", session.getId(),
+                "encoding", outbox.isBinary() ? "binary" : "json"
         ));
+        String streamId = params.getOrDefault("stream_id", params.get("streamId"));
+        if (streamId != null && !streamId.isEmpty()) {
+            subscribe(outbox, streamId, Set.of(), "1".equals(params.get("snapshot")) || "true".equals(params.get("snapshot")),
+                    parseLong(params.get("since"), -1), parseLong(params.get("epoch"), 0));
+        }
     }
 
     @Override
-    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+    protected void handleTextMessage(WebSocketSession ws, TextMessage message) throws Exception {
         log.debug("收到消息: {}", message.getPayload());
+        SessionOutbox session = sessions.get(ws.getId());
+        if (session == null) return;
+        session.viewer().touch(System.currentTimeMillis());
+        JsonNode msg;
+        try {
+            msg = objectMapper.readTree(message.getPayload());
+        } catch (Exception e) {
+            return;
+        }
+        String type = msg.path("type").asText("");
+        switch (type) {
+            case "subscribe" -> {
+                String streamId = streamIdOf(msg);
+                if (streamId == null) return;
+                Set<String> events = new HashSet<>();
+                msg.path("events").forEach(e -> events.add(e.asText()));
+                subscribe(session, streamId, events, msg.path("snapshot").asBoolean(false),
+                        msg.path("since").asLong(-1), msg.path("epoch").asLong(0));
+            }
+            case "unsubscribe" -> {
+                String streamId = streamIdOf(msg);
+                topics.unsubscribe(session, streamId);
+                if (streamId != null) session.viewer().exit(streamId);
+                else session.viewer().exitAll();
+                sendMessage(session, "unsubscribed", Map.of("streamId", streamId != null ? streamId : ""));
+            }
+            case "ping" -> sendMessage(session, "pong", Map.of("timestamp", System.currentTimeMillis()));
+            default -> { }
+        }
+    }
+
+    @Override
+    protected void handlePongMessage(WebSocketSession ws, PongMessage message) {
+        SessionOutbox session = sessions.get(ws.getId());
+        if (session == null) return;
+        pongsReceived.increment();
+        session.viewer().touch(System.currentTimeMillis());
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        SESSIONS.remove(session.getId());
+        SessionOutbox outbox = sessions.remove(session.getId());
+        if (outbox != null) release(outbox);
         log.info("WebSocket 断开: {}", session.getId());
     }
 
-    /** 向所有客户端广播 */
-    public static void broadcast(String type, Object data) {
-        String payload = toJson(type, data);
-        SESSIONS.values().forEach(session -> {
-            try {
-                if (session.isOpen()) {
-                    session.sendMessage(new TextMessage(payload));
+    /**
+     * 心跳一轮：超过 timeoutMs 没有任何上行消息（pong、ping 或业务消息）或已关闭的会话立即移出广播集合并关闭，
+     * 其余会话发送一个 ping 控制帧。返回本轮移除的会话数。
+     */
+    public int heartbeat(long timeoutMs) {
+        long deadline = System.currentTimeMillis() - timeoutMs;
+        int n = 0;
+        for (SessionOutbox s : sessions.values()) {
+            if (!s.session().isOpen() || s.viewer().lastSeen() < deadline) {
+                if (sessions.remove(s.id(), s)) {
+                    release(s);
+                    sendExecutor.execute(() -> s.close(CloseStatus.SESSION_NOT_RELIABLE));
+                    evicted.increment();
+                    n++;
+                    log.info("WebSocket 心跳超时，移除会话: {}", s.id());
                 }
-            } catch (IOException e) {
-                log.warn("广播失败: {}", e.getMessage());
+            } else {
+                s.offer(WsFrame.PING);
+                pingsSent.increment();
             }
-        });
+        }
+        return n;
+    }
+
+    /** 当前会话数与心跳统计 */
+    public Map<String, Object> heartbeatStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("sessions", sessions.size());
+        data.put("pingsSent", pingsSent.sum());
+        data.put("pongsReceived", pongsReceived.sum());
+        data.put("evicted", evicted.sum());
+        return data;
+    }
+
+    /** 会话离开：不再接收广播，退出订阅与观看人数统计 */
+    private void release(SessionOutbox outbox) {
+        outbox.markClosed();
+        topics.remove(outbox);
+        outbox.viewer().close();
+    }
+
+    /** 向所有客户端广播（多节点部署时经广播总线同时发往其他节点） */
+    public void broadcast(String type, Object data) {
+        broadcast(null, new String[]{type}, data);
+    }
+
+    /** 向订阅 streamId 的客户端广播；streamId 为空时退化为全量广播 */
+    public void broadcast(String streamId, String type, Object data) {
+        broadcast(streamId, new String[]{type}, data);
+    }
+
+    /** 同一数据以多个事件名向流订阅者广播（兼容旧事件名），data 只序列化一次 */
+    public void broadcast(String streamId, String[] types, Object data) {
+        byte[] dataJson = toJson(data);
+        Relay r = relay;
+        if (r != null) r.publish(streamId, types, dataJson);
+        for (WsFrame frame : frames(types, dataJson, data)) broadcast(streamId, frame);
+    }
+
+    /** 只发给本节点会话：由各节点依据合并后状态各自推送的事件（票数、观看人数） */
+    public void broadcastLocal(String streamId, String[] types, Object data) {
+        for (WsFrame frame : encode(types, data)) broadcast(streamId, frame);
+    }
+
+    /** 投递其他节点发布的事件：只发给本节点会话，不再转发 */
+    public void deliver(String streamId, String[] types, byte[] dataJson) {
+        Object data = null;
+        for (String t : types) {
+            if (WsBinaryCodec.eventId(t) > 0) {
+                try {
+                    data = objectMapper.readValue(dataJson, Map.class);
+                } catch (Exception e) {
+                    log.warn("远端消息解析失败: {}", e.getMessage());
+                }
+                break;
+            }
+        }
+        for (WsFrame frame : frames(types, dataJson, data)) broadcast(streamId, frame);
+    }
+
+    /** 设置订阅校验：不存在的流拒绝订阅，不为其建立通道 */
+    public void setStreamFilter(Predicate<String> streamExists) {
+        this.streamExists = streamExists;
+    }
+
+    /**
+     * 释放无订阅者已超过 windowMs 的流通道（续传窗口已过，其缓冲不再有用），返回释放的通道数。
+     * 由心跳周期调用
+     */
+    public int pruneChannels(long windowMs) {
+        long now = System.currentTimeMillis();
+        int n = 0;
+        for (StreamChannel ch : channels.values()) {
+            synchronized (ch) {
+                if (ch.retired() || !ch.idleExpired(topics.hasSubscribers(ch.streamId()), now, windowMs)) continue;
+                ch.retire();
+                channels.remove(ch.streamId(), ch);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** 当前流通道数 */
+    public int channelCount() {
+        return channels.size();
+    }
+
+    /** 设置跨节点转发；broadcast(...) 发布的事件经它发往其他节点 */
+    public void setRelay(Relay relay) {
+        this.relay = relay;
+    }
+
+    /** 发送预编码帧（仅本节点）：所有接收者共享同一份字节 */
+    public void broadcast(WsFrame frame) {
+        long t0 = System.nanoTime();
+        for (SessionOutbox session : sessions.values()) session.offer(frame);
+        metrics.recordBroadcast(System.nanoTime() - t0);
+    }
+
+    /** 流内广播（仅本节点）：分配流内序号并记入续传缓冲 */
+    public void broadcast(String streamId, WsFrame frame) {
+        if (streamId == null || streamId.isEmpty()) {
+            broadcast(frame);
+            return;
+        }
+        long t0 = System.nanoTime();
+        for (;;) {
+            StreamChannel ch = channel(streamId);
+            synchronized (ch) {
+                if (ch.retired()) continue;
+                WsFrame f = ch.stamp(frame);
+                topics.forEachRecipient(streamId, f.type(), session -> session.offer(f));
+                break;
+            }
+        }
+        metrics.recordBroadcast(System.nanoTime() - t0);
+    }
+
+    /** 序列化为预编码帧 */
+    public WsFrame encode(String type, Object data) {
+        return encode(new String[]{type}, data)[0];
     }
 
-    private static void sendMessage(WebSocketSession session, String type, Object data) throws IOException {
-        session.sendMessage(new TextMessage(toJson(type, data)));
+    /** data 序列化一次，按事件名拼装多个帧；第一个之后的帧视为旧事件名副本 */
+    public WsFrame[] encode(String[] types, Object data) {
+        return frames(types, toJson(data), data);
     }
 
-    private static String toJson(String type, Object data) {
+    private byte[] toJson(Object data) {
         try {
-            return new ObjectMapper().writeValueAsString(Map.of("type", type, "data", data != null ? data : Map.of()));
+            return objectMapper.writeValueAsBytes(data != null ? data : Map.of());
         } catch (Exception e) {
-            return "{\"type\":\"" + type + "\",\"data\":{}}";
+            log.warn("消息序列化失败: {}", e.getMessage());
+            return EMPTY_DATA;
         }
     }
+
+    private WsFrame[] frames(String[] types, byte[] dataJson, Object data) {
+        WsFrame[] frames = new WsFrame[types.length];
+        for (int i = 0; i < types.length; i++) {
+            byte[] head = ("{\"type\":\"" + types[i] + "\",\"data\":").getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[head.length + dataJson.length + 1];
+            System.arraycopy(head, 0, bytes, 0, head.length);
+            System.arraycopy(dataJson, 0, bytes, head.length, dataJson.length);
+            bytes[bytes.length - 1] = '}';
+            frames[i] = new WsFrame(types[i], bytes, data, i > 0, 0);
+        }
+        return frames;
+    }
+
+    /**
+     * 注册订阅回调：客户端订阅某流后以 (streamId, 发送函数) 调用，用于向该客户端补发当前状态（迟到者同步）。
+     * 发送函数只投递该客户端订阅了的事件类型。
+     */
+    public void onSubscribe(BiConsumer<String, Consumer<WsFrame>> listener) {
+        subscribeListeners.add(listener);
+    }
+
+    /**
+     * 注册快照组成部分：snapshot 消息的 data 中 key 对应 part.apply(streamId)。
+     * part 在流通道锁内调用，不得再获取会向该流广播的锁。
+     */
+    public void addSnapshotPart(String key, Function<String, Object> part) {
+        snapshotParts.add(new SnapshotPart(key, part));
+    }
+
+    /** 各流当前观看人数（订阅该流且近期有上行活动的会话数） */
+    public Map<String, Integer> viewerCounts() {
+        return viewers.counts();
+    }
+
+    public int viewerCount(String streamId) {
+        return viewers.count(streamId);
+    }
+
+    /** 移除人数已归零的流的计数器，返回移除数 */
+    public int pruneViewers() {
+        return viewers.prune();
+    }
+
+    /** 超过 idleMs 没有上行消息的会话移出观看人数统计，返回本次移出的会话数 */
+    public int expireIdleViewers(long idleMs) {
+        long deadline = System.currentTimeMillis() - idleMs;
+        int n = 0;
+        for (SessionOutbox s : sessions.values()) {
+            if (s.viewer().expire(deadline)) n++;
+        }
+        return n;
+    }
+
+    /** 当前会话数 */
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    /** 各会话发送队列中待发送的帧数之和 */
+    public long queuedFrames() {
+        long n = 0;
+        for (SessionOutbox s : sessions.values()) n += s.queued();
+        return n;
+    }
+
+    /** 按编码统计的会话数 */
+    public Map<String, Integer> sessionsByEncoding() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (SessionOutbox s : sessions.values()) counts.merge(s.isBinary() ? "binary" : "json", 1, Integer::sum);
+        return counts;
+    }
+
+    /** 发送队列统计：汇总 + 积压最严重的 limit 个会话 */
+    public Map<String, Object> sessionStats(int limit) {
+        List<SessionOutbox> all = List.copyOf(sessions.values());
+        List<Map<String, Object>> top = all.stream()
+                .sorted(Comparator.comparingLong(SessionOutbox::lagMillis).reversed())
+                .limit(limit)
+                .map(SessionOutbox::stats)
+                .toList();
+        Map<String, Object> data = new HashMap<>();
+        data.put("sessions", all.size());
+        data.put("queueCapacity", queueCapacity);
+        data.put("overflowPolicy", overflowPolicy.name());
+        data.put("maxLagMs", top.isEmpty() ? 0 : top.get(0).get("lagMs"));
+        data.put("laggiest", top);
+        return data;
+    }
+
+    /**
+     * 订阅流。snapshot：推送完整状态后只发增量；since >= 0：尝试从该序号续传，不可续传时推送快照。
+     * 快照 / 补发与后续增量在同一通道锁内衔接，不会丢失或重复。
+     */
+    private void subscribe(SessionOutbox session, String streamId, Set<String> events,
+                           boolean snapshot, long since, long clientEpoch) {
+        if (!streamExists.test(streamId)) {
+            sendMessage(session, "error", Map.of("message", "直播流不存在", "streamId", streamId));
+            return;
+        }
+        Consumer<WsFrame> send = frame -> {
+            if (events.isEmpty() || events.contains(frame.type())) session.offer(frame);
+        };
+        for (;;) {
+            StreamChannel ch = channel(streamId);
+            synchronized (ch) {
+                if (ch.retired()) continue;
+                topics.subscribe(session, streamId, events);
+                session.viewer().enter(streamId);
+                sendMessage(session, "subscribed", Map.of("streamId", streamId, "events", events, "seq", ch.seq(), "epoch", ch.epoch()));
+                if (since >= 0 && clientEpoch == ch.epoch() && ch.canResume(since)) {
+                    sendMessage(session, "resumed", Map.of("streamId", streamId, "fromSeq", since, "toSeq", ch.seq()));
+                    ch.replay(since, send);
+                    return;
+                }
+                if (snapshot || since >= 0) {
+                    session.offer(snapshotFrame(streamId, ch));
+                    return;
+                }
+                break;
+            }
+        }
+        for (BiConsumer<String, Consumer<WsFrame>> listener : subscribeListeners) {
+            try {
+                listener.accept(streamId, send);
+            } catch (Exception e) {
+                log.warn("订阅同步失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** 流的完整状态帧；同一序号下短时间内的订阅复用同一帧（重连风暴只编码一次），调用方持有通道锁 */
+    private WsFrame snapshotFrame(String streamId, StreamChannel ch) {
+        long now = System.currentTimeMillis();
+        WsFrame cached = ch.cachedSnapshot(now, snapshotCacheMs);
+        if (cached != null) return cached;
+        Map<String, Object> data = new HashMap<>();
+        data.put("streamId", streamId);
+        data.put("epoch", ch.epoch());
+        for (SnapshotPart part : snapshotParts) {
+            try {
+                data.put(part.key(), part.fn().apply(streamId));
+            } catch (Exception e) {
+                log.warn("快照 {} 生成失败: {}", part.key(), e.getMessage());
+            }
+        }
+        WsFrame frame = encode("snapshot", data).withSeq(streamId, ch.seq());
+        ch.cacheSnapshot(frame, now);
+        return frame;
+    }
+
+    private StreamChannel channel(String streamId) {
+        StreamChannel ch = channels.get(streamId);
+        return ch != null ? ch : channels.computeIfAbsent(streamId, k -> new StreamChannel(k, resumeBuffer, epochs.incrementAndGet()));
+    }
+
+    private static long parseLong(String v, long def) {
+        if (v == null) return def;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    private static String streamIdOf(JsonNode msg) {
+        String sid = msg.path("streamId").asText(null);
+        if (sid == null) sid = msg.path("stream_id").asText(null);
+        return sid == null || sid.isEmpty() ? null : sid;
+    }
+
+    private static Map<String, String> queryParams(WebSocketSession session) {
+        if (session.getUri() == null) return Map.of();
+        return UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().toSingleValueMap();
+    }
+
+    private void sendMessage(SessionOutbox session, String type, Object data) {
+        session.offer(encode(type, data));
+    }
+
+    private record SnapshotPart(String key, Function<String, Object> fn) {}
+
+    /** 跨节点转发：事件名 + 已序列化的 data */
+    @FunctionalInterface
+    public interface Relay {
+        void publish(String streamId, String[] types, byte[] dataJson);
+    }
 }
@@ -0,0 +1,257 @@
+package com.live.websocket;
+
+import com.live.metrics.LiveMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * 会话发送队列：有界环形队列 + 单写者排空，广播线程只入队不阻塞；同一会话的发送天然串行。
+ * 队列满时按 {@link OverflowPolicy} 处理慢客户端。
+ */
+@Slf4j
+public final class SessionOutbox {
+
+    /** 队列满时的处理策略 */
+    public enum OverflowPolicy {
+        /** 丢弃最旧的一帧 */
+        DROP_OLDEST,
+        /**
+         * 丢弃已被取代的覆盖型帧（同流同类型、其后还有更新的一帧，见 {@link WsFrame#replaceable()}）；
+         * 评论、辩题等增量事件不丢弃，腾不出空间时断开，由客户端按 seq 续传或重新取快照
+         */
+        LATEST_SNAPSHOT,
+        /** 断开连接，由客户端重连后重新同步 */
+        DISCONNECT
+    }
+
+    /** 单次排空最多发送帧数，之后让出线程 */
+    private static final int DRAIN_BATCH = 64;
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final OverflowPolicy policy;
+    private final WsFrame[] frames;
+    private final long[] enqueuedAt;
+    private int head;
+    private int size;
+    private boolean draining;
+    private boolean closed;
+    /** 该会话的观看在场状态 */
+    private final ViewerPresence.Member viewer;
+    private final LiveMetrics metrics;
+    /** 二进制编码连接：高频事件发送二进制帧（见 {@link WsBinaryCodec}） */
+    private volatile boolean binary;
+
+    private long enqueued;
+    private long sent;
+    private long dropped;
+    private long failed;
+    /** 最近一帧从入队到发出的耗时 */
+    private volatile long lastLagNanos;
+
+    SessionOutbox(WebSocketSession session, int capacity, OverflowPolicy policy, Executor executor,
+                  ViewerPresence.Member viewer, LiveMetrics metrics) {
+        this.session = session;
+        this.metrics = metrics;
+        this.viewer = viewer;
+        this.policy = policy;
+        this.executor = executor;
+        this.frames = new WsFrame[capacity];
+        this.enqueuedAt = new long[capacity];
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    String id() {
+        return session.getId();
+    }
+
+    ViewerPresence.Member viewer() {
+        return viewer;
+    }
+
+    void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    /** 入队；必要时调度排空任务 */
+    void offer(WsFrame frame) {
+        if (binary && frame.skipForBinary()) return;
+        boolean schedule;
+        boolean disconnect = false;
+        synchronized (this) {
+            if (closed) return;
+            if (size == frames.length) {
+                switch (policy) {
+                    case DROP_OLDEST -> dropHead();
+                    case LATEST_SNAPSHOT -> {
+                        if (!dropSuperseded(frame)) {
+                            disconnect = true;
+                            closed = true;
+                        }
+                    }
+                    case DISCONNECT -> {
+                        disconnect = true;
+                        closed = true;
+                    }
+                }
+            }
+            if (!disconnect) {
+                int tail = (head + size) % frames.length;
+                frames[tail] = frame;
+                enqueuedAt[tail] = System.nanoTime();
+                size++;
+                enqueued++;
+            }
+            schedule = !disconnect && !draining;
+            if (schedule) draining = true;
+        }
+        if (disconnect) {
+            log.warn("WebSocket 发送队列已满，断开慢客户端: {}", id());
+            executor.execute(() -> close(CloseStatus.SESSION_NOT_RELIABLE));
+        } else if (schedule) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < DRAIN_BATCH; i++) {
+            WsFrame frame;
+            long t0;
+            synchronized (this) {
+                if (size == 0 || closed) {
+                    draining = false;
+                    return;
+                }
+                frame = frames[head];
+                t0 = enqueuedAt[head];
+                frames[head] = null;
+                head = (head + 1) % frames.length;
+                size--;
+            }
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(frame.message(binary));
+                    lastLagNanos = System.nanoTime() - t0;
+                    metrics.recordWsSend(lastLagNanos);
+                    synchronized (this) { sent++; }
+                }
+            } catch (IOException | IllegalStateException e) {
+                synchronized (this) { failed++; }
+                metrics.wsSendFailed();
+                log.warn("广播失败: {} {}", id(), e.getMessage());
+            } catch (RuntimeException e) {
+                // 未预期的异常：会话状态不可信，关闭连接，由客户端重连后重新同步（关闭同时结束排空）
+                synchronized (this) { failed++; }
+                metrics.wsSendFailed();
+                log.warn("广播异常，关闭会话: {}", id(), e);
+                close(CloseStatus.SERVER_ERROR);
+                synchronized (this) { draining = false; }
+                return;
+            }
+        }
+        executor.execute(this::drain);
+    }
+
+    void close(CloseStatus status) {
+        markClosed();
+        try {
+            if (session.isOpen()) session.close(status);
+        } catch (IOException e) {
+            log.debug("关闭会话失败: {}", e.getMessage());
+        }
+    }
+
+    /** 会话已关闭：丢弃未发送帧，后续入队直接忽略 */
+    synchronized void markClosed() {
+        closed = true;
+        for (int i = 0; i < size; i++) frames[(head + i) % frames.length] = null;
+        size = 0;
+    }
+
+    private void dropHead() {
+        frames[head] = null;
+        head = (head + 1) % frames.length;
+        size--;
+        dropped++;
+        metrics.wsFramesDropped(1);
+    }
+
+    /**
+     * 丢弃队列中已被取代的覆盖型帧：其后（含即将入队的 incoming）还有同流同类型的帧。
+     * 其余帧保持原有顺序，返回是否有丢弃
+     */
+    private boolean dropSuperseded(WsFrame incoming) {
+        Set<FrameKey> later = new HashSet<>();
+        if (incoming.replaceable()) later.add(new FrameKey(incoming));
+        boolean[] drop = new boolean[size];
+        int n = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            WsFrame f = frames[(head + i) % frames.length];
+            if (f.replaceable() && !later.add(new FrameKey(f))) {
+                drop[i] = true;
+                n++;
+            }
+        }
+        if (n == 0) return false;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            int idx = (head + i) % frames.length;
+            if (drop[i]) continue;
+            int to = (head + kept) % frames.length;
+            frames[to] = frames[idx];
+            enqueuedAt[to] = enqueuedAt[idx];
+            kept++;
+        }
+        for (int i = kept; i < size; i++) frames[(head + i) % frames.length] = null;
+        size = kept;
+        dropped += n;
+        metrics.wsFramesDropped(n);
+        return true;
+    }
+
+    /** 覆盖型帧的取代关系：同一流的同一事件 */
+    private record FrameKey(String stream, String type) {
+        FrameKey(WsFrame f) {
+            this(f.stream(), f.type());
+        }
+    }
+
+    synchronized int queued() {
+        return size;
+    }
+
+    /** 队列中最旧一帧已等待的毫秒数 */
+    synchronized long lagMillis() {
+        return size == 0 ? 0 : (System.nanoTime() - enqueuedAt[head]) / 1_000_000;
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> m = new HashMap<>();
+        m.put("sessionId", id());
+        m.put("encoding", binary ? "binary" : "json");
+        m.put("queued", size);
+        m.put("enqueued", enqueued);
+        m.put("sent", sent);
+        m.put("dropped", dropped);
+        m.put("failed", failed);
+        m.put("lagMs", lagMillis());
+        m.put("lastSendLagMs", lastLagNanos / 1_000_000);
+        m.put("idleMs", System.currentTimeMillis() - viewer.lastSeen());
+        return m;
+    }
+}
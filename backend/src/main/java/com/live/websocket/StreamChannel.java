@@ -0,0 +1,90 @@
+package com.live.websocket;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 单流广播通道：流内递增序号 + 最近帧环形缓冲（断线续传）+ 快照帧缓存。
+ * 序号分配、缓冲写入与向订阅者投递在 synchronized(this) 内完成，同一流的帧按序号顺序进入各会话队列。
+ * 长时间无订阅者的通道被释放（{@link #retire()}），之后同一流新建的通道 epoch 不同，旧序号不能在新通道上续传。
+ */
+final class StreamChannel {
+
+    private final String streamId;
+    /** 通道标识：序号只在同一 epoch 内连续 */
+    private final long epoch;
+    private final WsFrame[] recent;
+    private long seq;
+    private WsFrame snapshot;
+    private long snapshotSeq = -1;
+    private long snapshotAt;
+    /** 开始无订阅者的时间，0 表示有订阅者 */
+    private long idleSince;
+    private boolean retired;
+
+    StreamChannel(String streamId, int resumeBuffer, long epoch) {
+        this.streamId = streamId;
+        this.epoch = epoch;
+        this.recent = new WsFrame[Math.max(1, resumeBuffer)];
+    }
+
+    String streamId() {
+        return streamId;
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    long seq() {
+        return seq;
+    }
+
+    /** 分配序号并记入缓冲，返回带序号的帧 */
+    WsFrame stamp(WsFrame frame) {
+        WsFrame f = frame.withSeq(streamId, ++seq);
+        recent[(int) (seq % recent.length)] = f;
+        return f;
+    }
+
+    /** since 之后的帧是否都还在缓冲中 */
+    boolean canResume(long since) {
+        return since >= 0 && since <= seq && seq - since <= recent.length;
+    }
+
+    void replay(long since, Consumer<WsFrame> send) {
+        for (long s = since + 1; s <= seq; s++) send.accept(recent[(int) (s % recent.length)]);
+    }
+
+    /** 当前序号下、未超过 maxAgeMs 的快照帧；没有返回 null */
+    WsFrame cachedSnapshot(long now, long maxAgeMs) {
+        return snapshot != null && snapshotSeq == seq && now - snapshotAt <= maxAgeMs ? snapshot : null;
+    }
+
+    void cacheSnapshot(WsFrame frame, long now) {
+        snapshot = frame;
+        snapshotSeq = seq;
+        snapshotAt = now;
+    }
+
+    /** 记录订阅情况，返回无订阅者是否已持续超过 windowMs（续传窗口已过） */
+    boolean idleExpired(boolean subscribed, long now, long windowMs) {
+        if (subscribed) {
+            idleSince = 0;
+            return false;
+        }
+        if (idleSince == 0) idleSince = now;
+        return now - idleSince >= windowMs;
+    }
+
+    /** 已从通道表移除；持有旧引用的调用方须重新获取通道 */
+    void retire() {
+        retired = true;
+        snapshot = null;
+        Arrays.fill(recent, null);
+    }
+
+    boolean retired() {
+        return retired;
+    }
+}
@@ -0,0 +1,38 @@
+package com.live.websocket;
+
+import com.live.service.MockDataService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 流快照的基础组成：直播 / AI 状态、票数、观看人数、辩题、最新 AI 内容。
+ * 快照订阅的客户端一条 snapshot 即可替代 dashboard / votes / debate-topic / ai-content 四个接口。
+ * 同时注册订阅校验：只能订阅已存在的流。
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamSnapshotParts {
+
+    /** 快照中携带的最新 AI 内容条数 */
+    private static final int AI_CONTENT_LIMIT = 20;
+
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+
+    @PostConstruct
+    public void register() {
+        ws.setStreamFilter(sid -> mock.getStream(sid) != null);
+        ws.addSnapshotPart("isLive", mock::isLive);
+        ws.addSnapshotPart("aiStatus", mock::getAiStatus);
+        ws.addSnapshotPart("votes", sid -> {
+            MockDataService.VoteState v = mock.getVotes(sid);
+            return Map.of("leftVotes", v.getLeftVotes(), "rightVotes", v.getRightVotes());
+        });
+        ws.addSnapshotPart("viewers", mock::getViewers);
+        ws.addSnapshotPart("debate", mock::getStreamDebate);
+        ws.addSnapshotPart("aiContents", sid -> mock.getAIContentsAfter(sid, null, AI_CONTENT_LIMIT).list());
+    }
+}
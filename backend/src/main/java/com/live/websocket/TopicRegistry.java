@@ -0,0 +1,100 @@
+package com.live.websocket;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 订阅索引：streamId -> 订阅该流的会话。
+ * 未订阅任何流的会话只接收全局广播；开启 legacyBroadcast 时视为订阅全部流（兼容不发送 subscribe 的旧客户端）。
+ */
+final class TopicRegistry {
+
+    private final boolean legacyBroadcast;
+    /** streamId -> (sessionId -> 订阅) */
+    private final Map<String, Map<String, Subscription>> topics = new ConcurrentHashMap<>();
+    /** sessionId -> 订阅 */
+    private final Map<String, Subscription> bySession = new ConcurrentHashMap<>();
+    /** 未订阅任何流的会话（仅 legacyBroadcast 时记录） */
+    private final Map<String, SessionOutbox> unsubscribed = new ConcurrentHashMap<>();
+
+    TopicRegistry(boolean legacyBroadcast) {
+        this.legacyBroadcast = legacyBroadcast;
+    }
+
+    void register(SessionOutbox session) {
+        bySession.put(session.id(), new Subscription(session));
+        if (legacyBroadcast) unsubscribed.put(session.id(), session);
+    }
+
+    void remove(SessionOutbox session) {
+        Subscription sub = bySession.remove(session.id());
+        unsubscribed.remove(session.id());
+        if (sub != null) sub.streams.keySet().forEach(streamId -> leave(streamId, session.id()));
+    }
+
+    /** 订阅流；events 为空表示该流全部事件 */
+    void subscribe(SessionOutbox session, String streamId, Set<String> events) {
+        Subscription sub = bySession.get(session.id());
+        if (sub == null) return;
+        sub.streams.put(streamId, Set.copyOf(events));
+        topics.compute(streamId, (k, subs) -> {
+            if (subs == null) subs = new ConcurrentHashMap<>();
+            subs.put(session.id(), sub);
+            return subs;
+        });
+        unsubscribed.remove(session.id());
+    }
+
+    /** 取消订阅；streamId 为空表示取消全部（legacyBroadcast 时恢复为全量接收） */
+    void unsubscribe(SessionOutbox session, String streamId) {
+        Subscription sub = bySession.get(session.id());
+        if (sub == null) return;
+        if (streamId == null) {
+            sub.streams.keySet().forEach(sid -> leave(sid, session.id()));
+            sub.streams.clear();
+        } else if (sub.streams.remove(streamId) != null) {
+            leave(streamId, session.id());
+        }
+        if (legacyBroadcast && sub.streams.isEmpty()) unsubscribed.put(session.id(), session);
+    }
+
+    /** 流事件的接收者：该流订阅者（按事件类型过滤）+ legacyBroadcast 时的未订阅会话 */
+    void forEachRecipient(String streamId, String type, Consumer<SessionOutbox> action) {
+        Map<String, Subscription> subs = topics.get(streamId);
+        if (subs != null) {
+            for (Subscription sub : subs.values()) {
+                if (sub.accepts(streamId, type)) action.accept(sub.session);
+            }
+        }
+        unsubscribed.values().forEach(action);
+    }
+
+    /** 该流是否有订阅者 */
+    boolean hasSubscribers(String streamId) {
+        return topics.containsKey(streamId);
+    }
+
+    private void leave(String streamId, String sessionId) {
+        topics.computeIfPresent(streamId, (k, subs) -> {
+            subs.remove(sessionId);
+            return subs.isEmpty() ? null : subs;
+        });
+    }
+
+    private static final class Subscription {
+        final SessionOutbox session;
+        /** streamId -> 事件类型（空集合表示全部） */
+        final Map<String, Set<String>> streams = new ConcurrentHashMap<>();
+
+        Subscription(SessionOutbox session) {
+            this.session = session;
+        }
+
+        boolean accepts(String streamId, String type) {
+            Set<String> events = streams.get(streamId);
+            return events != null && (events.isEmpty() || events.contains(type));
+        }
+    }
+}
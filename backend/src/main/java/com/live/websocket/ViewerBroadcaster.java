@@ -0,0 +1,128 @@
+package com.live.websocket;
+
+import com.live.service.MockDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 观看人数推送：每个周期先把长时间无上行消息的会话移出统计，再对人数有变化的流推送一次
+ * （viewers-updated + viewersCount），并写回 MockDataService 供接口与快照读取；最后移除人数归零的流的计数器。
+ * 多节点部署时人数为本节点与其他节点之和，各节点各自向自己的会话推送。
+ */
+@Slf4j
+@Component
+public class ViewerBroadcaster {
+
+    static final String[] VIEWER_EVENTS = {"viewers-updated", "viewersCount"};
+
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final long intervalMs;
+    private final long idleTimeoutMs;
+    /** 上次推送的人数 streamId -> count */
+    private final Map<String, Integer> lastSent = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    /** 其他节点的观看人数 streamId -> count（多节点部署时由集群同步提供） */
+    private volatile Supplier<Map<String, Integer>> remoteCounts = Map::of;
+    private ScheduledExecutorService scheduler;
+
+    public ViewerBroadcaster(MockDataService mock, LiveWebSocketHandler ws,
+                             @Value("${live.viewers.broadcast-interval-ms:2000}") long intervalMs,
+                             @Value("${live.viewers.idle-timeout-ms:90000}") long idleTimeoutMs) {
+        this.mock = mock;
+        this.ws = ws;
+        this.intervalMs = intervalMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "viewer-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("观看人数推送周期: {}ms, 空闲超时: {}ms", intervalMs, idleTimeoutMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    void flush() {
+        try {
+            expired.add(ws.expireIdleViewers(idleTimeoutMs));
+            Map<String, Integer> totals = totals();
+            totals.forEach((streamId, count) -> {
+                Integer last = lastSent.put(streamId, count);
+                if (last == null || last != count) push(streamId, count);
+            });
+            // 人数归零的流已不在统计中：推送一次 0 后不再跟踪，其计数器在此延迟移除
+            for (Iterator<Map.Entry<String, Integer>> it = lastSent.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Integer> e = it.next();
+                if (totals.containsKey(e.getKey())) continue;
+                it.remove();
+                if (e.getValue() != 0) push(e.getKey(), 0);
+            }
+            ws.pruneViewers();
+        } catch (Exception e) {
+            log.warn("观看人数推送失败: {}", e.getMessage());
+        }
+    }
+
+    /** 立即推送该流当前人数（不论是否变化），返回人数 */
+    public int broadcastNow(String streamId) {
+        int count = ws.viewerCount(streamId) + remoteCounts.get().getOrDefault(streamId, 0);
+        lastSent.put(streamId, count);
+        push(streamId, count);
+        return count;
+    }
+
+    public void setRemoteCounts(Supplier<Map<String, Integer>> remoteCounts) {
+        this.remoteCounts = remoteCounts;
+    }
+
+    /** 本节点人数 + 其他节点人数 */
+    private Map<String, Integer> totals() {
+        Map<String, Integer> counts = ws.viewerCounts();
+        remoteCounts.get().forEach((sid, n) -> counts.merge(sid, n, Integer::sum));
+        return counts;
+    }
+
+    private void push(String streamId, int count) {
+        if (mock.getStream(streamId) != null) mock.setViewers(streamId, count);
+        Map<String, Object> data = new HashMap<>();
+        data.put("streamId", streamId);
+        data.put("viewers", count);
+        data.put("count", count);
+        data.put("action", "update");
+        ws.broadcastLocal(streamId, VIEWER_EVENTS, data);
+        sent.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("intervalMs", intervalMs);
+        data.put("idleTimeoutMs", idleTimeoutMs);
+        data.put("sent", sent.sum());
+        data.put("idleExpired", expired.sum());
+        data.put("streams", totals());
+        return data;
+    }
+}
@@ -0,0 +1,136 @@
+package com.live.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 观看人数：按流订阅统计在线会话数。每流一个分段计数器（LongAdder），订阅 / 退订只锁本会话，无全局锁；
+ * 人数归零的流由 ViewerBroadcaster 每个周期调用 prune 延迟移除（流的有效性由订阅时校验，见 LiveWebSocketHandler）。
+ * 长时间没有任何上行消息（含 ping）的会话视为离开，不计入人数；恢复活动后重新计入。
+ */
+final class ViewerPresence {
+
+    private final Map<String, Counter> counts = new ConcurrentHashMap<>();
+
+    Member member() {
+        return new Member();
+    }
+
+    int count(String streamId) {
+        Counter c = counts.get(streamId);
+        return c != null ? (int) Math.max(0, c.n.sum()) : 0;
+    }
+
+    /** 有观众的流 streamId -> 人数 */
+    Map<String, Integer> counts() {
+        Map<String, Integer> m = new HashMap<>();
+        counts.forEach((sid, c) -> {
+            long n = c.n.sum();
+            if (n > 0) m.put(sid, (int) n);
+        });
+        return m;
+    }
+
+    /** 移除人数为 0 的流的计数器，返回移除数 */
+    int prune() {
+        int removed = 0;
+        for (Map.Entry<String, Counter> e : counts.entrySet()) {
+            Counter c = e.getValue();
+            if (c.n.sum() != 0) continue;
+            // 先置 retired 再复查：与 increment 的先累加再读 retired 配对，并发加入的一方要么被这里看到，要么改用新计数器
+            c.retired = true;
+            if (c.n.sum() != 0) {
+                c.retired = false;
+                continue;
+            }
+            if (counts.remove(e.getKey(), c)) removed++;
+        }
+        return removed;
+    }
+
+    /** 计入一人，返回所用计数器；退出时减回同一个计数器 */
+    private Counter increment(String streamId) {
+        while (true) {
+            Counter c = counts.get(streamId);
+            if (c == null) c = counts.computeIfAbsent(streamId, k -> new Counter());
+            c.n.increment();
+            if (!c.retired) return c;
+            c.n.decrement();
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder n = new LongAdder();
+        volatile boolean retired;
+    }
+
+    /** 单个会话的在场状态；变更在 synchronized(this) 内进行，计数器只在 idle = false 时反映该会话 */
+    final class Member {
+        /** 订阅的流 -> 计入的计数器（idle 时为 null） */
+        private final Map<String, Counter> streams = new HashMap<>();
+        private volatile boolean idle;
+        private boolean closed;
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        synchronized void enter(String streamId) {
+            if (closed || streams.containsKey(streamId)) return;
+            streams.put(streamId, idle ? null : increment(streamId));
+        }
+
+        synchronized void exit(String streamId) {
+            Counter c = streams.remove(streamId);
+            if (c != null) c.n.decrement();
+        }
+
+        synchronized void exitAll() {
+            leave();
+            streams.clear();
+        }
+
+        synchronized void close() {
+            exitAll();
+            closed = true;
+        }
+
+        /** 收到上行消息；之前被判为离开的会话重新计入 */
+        void touch(long now) {
+            lastSeen = now;
+            if (!idle) return;
+            synchronized (this) {
+                if (!idle || closed) return;
+                idle = false;
+                streams.replaceAll((sid, c) -> increment(sid));
+            }
+        }
+
+        /** lastSeen 早于 deadline 时移出人数统计，返回是否移出 */
+        boolean expire(long deadline) {
+            if (lastSeen >= deadline) return false;
+            synchronized (this) {
+                if (idle || closed) return false;
+                // 先置 idle 再复查 lastSeen：与 touch 的先写 lastSeen 再读 idle 配对，并发时至少一方能看到对方
+                idle = true;
+                if (lastSeen >= deadline) {
+                    idle = false;
+                    return false;
+                }
+                leave();
+                return true;
+            }
+        }
+
+        long lastSeen() {
+            return lastSeen;
+        }
+
+        private void leave() {
+            streams.replaceAll((sid, c) -> {
+                if (c != null) c.n.decrement();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.live.websocket;
+
+import com.live.service.MockDataService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 投票广播合并：投票只标记流为脏，每个周期每流最多推送一次最新票数（votes-updated + votesUpdate）
+ */
+@Slf4j
+@Component
+public class VoteBroadcastCoalescer {
+
+    static final String[] VOTE_EVENTS = {"votes-updated", "votesUpdate"};
+
+    private final MockDataService mock;
+    private final LiveWebSocketHandler ws;
+    private final long intervalMs;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    /** 收到的投票变更次数 */
+    private final LongAdder submitted = new LongAdder();
+    /** 实际推送次数 */
+    private final LongAdder sent = new LongAdder();
+    private ScheduledExecutorService scheduler;
+
+    public VoteBroadcastCoalescer(MockDataService mock, LiveWebSocketHandler ws,
+                                  @Value("${live.ws.vote-broadcast-interval-ms:100}") long intervalMs) {
+        this.mock = mock;
+        this.ws = ws;
+        this.intervalMs = intervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "vote-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("投票广播合并周期: {}ms", intervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    /** 标记流票数已变化，等待下个周期统一推送 */
+    public void markDirty(String streamId) {
+        submitted.increment();
+        dirty.add(streamId);
+    }
+
+    void flush() {
+        Iterator<String> it = dirty.iterator();
+        while (it.hasNext()) {
+            String streamId = it.next();
+            it.remove();
+            try {
+                MockDataService.VoteState v = mock.getVotes(streamId);
+                Map<String, Object> data = new HashMap<>();
+                data.put("leftVotes", v.getLeftVotes());
+                data.put("rightVotes", v.getRightVotes());
+                data.put("streamId", streamId);
+                ws.broadcastLocal(streamId, VOTE_EVENTS, data);
+                sent.increment();
+            } catch (Exception e) {
+                log.warn("投票广播失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** 合并统计：submitted 收到变更数，sent 实际推送数，coalesced 被合并掉的变更数 */
+    public Map<String, Object> getStats() {
+        long s = submitted.sum();
+        long n = sent.sum();
+        Map<String, Object> data = new HashMap<>();
+        data.put("intervalMs", intervalMs);
+        data.put("submitted", s);
+        data.put("sent", n);
+        data.put("coalesced", Math.max(0, s - n - dirty.size()));
+        data.put("pending", dirty.size());
+        return data;
+    }
+}
@@ -0,0 +1,71 @@
+package com.live.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * 高频事件的紧凑二进制编码（连接时 ?encoding=binary 启用，默认 JSON）。
+ * <pre>
+ * 帧 = [事件 id: 1 字节][seq: varint][streamId: varint 长度 + UTF-8][字段: zigzag varint ...]
+ *   1 votes-updated    leftVotes, rightVotes
+ *   2 flow-tick        index, remaining
+ *   3 viewers-updated  viewers
+ * </pre>
+ * 其余事件在二进制连接上仍以 JSON 文本帧发送；旧事件名（votesUpdate、viewersCount）不再重复发送，
+ * 因此二进制连接看到的 seq 会跳过这些副本的序号，续传时照常带最后收到的 seq 即可。
+ */
+public final class WsBinaryCodec {
+
+    static final int VOTES = 1;
+    static final int FLOW_TICK = 2;
+    static final int VIEWERS = 3;
+
+    private static final Map<String, Integer> EVENT_IDS = Map.of(
+            "votes-updated", VOTES,
+            "votesUpdate", VOTES,
+            "flow-tick", FLOW_TICK,
+            "viewers-updated", VIEWERS,
+            "viewersCount", VIEWERS);
+
+    private static final Map<Integer, String[]> FIELDS = Map.of(
+            VOTES, new String[]{"leftVotes", "rightVotes"},
+            FLOW_TICK, new String[]{"index", "remaining"},
+            VIEWERS, new String[]{"viewers"});
+
+    private WsBinaryCodec() {}
+
+    /** 事件的二进制 id；不支持二进制编码的事件返回 0 */
+    public static int eventId(String type) {
+        return EVENT_IDS.getOrDefault(type, 0);
+    }
+
+    /** 按事件 id 编码；data 须为 Map，缺失字段按 0 编码 */
+    public static byte[] encode(int eventId, long seq, Object data) {
+        Map<?, ?> m = data instanceof Map<?, ?> map ? map : Map.of();
+        Object sid = m.get("streamId");
+        byte[] sidBytes = sid != null ? sid.toString().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        String[] fields = FIELDS.get(eventId);
+        byte[] buf = new byte[1 + 10 + 5 + sidBytes.length + fields.length * 10];
+        buf[0] = (byte) eventId;
+        int pos = writeVarint(buf, 1, Math.max(0, seq));
+        pos = writeVarint(buf, pos, sidBytes.length);
+        System.arraycopy(sidBytes, 0, buf, pos, sidBytes.length);
+        pos += sidBytes.length;
+        for (String field : fields) {
+            long n = m.get(field) instanceof Number num ? num.longValue() : 0;
+            pos = writeVarint(buf, pos, (n << 1) ^ (n >> 63));
+        }
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /** 写入无符号 varint，返回写入后的位置 */
+    private static int writeVarint(byte[] buf, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+}
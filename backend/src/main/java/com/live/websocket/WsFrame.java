@@ -0,0 +1,113 @@
+package com.live.websocket;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 预编码广播帧：消息只序列化一次为 UTF-8 字节，同一个 TextMessage 实例发送给所有接收者。
+ * 高频事件另有二进制编码（见 {@link WsBinaryCodec}），首次发给二进制连接时生成并复用。
+ */
+public final class WsFrame {
+
+    /** 心跳 ping 控制帧，经会话队列发送以保证与数据帧串行 */
+    static final WsFrame PING = new WsFrame("ping", new byte[0], new PingMessage());
+
+    private final String type;
+    private final byte[] bytes;
+    private final WebSocketMessage<?> message;
+    /** 二进制事件 id，0 表示只有 JSON 编码 */
+    private final int binaryId;
+    /** 二进制编码所需的原始数据（仅 binaryId > 0 时保留） */
+    private final Object data;
+    /** 同一事件的旧名称副本，二进制连接不再发送 */
+    private final boolean alias;
+    private final long seq;
+    /** 所属流（流内事件），全局事件为 null */
+    private final String stream;
+    private volatile BinaryMessage binary;
+
+    WsFrame(String type, byte[] bytes) {
+        this(type, bytes, null, false, 0);
+    }
+
+    private WsFrame(String type, byte[] bytes, WebSocketMessage<?> control) {
+        this.type = type;
+        this.bytes = bytes;
+        this.message = control;
+        this.binaryId = 0;
+        this.data = null;
+        this.alias = false;
+        this.seq = 0;
+        this.stream = null;
+    }
+
+    WsFrame(String type, byte[] bytes, Object data, boolean alias, long seq) {
+        this(type, bytes, data, alias, seq, null);
+    }
+
+    private WsFrame(String type, byte[] bytes, Object data, boolean alias, long seq, String stream) {
+        this.type = type;
+        this.bytes = bytes;
+        this.message = new TextMessage(bytes);
+        this.binaryId = WsBinaryCodec.eventId(type);
+        this.data = binaryId > 0 ? data : null;
+        this.alias = alias;
+        this.seq = seq;
+        this.stream = stream;
+    }
+
+    public String type() {
+        return type;
+    }
+
+    String stream() {
+        return stream;
+    }
+
+    /**
+     * 是否为覆盖型事件（票数、流程计时、观看人数，即支持二进制编码的事件）：
+     * 每帧携带完整的最新值，同流同类型的旧帧可被新帧取代
+     */
+    boolean replaceable() {
+        return binaryId > 0;
+    }
+
+    public WebSocketMessage<?> message() {
+        return message;
+    }
+
+    /** binary 为 true 且该事件支持二进制编码时返回二进制帧，否则返回 JSON 文本帧 */
+    public WebSocketMessage<?> message(boolean binary) {
+        if (!binary || binaryId == 0) return message;
+        BinaryMessage b = this.binary;
+        if (b == null) {
+            b = new BinaryMessage(WsBinaryCodec.encode(binaryId, seq, data));
+            this.binary = b;
+        }
+        return b;
+    }
+
+    public int size() {
+        return bytes.length;
+    }
+
+    /** 二进制连接是否跳过该帧（旧事件名副本） */
+    boolean skipForBinary() {
+        return alias && binaryId > 0;
+    }
+
+    /** 在 type 之后插入 "seq":N，得到 stream 流内带序号的新帧：{"type":"..","seq":N,"data":..} */
+    WsFrame withSeq(String stream, long seq) {
+        int head = ("{\"type\":\"" + type + "\",").getBytes(StandardCharsets.UTF_8).length;
+        byte[] seqBytes = ("\"seq\":" + seq + ",").getBytes(StandardCharsets.US_ASCII);
+        byte[] out = new byte[bytes.length + seqBytes.length];
+        System.arraycopy(bytes, 0, out, 0, head);
+        System.arraycopy(seqBytes, 0, out, head, seqBytes.length);
+        System.arraycopy(bytes, head, out, head + seqBytes.length, bytes.length - head);
+        return new WsFrame(type, out, data, alias, seq, stream);
+    }
+}
@@ -0,0 +1,72 @@
+package com.live.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket 心跳：每个周期向所有会话发送 ping 控制帧（客户端协议栈自动回 pong），
+ * 连续 max-missed 个周期没有任何上行消息的会话（半开连接）被移出广播集合并关闭。
+ * 同时释放无订阅者已超过 resume-window-ms 的流通道。
+ */
+@Slf4j
+@Component
+public class WsHeartbeat {
+
+    private final LiveWebSocketHandler ws;
+    private final long intervalMs;
+    private final int maxMissed;
+    private final long resumeWindowMs;
+    private ScheduledExecutorService scheduler;
+
+    public WsHeartbeat(LiveWebSocketHandler ws,
+                       @Value("${live.ws.heartbeat-interval-ms:25000}") long intervalMs,
+                       @Value("${live.ws.heartbeat-max-missed:3}") int maxMissed,
+                       @Value("${live.ws.resume-window-ms:300000}") long resumeWindowMs) {
+        this.ws = ws;
+        this.intervalMs = intervalMs;
+        this.maxMissed = Math.max(1, maxMissed);
+        this.resumeWindowMs = resumeWindowMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ws-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("WebSocket 心跳周期: {}ms, 最多丢失: {}", intervalMs, maxMissed);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    void tick() {
+        try {
+            ws.heartbeat(intervalMs * maxMissed);
+            int pruned = ws.pruneChannels(resumeWindowMs);
+            if (pruned > 0) log.debug("释放空闲流通道: {}", pruned);
+        } catch (Exception e) {
+            log.warn("心跳失败: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> data = ws.heartbeatStats();
+        data.put("intervalMs", intervalMs);
+        data.put("maxMissed", maxMissed);
+        data.put("channels", ws.channelCount());
+        return data;
+    }
+}
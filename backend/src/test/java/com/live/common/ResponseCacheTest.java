@@ -0,0 +1,55 @@
+package com.live.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(new ObjectMapper(), 3);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void fullCacheEvictsLeastRecentlyUsedEntryOnly() throws Exception {
+        respond("a", 1);
+        Thread.sleep(2);
+        respond("b", 1);
+        Thread.sleep(2);
+        respond("c", 1);
+        Thread.sleep(2);
+        respond("a", 1);
+        respond("d", 1);
+
+        assertThat(cache.getStats().get("entries")).isEqualTo(3);
+        assertThat(cache.getStats().get("evictions")).isEqualTo(1L);
+        int before = loads.get();
+        respond("a", 1);
+        respond("c", 1);
+        respond("d", 1);
+        assertThat(loads.get()).isEqualTo(before);
+        respond("b", 1);
+        assertThat(loads.get()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void versionChangeReloadsAndEtagMatchReturnsNotModified() {
+        String etag = respond("a", 1).getHeaders().getETag();
+        assertThat(cache.respond("a", 1, etag, this::load).getStatusCode().value()).isEqualTo(304);
+
+        respond("a", 2);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.respond("a", 2, etag, this::load).getStatusCode().value()).isEqualTo(200);
+    }
+
+    private ResponseEntity<byte[]> respond(String key, long version) {
+        return cache.respond(key, version, null, this::load);
+    }
+
+    private Result<?> load() {
+        return Result.ok(loads.incrementAndGet());
+    }
+}
@@ -0,0 +1,90 @@
+package com.live.service;
+
+import com.live.model.AIContent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AIContentStoreTest {
+
+    @Test
+    void cursorPagesWalkNewestToOldestWithoutGapsOrRepeats() {
+        AIContentStore store = new AIContentStore();
+        for (int i = 1; i <= 25; i++) store.add(content("ai-" + i, "s-1"));
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AIContentStore.CursorPage page = store.pageAfter("s-1", cursor, 10);
+            page.list().forEach(c -> seen.add(c.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25).startsWith("ai-25", "ai-24").endsWith("ai-1").doesNotHaveDuplicates();
+    }
+
+    @Test
+    void cursorIsStableWhenNewerContentArrives() {
+        AIContentStore store = new AIContentStore();
+        for (int i = 1; i <= 6; i++) store.add(content("ai-" + i, "s-1"));
+        AIContentStore.CursorPage first = store.pageAfter("s-1", null, 3);
+        store.add(content("ai-7", "s-1"));
+
+        AIContentStore.CursorPage second = store.pageAfter("s-1", first.nextCursor(), 3);
+
+        assertThat(ids(first)).containsExactly("ai-6", "ai-5", "ai-4");
+        assertThat(ids(second)).containsExactly("ai-3", "ai-2", "ai-1");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void pagesAreScopedToStreamAndSkipRemovedContent() {
+        AIContentStore store = new AIContentStore();
+        store.add(content("ai-1", "s-1"));
+        store.add(content("ai-2", "s-2"));
+        store.add(content("ai-3", "s-1"));
+        store.remove("ai-3");
+
+        assertThat(ids(store.pageAfter("s-1", null, 10))).containsExactly("ai-1");
+        assertThat(ids(store.pageAfter(null, null, 10))).containsExactly("ai-2", "ai-1");
+        assertThat(store.count("s-1")).isEqualTo(1);
+        assertThat(store.pageAfter("s-3", null, 10).list()).isEmpty();
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoNextCursor() {
+        AIContentStore store = new AIContentStore();
+        for (int i = 1; i <= 4; i++) store.add(content("ai-" + i, "s-1"));
+
+        AIContentStore.CursorPage first = store.pageAfter("s-1", null, 2);
+        AIContentStore.CursorPage last = store.pageAfter("s-1", first.nextCursor(), 2);
+
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(ids(last)).containsExactly("ai-2", "ai-1");
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void malformedCursorStartsFromNewest() {
+        AIContentStore store = new AIContentStore();
+        store.add(content("ai-1", "s-1"));
+        store.add(content("ai-2", "s-1"));
+
+        assertThat(ids(store.pageAfter("s-1", "not-a-cursor", 1))).containsExactly("ai-2");
+    }
+
+    private static List<String> ids(AIContentStore.CursorPage page) {
+        return page.list().stream().map(AIContent::id).toList();
+    }
+
+    private static AIContent content(String id, String streamId) {
+        return new AIContent(id, "text", streamId, Instant.parse("2025-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.live.service;
+
+import com.live.model.Comment;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentBoardTest {
+
+    @Test
+    void pagesWalkNewestToOldestAndSkipDeletedComments() {
+        CommentBoard board = new CommentBoard();
+        for (int i = 1; i <= 7; i++) board.add("ai-1", comment("c-" + i));
+        assertThat(board.remove("ai-1", "c-6")).isTrue();
+        assertThat(board.remove("ai-1", "c-6")).isFalse();
+
+        assertThat(ids(board.page("ai-1", 1, 3))).containsExactly("c-7", "c-5", "c-4");
+        assertThat(ids(board.page("ai-1", 2, 3))).containsExactly("c-3", "c-2", "c-1");
+        assertThat(board.page("ai-1", 3, 3)).isEmpty();
+        assertThat(board.count("ai-1")).isEqualTo(6);
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CommentBoard.CursorPage page = board.pageAfter("ai-1", cursor, 4);
+            seen.addAll(ids(page.list()));
+            cursor = page.nextCursor();
+            // 翻页过程中删除尚未翻到的评论：不影响游标
+            board.remove("ai-1", "c-2");
+        } while (cursor != null);
+        assertThat(seen).containsExactly("c-7", "c-5", "c-4", "c-3", "c-1");
+    }
+
+    @Test
+    void likesOfDeletedContentAndCommentsAreNotPersisted() {
+        CommentBoard board = new CommentBoard();
+        Set<String> contents = new HashSet<>(Set.of("ai-1", "ai-2"));
+        board.add("ai-1", comment("c-1"));
+        board.add("ai-1", comment("c-2"));
+        board.likeContent("ai-1");
+        board.likeContent("ai-2");
+        board.likeComment("ai-1", "c-1");
+        board.likeComment("ai-1", "c-2");
+
+        board.remove("ai-1", "c-2");
+        board.removeContent("ai-2");
+        contents.remove("ai-2");
+        // 删除后才到达的点赞留下的计数器
+        board.likeContent("ai-2");
+
+        Map<String, Long> deltas = board.drainLikes(contents::contains);
+        assertThat(deltas).containsOnlyKeys("ai-1", "ai-1/c-1");
+        assertThat(board.contentLikes("ai-2")).isZero();
+    }
+
+    @Test
+    void replayDoesNotRecreateDeletedContent() {
+        CommentBoard board = new CommentBoard();
+        board.add("ai-1", comment("c-1"));
+
+        board.replayLikes(Map.of("ai-1", 2L, "ai-1/c-1", 3L, "ai-2", 5L, "ai-1/c-9", 1L), "ai-1"::equals);
+
+        assertThat(board.contentLikes("ai-1")).isEqualTo(2);
+        assertThat(board.page("ai-1", 1, 10).get(0).likes()).isEqualTo(3);
+        assertThat(board.contentLikes("ai-2")).isZero();
+        assertThat(board.exportContentLikes()).containsOnlyKeys("ai-1");
+    }
+
+    private static List<String> ids(List<Comment> list) {
+        return list.stream().map(Comment::id).toList();
+    }
+
+    private static Comment comment(String id) {
+        return new Comment(id, "u", "text", null, Instant.parse("2025-01-01T00:00:00Z"), 0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.live.service;
+
+import com.live.metrics.LiveMetrics;
+import com.live.model.AIContent;
+import com.live.model.StreamState;
+import com.live.storage.InMemoryStateStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.live.service.MockDataService.Resource.CONTENT;
+import static com.live.service.MockDataService.Resource.STREAM;
+import static com.live.service.MockDataService.Resource.TOPIC;
+import static com.live.service.MockDataService.Resource.VOTES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockDataServiceVersionTest {
+
+    private MockDataService data;
+
+    @BeforeEach
+    void setUp() {
+        VoteEventLog events = new VoteEventLog(1024, 500);
+        data = new MockDataService(new InMemoryStateStore(), events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        data.init();
+    }
+
+    @Test
+    void votesOnlyAdvanceTheVotesVersionAndOnlyWhenRead() {
+        long topic = data.getVersion("stream-1", TOPIC);
+        long content = data.getVersion("stream-1", CONTENT);
+        long votes = data.getVersion("stream-1", VOTES);
+
+        for (int i = 0; i < 100; i++) data.addVotes("stream-1", 1, 0);
+        long afterVotes = data.getVersion("stream-1", VOTES);
+
+        assertThat(afterVotes).isGreaterThan(votes);
+        // 100 次投票只在读取时推进一次
+        assertThat(data.getVersion("stream-1", VOTES)).isEqualTo(afterVotes);
+        assertThat(data.getVersion("stream-1", TOPIC)).isEqualTo(topic);
+        assertThat(data.getVersion("stream-1", CONTENT)).isEqualTo(content);
+    }
+
+    @Test
+    void versionReadBeforeVotesCoversThem() {
+        data.addVotes("stream-1", 1, 0);
+        long v = data.getVersion("stream-1", VOTES);
+        int left = data.getVotes("stream-1").getLeftVotes();
+
+        data.addVotes("stream-1", 1, 0);
+
+        assertThat(data.getVersion("stream-1", VOTES)).isGreaterThan(v);
+        assertThat(data.getVotes("stream-1").getLeftVotes()).isEqualTo(left + 1);
+        assertThat(data.getVersion("stream-1")).isGreaterThanOrEqualTo(data.getVersion("stream-1", VOTES));
+    }
+
+    @Test
+    void contentAndStreamChangesAreScoped() {
+        long votes = data.getVersion("stream-1", VOTES);
+        long content = data.getVersion("stream-1", CONTENT);
+        long stream = data.getVersion("stream-1", STREAM);
+
+        data.addAIContent(new AIContent("ai-50", "x", "stream-1", Instant.now()));
+        data.setLive("stream-1", true);
+
+        assertThat(data.getVersion("stream-1", CONTENT)).isGreaterThan(content);
+        assertThat(data.getVersion("stream-1", STREAM)).isGreaterThan(stream);
+        assertThat(data.getVersion("stream-1", VOTES)).isEqualTo(votes);
+        assertThat(data.getVersion(null, CONTENT)).isEqualTo(data.getVersion("stream-1", CONTENT));
+    }
+
+    @Test
+    void streamStateVersionIgnoresContentChanges() {
+        StreamState before = data.getStreamState("stream-1");
+
+        data.addAIContent(new AIContent("ai-51", "x", "stream-1", Instant.now()));
+        assertThat(data.getStateVersion("stream-1")).isEqualTo(before.version());
+        assertThat(data.getStreamState("stream-1")).isSameAs(before);
+
+        data.setViewers("stream-1", 42);
+        StreamState after = data.getStreamState("stream-1");
+        assertThat(after.version()).isGreaterThan(before.version()).isEqualTo(data.getStateVersion(null));
+        assertThat(after.viewers()).isEqualTo(42);
+    }
+}
@@ -0,0 +1,73 @@
+package com.live.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserVoteLedgerTest {
+
+    @Test
+    void sameAllocationTwiceYieldsZeroDelta() {
+        UserVoteLedger ledger = new UserVoteLedger();
+        long first = ledger.allocate("u-1", 60, 40);
+        assertThat(UserVoteLedger.left(first)).isEqualTo(60);
+        assertThat(UserVoteLedger.right(first)).isEqualTo(40);
+
+        assertThat(ledger.allocate("u-1", 60, 40)).isZero();
+        assertThat(ledger.size()).isEqualTo(1);
+    }
+
+    @Test
+    void reallocationReturnsSignedDifference() {
+        UserVoteLedger ledger = new UserVoteLedger();
+        ledger.allocate("u-1", 60, 40);
+        long delta = ledger.allocate("u-1", 10, 90);
+
+        assertThat(UserVoteLedger.left(delta)).isEqualTo(-50);
+        assertThat(UserVoteLedger.right(delta)).isEqualTo(50);
+        assertThat(ledger.get("u-1")).isEqualTo(UserVoteLedger.pack(10, 90));
+    }
+
+    @Test
+    void exportAndLoadRoundTrip() {
+        UserVoteLedger ledger = new UserVoteLedger();
+        for (int i = 0; i < 1000; i++) ledger.allocate("u-" + i, i % 100, 100 - i % 100);
+        UserVoteLedger copy = new UserVoteLedger();
+        copy.load(ledger.export());
+
+        assertThat(copy.size()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(copy.get("u-" + i)).isEqualTo(ledger.get("u-" + i));
+            assertThat(copy.allocate("u-" + i, i % 100, 100 - i % 100)).isZero();
+        }
+    }
+
+    @Test
+    void joinIsCountedOncePerUserEvenAfterResettingToZero() {
+        UserVoteLedger ledger = new UserVoteLedger();
+        long key = UserVoteLedger.key("u-1");
+        assertThat(UserVoteLedger.joins(ledger.exchange(key, 0, 0), 0, 0)).isFalse();
+        assertThat(UserVoteLedger.joins(ledger.exchange(key, 3, 0), 3, 0)).isTrue();
+        assertThat(UserVoteLedger.joins(ledger.exchange(key, 0, 0), 0, 0)).isFalse();
+        long prev = ledger.exchange(key, 2, 1);
+        assertThat(UserVoteLedger.joins(prev, 2, 1)).isFalse();
+        assertThat(UserVoteLedger.delta(prev, 2, 1)).isEqualTo(UserVoteLedger.pack(2, 1));
+        assertThat(ledger.get("u-1")).isEqualTo(UserVoteLedger.pack(2, 1));
+
+        UserVoteLedger copy = new UserVoteLedger();
+        copy.load(ledger.export());
+        copy.exchange(key, 0, 0);
+        assertThat(UserVoteLedger.joins(copy.exchange(key, 1, 0), 1, 0)).isFalse();
+    }
+
+    @Test
+    void clearForgetsAllocations() {
+        UserVoteLedger ledger = new UserVoteLedger();
+        ledger.allocate("u-1", 3, 0);
+        ledger.clear();
+
+        assertThat(ledger.size()).isZero();
+        assertThat(ledger.find(UserVoteLedger.key("u-1"))).isNull();
+        assertThat(UserVoteLedger.left(ledger.allocate("u-1", 3, 0))).isEqualTo(3);
+    }
+}
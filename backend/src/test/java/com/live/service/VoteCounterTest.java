@@ -0,0 +1,59 @@
+package com.live.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteCounterTest {
+
+    @Test
+    void resetReturnsPreviousSums() {
+        VoteCounter c = new VoteCounter(3, 4);
+        c.add(2, -1);
+        assertThat(c.reset(10, 20)).containsExactly(5, 3);
+        assertThat(c.left()).isEqualTo(10);
+        assertThat(c.right()).isEqualTo(20);
+    }
+
+    @Test
+    void concurrentAddsAreNotLostAcrossReset() throws Exception {
+        VoteCounter c = new VoteCounter();
+        // 与 MockDataService 的合计一样：每次累加与重置的差值都同步计入 totals
+        AtomicLong totals = new AtomicLong();
+        int threads = 4, perThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n = 0; n < perThread; n++) {
+                    c.add(1, 0);
+                    totals.addAndGet(1);
+                }
+            });
+            workers[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < 50; i++) {
+            long[] before = c.reset(0, 0);
+            totals.addAndGet(-before[0]);
+        }
+        for (Thread t : workers) t.join();
+        assertThat(c.left()).isEqualTo(totals.get());
+    }
+
+    @Test
+    void snapshotSaturatesToIntRange() {
+        VoteCounter c = new VoteCounter(Integer.MAX_VALUE, Integer.MIN_VALUE);
+        c.add(10, -10);
+        assertThat(c.snapshot().getLeftVotes()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(c.snapshot().getRightVotes()).isEqualTo(Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,63 @@
+package com.live.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteEventLogTest {
+
+    @Test
+    void eventsFromManyThreadsAreSequencedWithoutGaps() throws Exception {
+        VoteEventLog log = new VoteEventLog(4096, 500);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String user = "u-" + t;
+            writers.add(new Thread(() -> {
+                for (int n = 0; n < 200; n++) log.record("s-1", 1, 0, user);
+            }));
+        }
+        // 游标读到一半时其他线程继续写入：之后的事件编号总在游标之后
+        long cursor = -1;
+        Set<Long> seen = new HashSet<>();
+        writers.forEach(Thread::start);
+        for (Thread w : writers) {
+            cursor = readAll(log, cursor, seen);
+            w.join();
+        }
+        readAll(log, cursor, seen);
+
+        assertThat(seen).hasSize(800);
+        assertThat(log.stats()).containsEntry("recorded", 800L).containsEntry("aggregated", 800L).containsEntry("lost", 0L);
+        long now = System.currentTimeMillis();
+        assertThat(log.timeline("s-1", "minute", now - 3_600_000, now + 60_000).stream()
+                .mapToLong(b -> (Long) b.get("leftVotes")).sum()).isEqualTo(800);
+    }
+
+    @Test
+    void userDictionaryEvictsOldestUsers() {
+        VoteEventLog log = new VoteEventLog(1024, 500);
+        for (int i = 0; i < 10_000; i++) log.record("s-1", 1, 0, "u-" + i);
+
+        Map<String, Object> stats = log.stats();
+        assertThat((Integer) stats.get("users")).isEqualTo(2 * (Integer) stats.get("capacity"));
+        List<?> events = (List<?>) log.events("s-1", -1, 0, Long.MAX_VALUE, 1000).get("list");
+        assertThat(events).hasSize(1000);
+        // 历史环只保留最近的事件，对应的用户都还在
+        assertThat(events).allSatisfy(e -> assertThat(((Map<?, ?>) e).get("userId")).isNotNull());
+    }
+
+    private static long readAll(VoteEventLog log, long cursor, Set<Long> seen) {
+        while (true) {
+            Map<String, Object> page = log.events("s-1", cursor, 0, Long.MAX_VALUE, 100);
+            for (Object e : (List<?>) page.get("list")) assertThat(seen.add((Long) ((Map<?, ?>) e).get("seq"))).isTrue();
+            cursor = (Long) page.get("nextSeq");
+            if (!(Boolean) page.get("hasMore")) return cursor;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.live.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.live.metrics.LiveMetrics;
+import com.live.model.AIContent;
+import com.live.model.UserInfo;
+import com.live.service.MockDataService;
+import com.live.service.StatsEngine;
+import com.live.service.VoteEventLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalStateStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysMutationsInOrder() {
+        // 不同分段的投票之间不保证先后，票数设置等其余变更是屏障
+        List<Mutation> written = List.of(
+                new Mutation.StreamPut(new MockDataService.StreamInfo("s-1", "流", true, null, null)),
+                new Mutation.VoteAdd("s-1", 3, 1),
+                new Mutation.VoteSet("s-1", 10, 20),
+                new Mutation.UserVote("s-1", "u-1", 2, 0),
+                new Mutation.StreamDelete("s-1"));
+        WalStateStore store = open();
+        store.recover(s -> {}, m -> {});
+        written.forEach(m -> store.write(m, x -> {}));
+        store.close();
+
+        assertThat(replay()).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void tornTailIsTruncatedAndOverwritten() throws Exception {
+        WalStateStore store = open();
+        store.recover(s -> {}, m -> {});
+        store.write(new Mutation.VoteAdd("s-1", 1, 0), m -> {});
+        store.write(new Mutation.VoteAdd("s-2", 2, 0), m -> {});
+        int end = offset(store);
+        store.close();
+        // 崩溃时只写了一半的记录：长度头已写入，内容超出段文件
+        try (RandomAccessFile f = new RandomAccessFile(dir.resolve("wal-0.log").toFile(), "rw")) {
+            f.seek(end);
+            f.writeInt(2 * 1024 * 1024);
+            f.writeInt(12345);
+        }
+
+        store = open();
+        List<Mutation> replayed = new ArrayList<>();
+        store.recover(s -> {}, replayed::add);
+        assertThat(replayed).hasSize(2);
+        assertThat(offset(store)).isEqualTo(end);
+        store.write(new Mutation.VoteAdd("s-1", 3, 0), m -> {});
+        store.close();
+
+        assertThat(replay()).containsExactly(
+                new Mutation.VoteAdd("s-1", 1, 0),
+                new Mutation.VoteAdd("s-2", 2, 0),
+                new Mutation.VoteAdd("s-1", 3, 0));
+    }
+
+    @Test
+    void crcMismatchDiscardsRecordAndEverythingAfter() throws Exception {
+        WalStateStore store = open();
+        store.recover(s -> {}, m -> {});
+        store.write(new Mutation.VoteAdd("s-1", 1, 0), m -> {});
+        int second = offset(store);
+        store.write(new Mutation.VoteAdd("s-1", 2, 0), m -> {});
+        store.write(new Mutation.VoteAdd("s-1", 3, 0), m -> {});
+        store.close();
+        try (RandomAccessFile f = new RandomAccessFile(dir.resolve("wal-0.log").toFile(), "rw")) {
+            // 第二条记录的最后一个字节（右票增量）被改写
+            long pos = second + 8 + (1 + 2 + 3 + 8) - 1;
+            f.seek(pos);
+            int b = f.read();
+            f.seek(pos);
+            f.write(b ^ 0xff);
+        }
+
+        store = open();
+        List<Mutation> replayed = new ArrayList<>();
+        store.recover(s -> {}, replayed::add);
+        store.write(new Mutation.VoteAdd("s-1", 4, 0), m -> {});
+        store.close();
+
+        assertThat(replayed).containsExactly(new Mutation.VoteAdd("s-1", 1, 0));
+        assertThat(replay()).containsExactly(new Mutation.VoteAdd("s-1", 1, 0), new Mutation.VoteAdd("s-1", 4, 0));
+    }
+
+    @Test
+    void recoversFromSnapshotPlusTail() throws Exception {
+        WalStateStore store = open();
+        MockDataService data = service(store);
+        data.putUser(user("u-1"));
+        data.addVotes("stream-1", 5, 2);
+        data.castUserVote("stream-1", "u-1", 3, 1);
+        data.addAIContent(new AIContent("ai-100", "快照前", "stream-1", Instant.now()));
+        store.checkpoint();
+        data.addVotes("stream-1", 1, 1);
+        data.castUserVote("stream-1", "u-1", 0, 4);
+        data.deleteAIContent("ai-100");
+        data.addAIContent(new AIContent("ai-101", "快照后", "stream-1", Instant.now()));
+        store.flush();
+        // 模拟进程崩溃：不关闭（关闭时会再做一次快照），组提交写入映射内存的日志仍在
+
+        WalStateStore reopened = open();
+        MockDataService restored = service(reopened);
+        assertThat(reopened.stats().get("replayed")).isEqualTo(4L);
+        assertVotesEqual(restored, data);
+        assertThat(restored.getAIContent("ai-100")).isNull();
+        assertThat(restored.getAIContent("ai-101")).isNotNull();
+        assertThat(restored.getUser("u-1").totalVotes()).isEqualTo(data.getUser("u-1").totalVotes());
+        reopened.close();
+    }
+
+    @Test
+    void checkpointDuringWritesRecoversExactState() throws Exception {
+        WalStateStore store = open();
+        MockDataService data = service(store);
+        int users = 2000;
+        for (int i = 0; i < users; i++) data.putUser(user("u-" + i));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int n = 0; running.get(); n++) {
+                data.castUserVote("stream-1", "u-" + (n % users), n % 7, n % 5);
+                data.addVotes("stream-1", 1, 0);
+                if (n % 2 == 0) data.addAIContent(new AIContent("ai-" + (1000 + n), "x", "stream-1", Instant.now()));
+                if (n % 6 == 0) data.deleteAIContent("ai-" + (1000 + n - 4));
+            }
+        });
+        writer.start();
+        for (int i = 0; i < 20; i++) store.checkpoint();
+        running.set(false);
+        writer.join();
+        store.flush();
+        // 不关闭：从最后一次与写入交错的快照 + 其后的日志恢复
+
+        WalStateStore reopened = open();
+        MockDataService restored = service(reopened);
+        assertVotesEqual(restored, data);
+        assertThat(restored.getAIContentsTotal("stream-1")).isEqualTo(data.getAIContentsTotal("stream-1"));
+        for (int i = 0; i < users; i++) {
+            assertThat(restored.getUser("u-" + i)).isEqualTo(data.getUser("u-" + i));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void concurrentVotesFromManyThreadsRecoverExactly() throws Exception {
+        WalStateStore store = open();
+        MockDataService data = service(store);
+        int users = 500;
+        for (int i = 0; i < users; i++) data.putUser(user("u-" + i));
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            writers.add(new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    data.addVotes("stream-1", 1, seed);
+                    data.castUserVote("stream-1", "u-" + ((n * 7 + seed) % users), n % 7, (n + seed) % 5);
+                    if (n % 5000 == 0) data.setVotes("stream-1", 100, 100);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (int i = 0; i < 5; i++) store.checkpoint();
+        for (Thread w : writers) w.join();
+        store.flush();
+
+        WalStateStore reopened = open();
+        MockDataService restored = service(reopened);
+        assertVotesEqual(restored, data);
+        for (int i = 0; i < users; i++) {
+            assertThat(restored.getUser("u-" + i)).isEqualTo(data.getUser("u-" + i));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void consecutiveVotesOnOneStreamAreMergedIntoOneRecord() {
+        WalStateStore store = open();
+        store.recover(s -> {}, m -> {});
+        store.write(new Mutation.VoteAdd("s-1", 1, 0), m -> {});
+        store.write(new Mutation.VoteAdd("s-1", 2, 5), m -> {});
+        store.write(new Mutation.VoteAdd("s-2", 1, 1), m -> {});
+        store.write(new Mutation.VoteAdd("s-1", Integer.MAX_VALUE, 0), m -> {});
+        // 累加会溢出：另起一条
+        store.write(new Mutation.VoteAdd("s-1", 1, 0), m -> {});
+        store.close();
+
+        assertThat(replay()).containsExactly(
+                new Mutation.VoteAdd("s-1", 3, 5),
+                new Mutation.VoteAdd("s-2", 1, 1),
+                new Mutation.VoteAdd("s-1", Integer.MAX_VALUE, 0),
+                new Mutation.VoteAdd("s-1", 1, 0));
+    }
+
+    @Test
+    void oversizedIdIsRejectedBeforeAppending() {
+        WalStateStore store = open();
+        store.recover(s -> {}, m -> {});
+        String longId = "u".repeat(70_000);
+        AtomicBoolean applied = new AtomicBoolean();
+
+        assertThatThrownBy(() -> store.write(new Mutation.UserVote("s-1", longId, 1, 0), m -> applied.set(true)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.write(new Mutation.VoteAdd(longId, 1, 0), m -> applied.set(true)))
+                .isInstanceOf(IllegalArgumentException.class);
+        store.write(new Mutation.VoteAdd("s-1", 1, 0), m -> {});
+        // 未超长但放不进分段缓冲的记录直接追加，同一用户的先后不变
+        Mutation first = new Mutation.UserVote("s-1", "u".repeat(65_535), 1, 0);
+        Mutation second = new Mutation.UserVote("s-1", "u".repeat(65_535), 2, 3);
+        store.write(first, m -> {});
+        store.write(second, m -> {});
+        store.close();
+
+        assertThat(applied).isFalse();
+        List<Mutation> replayed = replay();
+        assertThat(replayed).hasSize(3).contains(new Mutation.VoteAdd("s-1", 1, 0));
+        assertThat(replayed).filteredOn(m -> m instanceof Mutation.UserVote).containsExactly(first, second);
+    }
+
+    private WalStateStore open() {
+        return new WalStateStore(new ObjectMapper().findAndRegisterModules(), dir.toString(), 1, 10, 3600);
+    }
+
+    private List<Mutation> replay() {
+        List<Mutation> out = new ArrayList<>();
+        WalStateStore store = open();
+        store.recover(s -> {}, out::add);
+        store.close();
+        return out;
+    }
+
+    private static int offset(WalStateStore store) {
+        return ((Number) store.stats().get("segmentOffset")).intValue();
+    }
+
+    private static MockDataService service(StateStore store) {
+        VoteEventLog events = new VoteEventLog(1024, 500);
+        MockDataService s = new MockDataService(store, events, new LiveMetrics(), new StatsEngine(events, "Asia/Shanghai", 90));
+        s.init();
+        return s;
+    }
+
+    private static void assertVotesEqual(MockDataService restored, MockDataService live) {
+        assertThat(restored.getVotes("stream-1")).isEqualTo(live.getVotes("stream-1"));
+        assertThat(restored.getVotersCount("stream-1")).isEqualTo(live.getVotersCount("stream-1"));
+        assertThat(restored.getVoteTotals()).isEqualTo(live.getVoteTotals());
+    }
+
+    private static UserInfo user(String id) {
+        Instant t = Instant.parse("2025-01-01T00:00:00Z");
+        return new UserInfo(id, id, null, t, t, 0, 0, "active");
+    }
+}
@@ -0,0 +1,88 @@
+package com.live.websocket;
+
+import com.live.metrics.LiveMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionOutboxTest {
+
+    private WebSocketSession ws;
+    /** 只记录不执行，队列不会被排空 */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ws = mock(WebSocketSession.class);
+        when(ws.getId()).thenReturn("s-1");
+        when(ws.isOpen()).thenReturn(true);
+    }
+
+    @Test
+    void latestSnapshotDropsOnlySupersededStateFrames() {
+        SessionOutbox out = outbox(4);
+        out.offer(frame("votes-updated", "a"));
+        out.offer(frame("votes-updated", "b"));
+        out.offer(frame("newAIContent", "a"));
+        out.offer(frame("votes-updated", "a"));
+        out.offer(frame("votes-updated", "b"));
+
+        assertThat(out.queued()).isEqualTo(3);
+        assertThat(out.stats().get("dropped")).isEqualTo(2L);
+    }
+
+    @Test
+    void overflowWithoutSupersededFramesDisconnects() throws Exception {
+        SessionOutbox out = outbox(3);
+        out.offer(frame("votes-updated", "a"));
+        out.offer(frame("votes-updated", "b"));
+        out.offer(frame("newAIContent", "a"));
+        // 队列中没有被取代的帧：各流票数都只有一帧，增量事件不能丢
+        out.offer(frame("newAIContent", "b"));
+
+        assertThat(out.stats().get("dropped")).isEqualTo(0L);
+        tasks.get(tasks.size() - 1).run();
+        verify(ws).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(out.queued()).isZero();
+        out.offer(frame("votes-updated", "a"));
+        assertThat(out.queued()).isZero();
+    }
+
+    @Test
+    void unexpectedSendFailureClosesSessionInsteadOfStallingTheQueue() throws Exception {
+        doThrow(new UnsupportedOperationException("boom")).when(ws).sendMessage(any());
+        SessionOutbox out = outbox(4);
+        out.offer(frame("newAIContent", "a"));
+        out.offer(frame("newAIContent", "b"));
+
+        tasks.get(0).run();
+
+        verify(ws).close(CloseStatus.SERVER_ERROR);
+        assertThat(out.queued()).isZero();
+        assertThat(out.stats().get("failed")).isEqualTo(1L);
+    }
+
+    private SessionOutbox outbox(int capacity) {
+        return new SessionOutbox(ws, capacity, SessionOutbox.OverflowPolicy.LATEST_SNAPSHOT, tasks::add,
+                new ViewerPresence().member(), new LiveMetrics());
+    }
+
+    private static WsFrame frame(String type, String stream) {
+        byte[] bytes = ("{\"type\":\"" + type + "\",\"data\":{}}").getBytes(StandardCharsets.UTF_8);
+        WsFrame f = new WsFrame(type, bytes, Map.of(), false, 0);
+        return stream != null ? new StreamChannel(stream, 16, 1).stamp(f) : f;
+    }
+}
@@ -0,0 +1,54 @@
+package com.live.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamChannelTest {
+
+    @Test
+    void resumesFramesWithinBuffer() {
+        StreamChannel ch = new StreamChannel("s-1", 4, 1);
+        for (int i = 0; i < 6; i++) ch.stamp(frame());
+
+        assertThat(ch.canResume(2)).isTrue();
+        List<String> replayed = new ArrayList<>();
+        ch.replay(2, f -> replayed.add((String) f.message().getPayload()));
+        assertThat(replayed).hasSize(4);
+        assertThat(replayed.get(0)).contains("\"seq\":3");
+        assertThat(replayed.get(3)).contains("\"seq\":6");
+    }
+
+    @Test
+    void cannotResumeOutsideBuffer() {
+        StreamChannel ch = new StreamChannel("s-1", 4, 1);
+        for (int i = 0; i < 6; i++) ch.stamp(frame());
+
+        assertThat(ch.canResume(1)).isFalse();
+        assertThat(ch.canResume(7)).isFalse();
+        assertThat(ch.canResume(-1)).isFalse();
+        assertThat(ch.canResume(6)).isTrue();
+    }
+
+    @Test
+    void idleExpiresOnlyAfterWindowWithoutSubscribers() {
+        StreamChannel ch = new StreamChannel("s-1", 4, 1);
+
+        assertThat(ch.idleExpired(false, 1_000, 500)).isFalse();
+        assertThat(ch.idleExpired(false, 1_400, 500)).isFalse();
+        // 期间有订阅者：重新计时
+        assertThat(ch.idleExpired(true, 1_450, 500)).isFalse();
+        assertThat(ch.idleExpired(false, 1_600, 500)).isFalse();
+        assertThat(ch.idleExpired(false, 2_100, 500)).isTrue();
+    }
+
+    private static WsFrame frame() {
+        return new WsFrame("newAIContent", "{\"type\":\"newAIContent\",\"data\":{}}".getBytes(StandardCharsets.UTF_8),
+                Map.of(), false, 0);
+    }
+}
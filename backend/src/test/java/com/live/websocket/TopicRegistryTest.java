@@ -0,0 +1,83 @@
+package com.live.websocket;
+
+import com.live.metrics.LiveMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TopicRegistryTest {
+
+    @Test
+    void routesStreamEventsOnlyToMatchingSubscriptions() {
+        TopicRegistry topics = new TopicRegistry(false);
+        SessionOutbox all = register(topics, "all");
+        SessionOutbox votesOnly = register(topics, "votes");
+        SessionOutbox other = register(topics, "other");
+        SessionOutbox none = register(topics, "none");
+        topics.subscribe(all, "s-1", Set.of());
+        topics.subscribe(votesOnly, "s-1", Set.of("votes-updated"));
+        topics.subscribe(other, "s-2", Set.of());
+
+        assertThat(recipients(topics, "s-1", "votes-updated")).containsExactlyInAnyOrder("all", "votes");
+        assertThat(recipients(topics, "s-1", "newAIContent")).containsExactly("all");
+        assertThat(recipients(topics, "s-2", "votes-updated")).containsExactly("other");
+        assertThat(recipients(topics, "s-3", "votes-updated")).isEmpty();
+        assertThat(recipients(topics, "s-1", "votes-updated")).doesNotContain(none.id());
+    }
+
+    @Test
+    void unsubscribeAndRemoveStopDelivery() {
+        TopicRegistry topics = new TopicRegistry(false);
+        SessionOutbox a = register(topics, "a");
+        SessionOutbox b = register(topics, "b");
+        topics.subscribe(a, "s-1", Set.of());
+        topics.subscribe(a, "s-2", Set.of());
+        topics.subscribe(b, "s-1", Set.of());
+
+        topics.unsubscribe(a, "s-1");
+        assertThat(recipients(topics, "s-1", "x")).containsExactly("b");
+        assertThat(recipients(topics, "s-2", "x")).containsExactly("a");
+
+        topics.remove(b);
+        assertThat(topics.hasSubscribers("s-1")).isFalse();
+        topics.unsubscribe(a, null);
+        assertThat(topics.hasSubscribers("s-2")).isFalse();
+    }
+
+    @Test
+    void legacyBroadcastDeliversToUnsubscribedSessionsUntilTheySubscribe() {
+        TopicRegistry topics = new TopicRegistry(true);
+        SessionOutbox legacy = register(topics, "legacy");
+        SessionOutbox modern = register(topics, "modern");
+        topics.subscribe(modern, "s-2", Set.of());
+
+        assertThat(recipients(topics, "s-1", "x")).containsExactly("legacy");
+
+        topics.subscribe(legacy, "s-2", Set.of());
+        assertThat(recipients(topics, "s-1", "x")).isEmpty();
+        topics.unsubscribe(legacy, null);
+        assertThat(recipients(topics, "s-1", "x")).containsExactly("legacy");
+    }
+
+    private static SessionOutbox register(TopicRegistry topics, String id) {
+        WebSocketSession ws = mock(WebSocketSession.class);
+        when(ws.getId()).thenReturn(id);
+        SessionOutbox outbox = new SessionOutbox(ws, 4, SessionOutbox.OverflowPolicy.DISCONNECT, r -> {},
+                new ViewerPresence().member(), new LiveMetrics());
+        topics.register(outbox);
+        return outbox;
+    }
+
+    private static List<String> recipients(TopicRegistry topics, String streamId, String type) {
+        List<String> ids = new ArrayList<>();
+        topics.forEachRecipient(streamId, type, s -> ids.add(s.id()));
+        return ids;
+    }
+}
@@ -0,0 +1,84 @@
+package com.live.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ViewerPresenceTest {
+
+    @Test
+    void streamEntryIsDroppedWhenLastViewerLeaves() {
+        ViewerPresence presence = new ViewerPresence();
+        ViewerPresence.Member a = presence.member();
+        ViewerPresence.Member b = presence.member();
+        a.enter("s-1");
+        a.enter("s-1");
+        b.enter("s-1");
+        b.enter("s-2");
+
+        assertThat(presence.counts()).containsOnly(
+                entry("s-1", 2),
+                entry("s-2", 1));
+
+        a.exit("s-1");
+        b.close();
+        assertThat(presence.counts()).isEmpty();
+        assertThat(presence.count("s-1")).isZero();
+        assertThat(presence.prune()).isEqualTo(2);
+        assertThat(presence.prune()).isZero();
+
+        a.enter("s-1");
+        assertThat(presence.counts()).containsOnly(entry("s-1", 1));
+    }
+
+    @Test
+    void pruneDoesNotLoseConcurrentJoins() throws Exception {
+        ViewerPresence presence = new ViewerPresence();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread pruner = new Thread(() -> {
+            while (!done.get()) presence.prune();
+        });
+        pruner.start();
+        List<Thread> viewers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            viewers.add(new Thread(() -> {
+                ViewerPresence.Member m = presence.member();
+                for (int i = 0; i < 5_000; i++) {
+                    m.enter("s-1");
+                    m.exit("s-1");
+                }
+                m.enter("s-1");
+            }));
+        }
+        viewers.forEach(Thread::start);
+        for (Thread v : viewers) v.join();
+        done.set(true);
+        pruner.join();
+
+        assertThat(presence.count("s-1")).isEqualTo(4);
+        assertThat(presence.prune()).isZero();
+    }
+
+    @Test
+    void idleViewersLeaveAndRejoinTheCount() {
+        ViewerPresence presence = new ViewerPresence();
+        ViewerPresence.Member a = presence.member();
+        a.enter("s-1");
+
+        assertThat(a.expire(Long.MAX_VALUE)).isTrue();
+        assertThat(presence.counts()).isEmpty();
+        a.exit("s-1");
+        a.enter("s-2");
+        assertThat(presence.counts()).isEmpty();
+
+        a.touch(System.currentTimeMillis());
+        assertThat(presence.counts()).containsOnlyKeys("s-2");
+        a.exitAll();
+        assertThat(presence.counts()).isEmpty();
+    }
+}